@@ -1,15 +1,17 @@
 package com.campusconnect.controller;
 
 import com.campusconnect.model.User;
-import com.campusconnect.repository.GroupRepository;
 import com.campusconnect.repository.UserRepository;
 import com.campusconnect.service.BotSeederService;
+import com.campusconnect.service.BulkDeleteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -18,6 +20,8 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "http://localhost:3000")
 public class BotManagementController {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    
     @Autowired
     private BotSeederService botSeederService;
     
@@ -25,7 +29,7 @@ public class BotManagementController {
     private UserRepository userRepository;
     
     @Autowired
-    private GroupRepository groupRepository;
+    private BulkDeleteService bulkDeleteService;
     
     /**
      * Seed bot users for testing
@@ -84,17 +88,22 @@ public class BotManagementController {
     }
     
     /**
-     * Get all bot users
+     * Get bot users a page at a time
+     * GET /api/admin/bots?page=0&size=100
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllBots() {
-        List<User> bots = userRepository.findAll().stream()
-            .filter(User::getIsBot)
-            .collect(Collectors.toList());
+    public ResponseEntity<Map<String, Object>> getAllBots(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        Page<User> bots = userRepository.findByIsBotTrueOrderByIdAsc(
+            PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
         
         Map<String, Object> response = new HashMap<>();
-        response.put("count", bots.size());
-        response.put("bots", bots.stream().map(bot -> {
+        response.put("count", bots.getTotalElements());
+        response.put("page", bots.getNumber());
+        response.put("size", bots.getSize());
+        response.put("totalPages", bots.getTotalPages());
+        response.put("bots", bots.getContent().stream().map(bot -> {
             Map<String, Object> botInfo = new HashMap<>();
             botInfo.put("id", bot.getId());
             botInfo.put("username", bot.getUsername());
@@ -113,46 +122,21 @@ public class BotManagementController {
      */
     @GetMapping("/count")
     public ResponseEntity<Map<String, Object>> getBotCount() {
-        long count = userRepository.findAll().stream()
-            .filter(User::getIsBot)
-            .count();
-        
         Map<String, Object> response = new HashMap<>();
-        response.put("count", count);
+        response.put("count", userRepository.countByIsBotTrue());
         return ResponseEntity.ok(response);
     }
     
     /**
-     * Delete all bot users and their groups
+     * Delete all bot users and their groups.
+     * Runs in the background; poll GET /api/admin/bulk-delete/jobs/{jobId} for progress.
      */
     @DeleteMapping("/delete-all")
     public ResponseEntity<Map<String, Object>> deleteAllBots() {
-        try {
-            List<User> bots = userRepository.findAll().stream()
-                .filter(User::getIsBot)
-                .collect(Collectors.toList());
-            
-            // Delete groups created by bots
-            for (User bot : bots) {
-                List<com.campusconnect.model.Group> botGroups = groupRepository.findByCreatorId(bot.getId());
-                groupRepository.deleteAll(botGroups);
-            }
-            
-            // Delete bot users
-            userRepository.deleteAll(bots);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "All bots and their groups deleted successfully");
-            response.put("botsDeleted", bots.size());
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("error", e.getMessage());
-            return ResponseEntity.badRequest().body(error);
-        }
+        Map<String, Object> response = new HashMap<>(bulkDeleteService.deleteAllBots());
+        response.put("success", true);
+        response.put("message", "Deleting all bots and their groups in the background");
+        return ResponseEntity.accepted().body(response);
     }
     
     /**
@@ -161,17 +145,12 @@ public class BotManagementController {
     @PostMapping("/hide")
     public ResponseEntity<Map<String, Object>> hideAllBots() {
         try {
-            List<User> bots = userRepository.findAll().stream()
-                .filter(User::getIsBot)
-                .collect(Collectors.toList());
-            
-            bots.forEach(bot -> bot.setVisibility(User.ProfileVisibility.PRIVATE));
-            userRepository.saveAll(bots);
+            int updated = userRepository.updateBotVisibility(User.ProfileVisibility.PRIVATE, LocalDateTime.now());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "All bots hidden successfully");
-            response.put("botsHidden", bots.size());
+            response.put("botsHidden", updated);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -188,17 +167,12 @@ public class BotManagementController {
     @PostMapping("/show")
     public ResponseEntity<Map<String, Object>> showAllBots() {
         try {
-            List<User> bots = userRepository.findAll().stream()
-                .filter(User::getIsBot)
-                .collect(Collectors.toList());
-            
-            bots.forEach(bot -> bot.setVisibility(User.ProfileVisibility.PUBLIC));
-            userRepository.saveAll(bots);
+            int updated = userRepository.updateBotVisibility(User.ProfileVisibility.PUBLIC, LocalDateTime.now());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "All bots shown successfully");
-            response.put("botsShown", bots.size());
+            response.put("botsShown", updated);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -0,0 +1,40 @@
+package com.campusconnect.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.campusconnect.service.BulkDeleteService;
+
+@RestController
+@RequestMapping("/api/admin/bulk-delete")
+@CrossOrigin(origins = "http://localhost:3000")
+public class BulkDeleteController {
+    @Autowired
+    private BulkDeleteService bulkDeleteService;
+
+    /**
+     * Recent bulk delete jobs, newest first
+     * GET /api/admin/bulk-delete/jobs
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<Map<String, Object>>> getJobs() {
+        return ResponseEntity.ok(bulkDeleteService.getJobs());
+    }
+
+    /**
+     * Progress of one job started by DELETE /api/groups/delete-all or /api/admin/bots/delete-all
+     * GET /api/admin/bulk-delete/jobs/{jobId}
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkDeleteService.getJob(jobId));
+    }
+}
@@ -1,11 +1,15 @@
 package com.campusconnect.controller;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -23,7 +27,13 @@ import com.campusconnect.model.GroupInvitation;
 import com.campusconnect.model.GroupJoinRequest;
 import com.campusconnect.repository.UserRepository;
 import com.campusconnect.security.UserPrincipal;
+import com.campusconnect.service.BulkDeleteService;
+import com.campusconnect.service.GroupMembershipIndex;
 import com.campusconnect.service.GroupService;
+import com.campusconnect.service.RecommendationPrecomputeJob;
+import com.campusconnect.service.RecommendationStore;
+import com.campusconnect.service.SearchTracker;
+import com.campusconnect.util.KeysetCursor;
 
 @RestController
 @RequestMapping("/api/groups")
@@ -32,9 +42,24 @@ public class GroupController {
     @Autowired
     private GroupService groupService;
 
+    @Autowired
+    private GroupMembershipIndex membershipIndex;
+
+    @Autowired
+    private BulkDeleteService bulkDeleteService;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RecommendationPrecomputeJob recommendationPrecomputeJob;
+
+    @Autowired
+    private RecommendationStore recommendationStore;
+
+    @Autowired
+    private SearchTracker searchTracker;
+
     @PostMapping
     public ResponseEntity<GroupDTO> createGroup(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
@@ -66,29 +91,51 @@ public class GroupController {
         return ResponseEntity.ok(groupService.convertToDTO(group));
     }
 
+    /**
+     * Browse public groups, newest first, one page at a time. Optional filters: course (exact code
+     * or name), status (default any) and openSeats=true. When there are more groups, the
+     * X-Next-Cursor header holds the cursor for the next page.
+     */
     @GetMapping
-    public ResponseEntity<List<GroupDTO>> getAllGroups() {
-        List<GroupDTO> groups = groupService.getAllGroups().stream()
-                .map(groupService::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(groups);
+    public ResponseEntity<List<GroupDTO>> getAllGroups(
+            @RequestParam(required = false) String course,
+            @RequestParam(required = false, defaultValue = "ANY") String status,
+            @RequestParam(required = false, defaultValue = "false") boolean openSeats,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") int size) {
+        Slice<GroupDTO> results = groupService.browseGroups(course, parseStatus(status), openSeats,
+                KeysetCursor.decode(cursor), size);
+        return withNextCursor(results);
     }
 
+    /**
+     * Ranked group search, best match first. Paginated with page/size; the total number
+     * of matches is returned in the X-Total-Count header. status defaults to ACTIVE
+     * (use status=ANY for every status). An empty query returns the first browse page.
+     */
     @GetMapping("/search")
     public ResponseEntity<List<GroupDTO>> searchGroups(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
-            @RequestParam(required = false) String query) {
-        
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false, defaultValue = "ACTIVE") String status,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "50") int size) {
+        Group.GroupStatus groupStatus = parseStatus(status);
+
         // Track search if user is authenticated
         if (userPrincipal != null && query != null && !query.trim().isEmpty()) {
-            groupService.trackSearch(userPrincipal.getId(), query, 
+            searchTracker.track(userPrincipal.getId(), query, 
                 com.campusconnect.model.SearchHistory.SearchType.GENERAL);
         }
-        
-        List<GroupDTO> groups = groupService.searchGroups(query).stream()
-                .map(groupService::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(groups);
+
+        if (query == null || query.trim().isEmpty()) {
+            return withNextCursor(groupService.browseGroups(null, groupStatus, false, KeysetCursor.START, size));
+        }
+
+        Page<GroupDTO> results = groupService.searchGroups(query, groupStatus, page, size);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(results.getTotalElements()))
+                .body(results.getContent());
     }
 
     @GetMapping("/by-course")
@@ -98,14 +145,11 @@ public class GroupController {
         
         // Track course search if user is authenticated
         if (userPrincipal != null && courseName != null && !courseName.trim().isEmpty()) {
-            groupService.trackSearch(userPrincipal.getId(), courseName, 
+            searchTracker.track(userPrincipal.getId(), courseName, 
                 com.campusconnect.model.SearchHistory.SearchType.COURSE_NAME);
         }
         
-        List<GroupDTO> groups = groupService.getGroupsByCourse(courseName).stream()
-                .map(groupService::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(groups);
+        return ResponseEntity.ok(groupService.getGroupsByCourse(courseName));
     }
 
     @GetMapping("/{id}")
@@ -116,26 +160,17 @@ public class GroupController {
 
     @GetMapping("/my-groups")
     public ResponseEntity<List<GroupDTO>> getMyGroups(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        List<GroupDTO> groups = groupService.getUserGroups(userPrincipal.getId()).stream()
-                .map(groupService::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(groups);
+        return ResponseEntity.ok(groupService.getUserGroupDTOs(userPrincipal.getId()));
     }
 
     @GetMapping("/my-created-groups")
     public ResponseEntity<List<GroupDTO>> getMyCreatedGroups(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        List<GroupDTO> groups = groupService.getUserCreatedGroups(userPrincipal.getId()).stream()
-                .map(groupService::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(groups);
+        return ResponseEntity.ok(groupService.getUserCreatedGroupDTOs(userPrincipal.getId()));
     }
 
     @GetMapping("/recommended")
     public ResponseEntity<List<GroupDTO>> getRecommendedGroups(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        List<GroupDTO> groups = groupService.getRecommendedGroups(userPrincipal.getId()).stream()
-                .map(groupService::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(groups);
+        return ResponseEntity.ok(groupService.getRecommendedGroups(userPrincipal.getId()));
     }
 
     /**
@@ -296,17 +331,30 @@ public class GroupController {
     }
 
     /**
-     * Send invitations to users for a group
+     * Send invitations to users for a group.
+     * Reports each user's outcome: INVITED, ALREADY_MEMBER, ALREADY_INVITED or NOT_FOUND.
      */
     @PostMapping("/{groupId}/invite")
-    public ResponseEntity<List<GroupInvitation>> sendInvitations(
+    public ResponseEntity<Map<String, Object>> sendInvitations(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
             @PathVariable Long groupId,
             @RequestParam List<Long> invitedUserIds,
             @RequestParam(required = false) String message) {
-        List<GroupInvitation> invitations = groupService.sendInvitations(
+        Map<Long, GroupService.InviteOutcome> outcomes = groupService.sendInvitations(
                 groupId, userPrincipal.getId(), invitedUserIds, message);
-        return ResponseEntity.ok(invitations);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        outcomes.forEach((userId, outcome) -> {
+            Map<String, Object> result = new HashMap<>();
+            result.put("userId", userId);
+            result.put("outcome", outcome);
+            results.add(result);
+        });
+        Map<String, Object> response = new HashMap<>();
+        response.put("groupId", groupId);
+        response.put("invited", outcomes.values().stream().filter(o -> o == GroupService.InviteOutcome.INVITED).count());
+        response.put("results", results);
+        return ResponseEntity.ok(response);
     }
 
     /**
@@ -415,25 +463,84 @@ public class GroupController {
         }
     }
 
+    /**
+     * Admin utility: Recommendation cache counters (size, hits, misses, evictions)
+     * GET /api/groups/admin/recommendation-cache
+     */
+    @GetMapping("/admin/recommendation-cache")
+    public ResponseEntity<Map<String, Object>> getRecommendationCacheStats() {
+        return ResponseEntity.ok(groupService.getRecommendationCacheStats());
+    }
+
+    /**
+     * Admin utility: Precomputed recommendation table and background job status
+     * GET /api/groups/admin/recommendation-precompute
+     */
+    @GetMapping("/admin/recommendation-precompute")
+    public ResponseEntity<Map<String, Object>> getRecommendationPrecomputeStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("job", recommendationPrecomputeJob.getStats());
+        stats.put("table", recommendationStore.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Admin utility: Search tracking buffer counters (queued, dropped, written, failed)
+     * GET /api/groups/admin/search-tracking
+     */
+    @GetMapping("/admin/search-tracking")
+    public ResponseEntity<Map<String, Object>> getSearchTrackingStats() {
+        return ResponseEntity.ok(searchTracker.getStats());
+    }
+
+    /**
+     * Admin utility: Run the recommendation precompute job now
+     * POST /api/groups/admin/recommendation-precompute
+     */
+    @PostMapping("/admin/recommendation-precompute")
+    public ResponseEntity<Map<String, Object>> runRecommendationPrecompute() {
+        return ResponseEntity.ok(recommendationPrecomputeJob.run());
+    }
+
     /**
      * Delete all groups (Admin only - use with caution!)
      * DELETE /api/groups/delete-all
+     * Runs in the background; poll GET /api/admin/bulk-delete/jobs/{jobId} for progress.
      */
     @DeleteMapping("/delete-all")
     public ResponseEntity<Map<String, Object>> deleteAllGroups() {
+        Map<String, Object> response = new HashMap<>(bulkDeleteService.deleteAllGroups());
+        response.put("success", true);
+        response.put("message", "Deleting all groups in the background");
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @GetMapping("/admin/membership-index")
+    public ResponseEntity<Map<String, Object>> getMembershipIndexStats() {
+        return ResponseEntity.ok(membershipIndex.getStats());
+    }
+
+    /**
+     * ANY means no status filter; anything else must name a group status
+     */
+    private static Group.GroupStatus parseStatus(String status) {
+        if ("ANY".equalsIgnoreCase(status)) {
+            return null;
+        }
         try {
-            int deletedCount = groupService.deleteAllGroups();
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "All groups deleted successfully");
-            response.put("groupsDeleted", deletedCount);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("error", e.getMessage());
-            return ResponseEntity.badRequest().body(error);
+            return Group.GroupStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid status: " + status + " (expected ANY or one of "
+                    + Arrays.toString(Group.GroupStatus.values()) + ")");
         }
     }
-}
 
+    private ResponseEntity<List<GroupDTO>> withNextCursor(Slice<GroupDTO> results) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (results.hasNext()) {
+            GroupDTO last = results.getContent().get(results.getContent().size() - 1);
+            response.header("X-Next-Cursor", new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        return response.body(results.getContent());
+    }
+}
@@ -1,15 +1,21 @@
 package com.campusconnect.controller;
 
+import com.campusconnect.dto.ConversationDTO;
 import com.campusconnect.dto.MessageDTO;
 import com.campusconnect.model.Message;
 import com.campusconnect.security.UserPrincipal;
+import com.campusconnect.service.GroupReadCursorService;
 import com.campusconnect.service.MessageService;
+import com.campusconnect.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -19,6 +25,9 @@ public class MessageController {
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private GroupReadCursorService readCursorService;
+
     @PostMapping("/direct")
     public ResponseEntity<MessageDTO> sendDirectMessage(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
@@ -37,22 +46,82 @@ public class MessageController {
         return ResponseEntity.ok(messageService.convertToDTO(message));
     }
 
+    /**
+     * Direct messages with another user, oldest first, a page at a time.
+     * Poll for new messages with ?since=<highest id seen>; page back through history with
+     * ?before=<lowest id seen>; neither gives the newest page. X-Next-Cursor holds the id
+     * to pass (as since or before, whichever was used) when there are more messages in
+     * that direction. Responses carry an ETag, so a repeated poll with If-None-Match gets
+     * 304 Not Modified when nothing has changed.
+     */
     @GetMapping("/direct/{otherUserId}")
     public ResponseEntity<List<MessageDTO>> getDirectMessages(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
-            @PathVariable Long otherUserId) {
-        List<MessageDTO> messages = messageService.getDirectMessages(userPrincipal.getId(), otherUserId).stream()
-                .map(messageService::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(messages);
+            @PathVariable Long otherUserId,
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false, defaultValue = "50") int size) {
+        return messagePage(messageService.getDirectMessages(userPrincipal.getId(), otherUserId, since, before, size),
+                since != null);
     }
 
+    /**
+     * Group messages, oldest first; since, before and size as for direct messages
+     */
     @GetMapping("/group/{groupId}")
-    public ResponseEntity<List<MessageDTO>> getGroupMessages(@PathVariable Long groupId) {
-        List<MessageDTO> messages = messageService.getGroupMessages(groupId).stream()
-                .map(messageService::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(messages);
+    public ResponseEntity<List<MessageDTO>> getGroupMessages(
+            @PathVariable Long groupId,
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false, defaultValue = "50") int size) {
+        return messagePage(messageService.getGroupMessages(groupId, since, before, size), since != null);
+    }
+
+    /**
+     * Mark the conversation with another user read up to a message (all of it if upTo is
+     * omitted), in one request instead of one per message
+     * POST /api/messages/direct/{otherUserId}/read?upTo=123
+     */
+    @PostMapping("/direct/{otherUserId}/read")
+    public ResponseEntity<Map<String, Object>> markConversationRead(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long otherUserId,
+            @RequestParam(required = false) Long upTo) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("otherUserId", otherUserId);
+        response.put("markedRead", messageService.markConversationRead(userPrincipal.getId(), otherUserId, upTo));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Mark a group read up to a message (the newest message if upTo is omitted).
+     * Read positions are written in batches, so unread counts reflect this straight away
+     * but the stored cursor follows within the flush interval.
+     * POST /api/messages/group/{groupId}/read?upTo=123
+     */
+    @PostMapping("/group/{groupId}/read")
+    public ResponseEntity<Map<String, Object>> markGroupRead(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long groupId,
+            @RequestParam(required = false) Long upTo) {
+        readCursorService.markRead(userPrincipal.getId(), groupId, upTo);
+        Map<String, Object> response = new HashMap<>();
+        response.put("groupId", groupId);
+        response.put("unreadCount", readCursorService.getUnreadCounts(userPrincipal.getId()).getOrDefault(groupId, 0L));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Unread message count in each of the user's groups, from read cursors
+     * GET /api/messages/group/unread-counts
+     */
+    @GetMapping("/group/unread-counts")
+    public ResponseEntity<Map<String, Object>> getGroupUnreadCounts(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Map<Long, Long> counts = readCursorService.getUnreadCounts(userPrincipal.getId());
+        Map<String, Object> response = new HashMap<>();
+        response.put("groups", counts);
+        response.put("total", counts.values().stream().mapToLong(Long::longValue).sum());
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/inbox")
@@ -63,6 +132,26 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    /**
+     * The user's conversations (direct and group), most recent first, with the last message
+     * and unread count of each. Paginated with an opaque cursor: pass the X-Next-Cursor
+     * header from one page as ?cursor= to get the next; no header means no more pages.
+     */
+    @GetMapping("/conversations")
+    public ResponseEntity<List<ConversationDTO>> getConversations(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+        Slice<ConversationDTO> conversations = messageService.getConversations(
+                userPrincipal.getId(), KeysetCursor.decode(cursor), size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (conversations.hasNext()) {
+            ConversationDTO last = conversations.getContent().get(conversations.getContent().size() - 1);
+            response.header("X-Next-Cursor", new KeysetCursor(last.getLastMessageAt(), last.getId()).encode());
+        }
+        return response.body(conversations.getContent());
+    }
+
     @PostMapping("/{messageId}/read")
     public ResponseEntity<Void> markAsRead(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
@@ -76,5 +165,26 @@ public class MessageController {
         Long count = messageService.getUnreadCount(userPrincipal.getId());
         return ResponseEntity.ok(count);
     }
-}
 
+    /**
+     * Spring answers 304 itself when the request's If-None-Match matches the ETag. The
+     * ETag covers what can change for a given query: which messages are in the page,
+     * whether there are more, and how many of them are read.
+     */
+    private ResponseEntity<List<MessageDTO>> messagePage(Slice<Message> messages, boolean newer) {
+        List<Message> content = messages.getContent();
+        long readCount = content.stream().filter(m -> Boolean.TRUE.equals(m.getIsRead())).count();
+        String etag = content.isEmpty()
+                ? "\"empty\""
+                : "\"" + content.get(0).getId() + "-" + content.get(content.size() - 1).getId() + "-"
+                        + content.size() + "-" + readCount + (messages.hasNext() ? "+" : "") + "\"";
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (messages.hasNext()) {
+            Message next = newer ? content.get(content.size() - 1) : content.get(0);
+            response.header("X-Next-Cursor", String.valueOf(next.getId()));
+        }
+        return response.body(content.stream()
+                .map(messageService::convertToDTO)
+                .collect(Collectors.toList()));
+    }
+}
@@ -1,6 +1,8 @@
 package com.campusconnect.controller;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.campusconnect.model.Post;
 import com.campusconnect.security.UserPrincipal;
+import com.campusconnect.service.PostSearchIndex;
 import com.campusconnect.service.PostService;
 
 @RestController
@@ -25,6 +28,9 @@ public class PostController {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
     @PostMapping
     public ResponseEntity<Post> createPost(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
@@ -61,10 +67,31 @@ public class PostController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Ranked post search. Returns hits (id, title, highlighted snippet, author, group), totalHits, page and size.
+     */
     @GetMapping("/search")
-    public ResponseEntity<List<Post>> searchPosts(@RequestParam(required = false) String query) {
-        List<Post> posts = postService.searchPosts(query);
-        return ResponseEntity.ok(posts);
+    public ResponseEntity<Map<String, Object>> searchPosts(
+            @RequestParam(required = false) String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.searchPosts(query, page, size));
+    }
+
+    @GetMapping("/admin/search-index")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStats() {
+        return ResponseEntity.ok(postSearchIndex.getStats());
+    }
+
+    /**
+     * Rebuild the post search index from the database
+     */
+    @PostMapping("/admin/search-index/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("indexed", postSearchIndex.rebuild());
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping
@@ -0,0 +1,48 @@
+package com.campusconnect.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.campusconnect.security.UserPrincipal;
+import com.campusconnect.service.PushConnections;
+import com.campusconnect.service.PushService;
+
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "http://localhost:3000")
+public class StreamController {
+    @Autowired
+    private PushConnections pushConnections;
+
+    @Autowired
+    private PushService pushService;
+
+    /**
+     * Server-sent events for the current user: "message" (direct messages to or from them,
+     * and messages in their groups) and "notification". EventSource cannot send headers,
+     * so the JWT may be passed as ?access_token=...
+     * GET /api/stream
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return pushConnections.open(userPrincipal.getId());
+    }
+
+    /**
+     * Open streams on this instance and how events reach other instances
+     * GET /api/stream/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(pushService.getStats());
+    }
+}
@@ -0,0 +1,69 @@
+package com.campusconnect.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.campusconnect.dto.SyntheticDataRequest;
+import com.campusconnect.service.SyntheticDataGenerator;
+
+/**
+ * Load-testing datasets; only registered when synthetic-data.enabled=true, and requires login
+ */
+@RestController
+@RequestMapping("/api/admin/synthetic-data")
+@ConditionalOnProperty(name = "synthetic-data.enabled", havingValue = "true")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SyntheticDataController {
+    @Autowired
+    private SyntheticDataGenerator syntheticDataGenerator;
+
+    /**
+     * Generate a load-testing dataset in the background; every field of the body is optional
+     * POST /api/admin/synthetic-data {"seed": 7, "users": 100000, "groups": 10000, "messages": 1000000}
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> generate(@RequestBody(required = false) SyntheticDataRequest request) {
+        try {
+            Map<String, Object> response = new HashMap<>(syntheticDataGenerator.generate(
+                    request != null ? request : new SyntheticDataRequest()));
+            response.put("success", true);
+            response.put("message", "Generating synthetic data in the background");
+            return ResponseEntity.accepted().body(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Recent generation jobs, newest first
+     * GET /api/admin/synthetic-data/jobs
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<Map<String, Object>>> getJobs() {
+        return ResponseEntity.ok(syntheticDataGenerator.getJobs());
+    }
+
+    /**
+     * Progress of one generation job
+     * GET /api/admin/synthetic-data/jobs/{jobId}
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(syntheticDataGenerator.getJob(jobId));
+    }
+}
@@ -0,0 +1,39 @@
+package com.campusconnect.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.campusconnect.dto.TypeaheadSuggestion;
+import com.campusconnect.service.TypeaheadIndex;
+
+@RestController
+@RequestMapping("/api/typeahead")
+@CrossOrigin(origins = "http://localhost:3000")
+public class TypeaheadController {
+    @Autowired
+    private TypeaheadIndex typeaheadIndex;
+
+    /**
+     * Completions for a search box prefix: { courses: [...], groups: [...] }, best first.
+     * GET /api/typeahead?prefix=csci 44&amp;limit=5
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, List<TypeaheadSuggestion>>> suggest(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(typeaheadIndex.suggest(prefix, limit));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(typeaheadIndex.getStats());
+    }
+}
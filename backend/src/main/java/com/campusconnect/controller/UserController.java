@@ -6,6 +6,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -16,8 +17,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.campusconnect.dto.UserSummary;
 import com.campusconnect.model.User;
 import com.campusconnect.security.UserPrincipal;
+import com.campusconnect.service.UserDirectoryIndex;
 import com.campusconnect.service.UserService;
 
 @RestController
@@ -78,22 +81,42 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    /**
+     * User directory search (bots excluded), best match first. match=substring (default) finds the
+     * query anywhere in a name, username, major, interest, skill or course; match=prefix only at the
+     * start of a word. Paginated with page/size; the total is returned in the X-Total-Count header.
+     */
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam String query) {
-        List<User> users = userService.searchUsers(query);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserSummary>> searchUsers(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "substring") String match,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        UserDirectoryIndex.MatchMode mode = "prefix".equalsIgnoreCase(match)
+                ? UserDirectoryIndex.MatchMode.PREFIX
+                : UserDirectoryIndex.MatchMode.SUBSTRING;
+        return withTotal(userService.searchUsers(query, mode, page, size));
     }
 
     @GetMapping("/by-course")
-    public ResponseEntity<List<User>> getUsersByCourse(@RequestParam String course) {
-        List<User> users = userService.findUsersByCourse(course);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserSummary>> getUsersByCourse(
+            @RequestParam String course,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return withTotal(userService.findUsersByCourse(course, page, size));
     }
 
     @GetMapping("/by-skill")
-    public ResponseEntity<List<User>> getUsersBySkill(@RequestParam String skill) {
-        List<User> users = userService.findUsersBySkill(skill);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserSummary>> getUsersBySkill(
+            @RequestParam String skill,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return withTotal(userService.findUsersBySkill(skill, page, size));
     }
-}
 
+    private static ResponseEntity<List<UserSummary>> withTotal(Page<UserSummary> results) {
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(results.getTotalElements()))
+                .body(results.getContent());
+    }
+}
@@ -0,0 +1,21 @@
+package com.campusconnect.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ConversationDTO {
+    private Long id;
+    private String type;
+    private Long peerId;
+    private String peerName;
+    private Long groupId;
+    private String groupName;
+    private Long lastMessageId;
+    private Long lastSenderId;
+    private String lastSenderName;
+    private String lastMessagePreview;
+    private LocalDateTime lastMessageAt;
+    private Integer unreadCount;
+}
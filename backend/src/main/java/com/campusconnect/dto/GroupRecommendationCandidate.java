@@ -0,0 +1,29 @@
+package com.campusconnect.dto;
+
+/**
+ * One row of the batched recommendation candidate query.
+ * Each *Match column holds the first keyword that matched that field, or null.
+ */
+public interface GroupRecommendationCandidate {
+    Long getGroupId();
+    String getNameMatch();
+    String getCourseNameMatch();
+    String getCourseCodeMatch();
+    String getTopicMatch();
+
+    default boolean matchesName() {
+        return getNameMatch() != null;
+    }
+
+    default boolean matchesCourseName() {
+        return getCourseNameMatch() != null;
+    }
+
+    default boolean matchesCourseCode() {
+        return getCourseCodeMatch() != null;
+    }
+
+    default boolean matchesTopic() {
+        return getTopicMatch() != null;
+    }
+}
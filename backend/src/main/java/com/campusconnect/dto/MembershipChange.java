@@ -0,0 +1,24 @@
+package com.campusconnect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change to group membership, published by GroupMembershipIndex and relayed to the
+ * other backend instances by PushService. origin is null for a change made on this
+ * instance and holds the sending instance's id once relayed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipChange {
+    public enum Kind {
+        ADDED, REMOVED, GROUP_REMOVED, CLEARED, REBUILT
+    }
+
+    private Kind kind;
+    private Long groupId;
+    private Long userId;
+    private String origin;
+}
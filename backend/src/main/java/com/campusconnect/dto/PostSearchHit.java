@@ -0,0 +1,22 @@
+package com.campusconnect.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One ranked post search result, built entirely from the Lucene index.
+ * snippet is HTML-escaped text with matches wrapped in <mark></mark>.
+ */
+@Data
+public class PostSearchHit {
+    private Long id;
+    private String title;
+    private String snippet;
+    private Float score;
+    private Long authorId;
+    private String authorName;
+    private Long groupId;
+    private String groupName;
+    private LocalDateTime createdAt;
+}
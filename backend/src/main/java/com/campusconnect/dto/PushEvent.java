@@ -0,0 +1,22 @@
+package com.campusconnect.dto;
+
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One event for the real-time stream: delivered to each listed user and to every
+ * member of the group, if any. data is sent to clients as the event's JSON body;
+ * it is null when the payload was too large to relay, and clients refetch instead.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushEvent {
+    private String type;
+    private Set<Long> userIds;
+    private Long groupId;
+    private Object data;
+}
@@ -0,0 +1,21 @@
+package com.campusconnect.dto;
+
+import com.campusconnect.model.SearchHistory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A search captured on the request path and written later by SearchTracker
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchEvent {
+    private Long userId;
+    private String query;
+    private SearchHistory.SearchType searchType;
+    private LocalDateTime searchedAt;
+}
@@ -0,0 +1,22 @@
+package com.campusconnect.dto;
+
+import com.campusconnect.model.SearchHistory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a search_history row that search interest profiles are built from
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchLogEntry {
+    private Long id;
+    private Long userId;
+    private SearchHistory.SearchType searchType;
+    private String query;
+    private LocalDateTime searchedAt;
+}
@@ -0,0 +1,39 @@
+package com.campusconnect.dto;
+
+import java.time.LocalDate;
+
+import lombok.Data;
+
+/**
+ * Shape of a generated load-testing dataset. The same request (including seed and
+ * anchorDate) always produces the same rows.
+ */
+@Data
+public class SyntheticDataRequest {
+    private long seed = 42;
+
+    private int users = 100_000;
+    private int groups = 10_000;
+    private int messages = 1_000_000;
+    private int searches = 500_000;
+
+    // Average groups joined per user, besides the ones they create
+    private double membershipsPerUser = 3.0;
+
+    // Zipf exponents: 0 is uniform, higher concentrates members/messages in fewer groups
+    // and messages/searches in fewer users
+    private double groupSkew = 0.8;
+    private double activitySkew = 1.0;
+
+    // Fraction of messages that are direct messages rather than group messages
+    private double directMessageRatio = 0.3;
+
+    // Rows are timestamped within the days before anchorDate (today if not given)
+    private int days = 90;
+    private LocalDate anchorDate;
+
+    // Mark generated users as bots, so DELETE /api/admin/bots/delete-all removes them
+    private boolean bots = false;
+
+    private int batchSize = 1000;
+}
@@ -0,0 +1,18 @@
+package com.campusconnect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One typeahead completion: value is what goes into the search box, label is what the list shows
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeaheadSuggestion {
+    private String type; // COURSE or GROUP
+    private Long id;
+    private String value;
+    private String label;
+}
@@ -0,0 +1,25 @@
+package com.campusconnect.dto;
+
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Directory entry returned by user search: the public profile fields, without credentials
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private Long id;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String major;
+    private Set<String> interests;
+    private Set<String> skills;
+    private Set<String> courses;
+}
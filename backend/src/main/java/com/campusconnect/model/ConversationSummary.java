@@ -0,0 +1,70 @@
+package com.campusconnect.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One user's view of one conversation: a direct conversation with peerId, or a group
+ * they belong to (groupId). Exactly one of the two is set.
+ *
+ * Maintained by ConversationSummaryRepository in the same transaction as the message
+ * it describes, so the inbox reads one row per conversation instead of every message.
+ * A group row only records membership: the last message is the group's own (groups.last_*),
+ * so a group message writes one row rather than one per member, and the unread count
+ * comes from the member's GroupReadCursor. The last_* and unreadCount columns here are
+ * kept for direct conversations.
+ */
+@Entity
+@Table(name = "conversation_summary",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_conversation_summary_user_peer", columnNames = {"user_id", "peer_id"}),
+        @UniqueConstraint(name = "uk_conversation_summary_user_group", columnNames = {"user_id", "group_id"})
+    },
+    indexes = {
+        @Index(name = "idx_conversation_summary_user_recent", columnList = "user_id, last_message_at, id"),
+        @Index(name = "idx_conversation_summary_peer", columnList = "peer_id"),
+        @Index(name = "idx_conversation_summary_group", columnList = "group_id")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "peer_id")
+    private Long peerId;
+
+    @Column(name = "group_id")
+    private Long groupId;
+
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id")
+    private Long lastSenderId;
+
+    @Column(name = "last_message_preview", length = 200)
+    private String lastMessagePreview;
+
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount;
+}
@@ -12,6 +12,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -20,6 +21,7 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -27,7 +29,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "groups")
+@Table(name = "groups", indexes = {
+    // Keyset browsing: public groups newest first (GroupRepository.findPublicPageAfter)
+    @Index(name = "idx_groups_visibility_created_id", columnList = "visibility, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -70,6 +75,35 @@ public class Group {
     )
     private Set<User> members = new HashSet<>();
 
+    // Size of members, kept in the row so joins can check capacity and claim a seat
+    // in one conditional UPDATE (GroupRepository.claimSeat/releaseSeat)
+    @Column(name = "member_count")
+    private Integer memberCount = 0;
+
+    // Number of messages ever posted in the group, bumped by GroupRepository.incrementMessageSeq
+    // when a message is sent. Written only by SQL, never from this entity.
+    @Column(name = "message_seq", insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private Long messageSeq;
+
+    // The newest message, for every member's conversation list (ConversationSummaryRepository).
+    // Written only by SQL, in the same locked row update as message_seq.
+    @Column(name = "last_message_id", insertable = false, updatable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id", insertable = false, updatable = false)
+    private Long lastSenderId;
+
+    @Column(name = "last_message_preview", length = 200, insertable = false, updatable = false)
+    private String lastMessagePreview;
+
+    @Column(name = "last_message_at", insertable = false, updatable = false)
+    private LocalDateTime lastMessageAt;
+
+    // Bumped by every entity update and by claimSeat/releaseSeat, so an edit made
+    // from a stale copy (e.g. shrinking maxSize) fails instead of overwriting
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "group", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<GroupJoinRequest> joinRequests = new HashSet<>();
 
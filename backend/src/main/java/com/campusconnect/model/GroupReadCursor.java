@@ -0,0 +1,52 @@
+package com.campusconnect.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How far a member has read in a group: the last message they have seen and its
+ * position in the group (Message.groupSeq).
+ *
+ * The member's unread count is groups.message_seq - lastReadSeq, so it is one row
+ * lookup however busy the group is. Cursors only move forward.
+ */
+@Entity
+@Table(name = "group_read_cursors",
+    uniqueConstraints = @UniqueConstraint(name = "uk_group_read_cursors_user_group",
+        columnNames = {"user_id", "group_id"}),
+    indexes = @Index(name = "idx_group_read_cursors_group", columnList = "group_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupReadCursor {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(name = "last_read_seq", nullable = false)
+    private Long lastReadSeq;
+
+    // Null when the member joined before the group had any messages
+    @Column(name = "last_read_message_id")
+    private Long lastReadMessageId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,54 @@
+package com.campusconnect.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One precomputed recommendation: a group, its score and the signal that contributed most.
+ * Rows are replaced per user by RecommendationStore. They hold plain ids instead of
+ * foreign keys, so deleting a group or user never has to wait on this table.
+ */
+@Entity
+@Table(name = "group_recommendations", indexes = {
+    @Index(name = "idx_group_recommendations_user_rank", columnList = "user_id, rank_order"),
+    @Index(name = "idx_group_recommendations_group", columnList = "group_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupRecommendation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(nullable = false)
+    private Integer score;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Reason reason;
+
+    @Column(name = "rank_order", nullable = false)
+    private Integer rank;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    public enum Reason {
+        COLLABORATIVE,   // Members of the user's groups are in this group
+        SEARCH_HISTORY,  // Matches the user's recent searches
+        COURSE,          // Same course, course code prefix or department
+        SIMILAR_GROUPS,  // Name or topic similar to the user's groups
+        POPULAR          // General fallback (recent public groups)
+    }
+}
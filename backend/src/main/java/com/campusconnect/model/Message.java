@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    @Index(name = "idx_messages_sender_recipient_id", columnList = "sender_id, recipient_id, id"),
+    @Index(name = "idx_messages_group_id", columnList = "group_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,6 +37,10 @@ public class Message {
     @Column(nullable = false, length = 2000)
     private String content;
 
+    // Position in the group's messages (1, 2, ...); null for direct messages
+    @Column(name = "group_seq", updatable = false)
+    private Long groupSeq;
+
     @Enumerated(EnumType.STRING)
     private MessageType type = MessageType.DIRECT;
 
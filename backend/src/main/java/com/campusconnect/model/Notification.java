@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = @Index(name = "idx_notifications_user_read", columnList = "user_id, is_read"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
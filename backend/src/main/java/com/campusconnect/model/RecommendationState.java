@@ -0,0 +1,37 @@
+package com.campusconnect.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Invalidation epoch and last computation of a user's recommendations.
+ *
+ * Kept apart from group_recommendations so that a user with no recommendations still
+ * counts as computed, and so that a computation which read an older epoch can tell its
+ * result is stale. Maintained by RecommendationStore.
+ */
+@Entity
+@Table(name = "recommendation_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationState {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Bumped whenever the user's memberships, courses or searches change
+    @Column(nullable = false)
+    private Long epoch = 0L;
+
+    // Epoch the stored rows were computed at; null if never computed
+    @Column(name = "computed_epoch")
+    private Long computedEpoch;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -18,11 +19,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "search_history")
+@Table(name = "search_history", indexes = @Index(name = "idx_search_history_user_id", columnList = "user_id, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class SearchHistory {
+    public static final int MAX_QUERY_LENGTH = 500;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -31,7 +34,7 @@ public class SearchHistory {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false, length = 500)
+    @Column(nullable = false, length = MAX_QUERY_LENGTH)
     private String query;
 
     @Enumerated(EnumType.STRING)
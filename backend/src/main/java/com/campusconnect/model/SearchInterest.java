@@ -0,0 +1,53 @@
+package com.campusconnect.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rolled-up search interest: one row per user, search type and normalized term.
+ *
+ * weight is the exponentially decayed number of searches for the term as of updatedAt.
+ * SearchInterestService decays it to the current time when reading or adding to it.
+ */
+@Entity
+@Table(name = "search_interests",
+    uniqueConstraints = @UniqueConstraint(name = "uk_search_interests_user_type_term",
+        columnNames = {"user_id", "search_type", "term"}),
+    indexes = @Index(name = "idx_search_interests_user", columnList = "user_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchInterest {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "search_type", nullable = false)
+    private SearchHistory.SearchType searchType;
+
+    @Column(nullable = false, length = SearchHistory.MAX_QUERY_LENGTH)
+    private String term;
+
+    @Column(nullable = false)
+    private Double weight;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
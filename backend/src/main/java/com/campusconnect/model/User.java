@@ -13,7 +13,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    // Bot administration: count, page and bulk-update bots without scanning every user
+    @Index(name = "idx_users_is_bot_id", columnList = "is_bot, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -101,6 +104,10 @@ public class User {
 
     private LocalDateTime updatedAt;
 
+    // Last authenticated request or login, written in batches by UserActivityTracker
+    @Column(name = "last_active_at")
+    private LocalDateTime lastActiveAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,293 @@
+package com.campusconnect.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.campusconnect.dto.ConversationDTO;
+import com.campusconnect.util.DatabasePlatform;
+
+/**
+ * SQL for conversation_summary: one row per user and conversation.
+ *
+ * A direct conversation's row holds its last message and unread count. A group row only
+ * says the user is a member; it is added on join, and the page query takes the last
+ * message from the group's own groups.last_* columns. A group message therefore updates
+ * one row, the group's, which incrementMessageSeq has already locked, however many
+ * members the group has.
+ *
+ * Every write is a single set-based statement (or an UPDATE then INSERT on H2), so it
+ * can run inside the transaction that saves the message. The last_* columns only move
+ * forward: a row keeps its message when a lower message id arrives late. PostgreSQL
+ * upserts with ON CONFLICT; H2 updates first and inserts only if no row matched, and
+ * updates again if a concurrent first message inserted the row in between.
+ */
+@Repository
+public class ConversationSummaryRepository {
+    public static final int PREVIEW_LENGTH = 200;
+
+    // A group's last_message_id is NULL until its first message
+    private static final String LAST_MESSAGE_FROM_PARAMS =
+            "last_message_id = CASE WHEN COALESCE(last_message_id, 0) < :messageId THEN :messageId ELSE last_message_id END, " +
+            "last_sender_id = CASE WHEN COALESCE(last_message_id, 0) < :messageId THEN :senderId ELSE last_sender_id END, " +
+            "last_message_preview = CASE WHEN COALESCE(last_message_id, 0) < :messageId " +
+            "THEN :preview ELSE last_message_preview END, " +
+            "last_message_at = CASE WHEN COALESCE(last_message_id, 0) < :messageId THEN :sentAt ELSE last_message_at END";
+
+    private static final String UPSERT_DIRECT_POSTGRES =
+            "INSERT INTO conversation_summary (user_id, peer_id, last_message_id, last_sender_id, " +
+            "last_message_preview, last_message_at, unread_count) " +
+            "VALUES (:userId, :peerId, :messageId, :senderId, :preview, :sentAt, :unread) " +
+            "ON CONFLICT (user_id, peer_id) DO UPDATE SET " +
+            "last_message_id = GREATEST(conversation_summary.last_message_id, EXCLUDED.last_message_id), " +
+            "last_sender_id = CASE WHEN conversation_summary.last_message_id < EXCLUDED.last_message_id " +
+            "THEN EXCLUDED.last_sender_id ELSE conversation_summary.last_sender_id END, " +
+            "last_message_preview = CASE WHEN conversation_summary.last_message_id < EXCLUDED.last_message_id " +
+            "THEN EXCLUDED.last_message_preview ELSE conversation_summary.last_message_preview END, " +
+            "last_message_at = CASE WHEN conversation_summary.last_message_id < EXCLUDED.last_message_id " +
+            "THEN EXCLUDED.last_message_at ELSE conversation_summary.last_message_at END, " +
+            "unread_count = conversation_summary.unread_count + EXCLUDED.unread_count";
+
+    private static final String UPDATE_DIRECT =
+            "UPDATE conversation_summary SET " + LAST_MESSAGE_FROM_PARAMS + ", " +
+            "unread_count = unread_count + :unread " +
+            "WHERE user_id = :userId AND peer_id = :peerId";
+
+    private static final String INSERT_DIRECT =
+            "INSERT INTO conversation_summary (user_id, peer_id, last_message_id, last_sender_id, " +
+            "last_message_preview, last_message_at, unread_count) " +
+            "VALUES (:userId, :peerId, :messageId, :senderId, :preview, :sentAt, :unread)";
+
+    private static final String UPDATE_GROUP =
+            "UPDATE groups SET " + LAST_MESSAGE_FROM_PARAMS + " WHERE id = :groupId";
+
+    private static final String INSERT_MEMBERSHIP =
+            "INSERT INTO conversation_summary (user_id, group_id, unread_count) VALUES (:userId, :groupId, 0)";
+
+    // Rows for members who have none: all of them after a rebuild, or those who joined
+    // before group rows were created on join
+    private static final String INSERT_MISSING_MEMBERSHIPS =
+            "INSERT INTO conversation_summary (user_id, group_id, unread_count) " +
+            "SELECT gm.user_id, gm.group_id, 0 FROM group_members gm " +
+            "WHERE NOT EXISTS (SELECT 1 FROM conversation_summary cs " +
+            "WHERE cs.user_id = gm.user_id AND cs.group_id = gm.group_id)";
+
+    // Recompute groups.last_* from messages, for the groups matched by the appended condition
+    private static final String REFRESH_GROUP_LAST_ID =
+            "UPDATE groups SET last_message_id = " +
+            "(SELECT MAX(m.id) FROM messages m WHERE m.group_id = groups.id) WHERE ";
+    private static final String REFRESH_GROUP_LAST_DETAILS =
+            "UPDATE groups SET " +
+            "last_sender_id = (SELECT m.sender_id FROM messages m WHERE m.id = groups.last_message_id), " +
+            "last_message_preview = (SELECT SUBSTRING(m.content, 1, " + PREVIEW_LENGTH + ") " +
+            "FROM messages m WHERE m.id = groups.last_message_id), " +
+            "last_message_at = (SELECT m.created_at FROM messages m WHERE m.id = groups.last_message_id) WHERE ";
+
+    private static final String SUBTRACT_DIRECT_UNREAD =
+            "UPDATE conversation_summary SET unread_count = " +
+            "CASE WHEN unread_count > :count THEN unread_count - :count ELSE 0 END " +
+            "WHERE user_id = :userId AND peer_id = :peerId AND unread_count > 0";
+
+    // Groups without messages have no last_message_at and drop out of the keyset condition
+    private static final String SELECT_PAGE =
+            "SELECT c.id, c.peer_id, p.username AS peer_name, c.group_id, c.group_name, " +
+            "c.last_message_id, c.last_sender_id, s.username AS last_sender_name, " +
+            "c.last_message_preview, c.last_message_at, c.unread_count " +
+            "FROM (SELECT cs.id, cs.peer_id, cs.group_id, g.name AS group_name, cs.unread_count, " +
+            "CASE WHEN cs.group_id IS NULL THEN cs.last_message_id ELSE g.last_message_id END AS last_message_id, " +
+            "CASE WHEN cs.group_id IS NULL THEN cs.last_sender_id ELSE g.last_sender_id END AS last_sender_id, " +
+            "CASE WHEN cs.group_id IS NULL THEN cs.last_message_preview " +
+            "ELSE g.last_message_preview END AS last_message_preview, " +
+            "CASE WHEN cs.group_id IS NULL THEN cs.last_message_at ELSE g.last_message_at END AS last_message_at " +
+            "FROM conversation_summary cs " +
+            "LEFT JOIN groups g ON g.id = cs.group_id " +
+            "WHERE cs.user_id = :userId) c " +
+            "LEFT JOIN users p ON p.id = c.peer_id " +
+            "LEFT JOIN users s ON s.id = c.last_sender_id " +
+            "WHERE c.last_message_at < :afterAt OR (c.last_message_at = :afterAt AND c.id < :afterId) " +
+            "ORDER BY c.last_message_at DESC, c.id DESC LIMIT :limit";
+
+    // Both sides of every direct conversation; only the recipient's side counts unread
+    private static final String REBUILD_DIRECT =
+            "INSERT INTO conversation_summary (user_id, peer_id, last_message_id, last_sender_id, " +
+            "last_message_preview, last_message_at, unread_count) " +
+            "SELECT c.user_id, c.peer_id, m.id, m.sender_id, SUBSTRING(m.content, 1, " + PREVIEW_LENGTH + "), " +
+            "m.created_at, c.unread " +
+            "FROM (SELECT d.user_id, d.peer_id, MAX(d.message_id) AS last_id, SUM(d.unread) AS unread FROM (" +
+            "SELECT sender_id AS user_id, recipient_id AS peer_id, id AS message_id, 0 AS unread " +
+            "FROM messages WHERE group_id IS NULL AND recipient_id IS NOT NULL " +
+            "UNION ALL " +
+            "SELECT recipient_id, sender_id, id, CASE WHEN is_read = FALSE THEN 1 ELSE 0 END " +
+            "FROM messages WHERE group_id IS NULL AND recipient_id IS NOT NULL AND recipient_id <> sender_id" +
+            ") d GROUP BY d.user_id, d.peer_id) c " +
+            "JOIN messages m ON m.id = c.last_id";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    /**
+     * Move the user's conversation with the peer to this message, adding unread to its unread count
+     */
+    public void recordDirect(Long userId, Long peerId, Long messageId, Long senderId, String content,
+                             LocalDateTime sentAt, int unread) {
+        MapSqlParameterSource params = messageParams(messageId, senderId, content, sentAt)
+                .addValue("userId", userId)
+                .addValue("peerId", peerId)
+                .addValue("unread", unread);
+        if (databasePlatform.isPostgres()) {
+            jdbcTemplate.update(UPSERT_DIRECT_POSTGRES, params);
+        } else if (jdbcTemplate.update(UPDATE_DIRECT, params) == 0) {
+            try {
+                jdbcTemplate.update(INSERT_DIRECT, params);
+            } catch (DuplicateKeyException e) {
+                // A concurrent first message inserted the row and has committed; update it instead
+                jdbcTemplate.update(UPDATE_DIRECT, params);
+            }
+        }
+    }
+
+    /**
+     * Move the group's last message, which every member's conversation shows, to this message
+     */
+    public void recordGroup(Long groupId, Long messageId, Long senderId, String content, LocalDateTime sentAt) {
+        jdbcTemplate.update(UPDATE_GROUP, messageParams(messageId, senderId, content, sentAt)
+                .addValue("groupId", groupId));
+    }
+
+    /**
+     * Add the group to the user's conversations; it is listed once the group has a message
+     */
+    public void addMembership(Long userId, Long groupId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("groupId", groupId);
+        if (databasePlatform.isPostgres()) {
+            jdbcTemplate.update(INSERT_MEMBERSHIP + " ON CONFLICT DO NOTHING", params);
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_MEMBERSHIP, params);
+        } catch (DuplicateKeyException e) {
+            // Already there; the row carries nothing else
+        }
+    }
+
+    /**
+     * Recompute the groups' last messages from messages, after some of them were deleted
+     */
+    public void refreshGroupLastMessages(Collection<Long> groupIds) {
+        if (groupIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", groupIds);
+        jdbcTemplate.update(REFRESH_GROUP_LAST_ID + "id IN (:ids)", params);
+        jdbcTemplate.update(REFRESH_GROUP_LAST_DETAILS + "id IN (:ids)", params);
+    }
+
+    /**
+     * Bring data from before group rows were added on join up to date: record the last
+     * message of groups that have messages but none recorded, and add the missing member
+     * rows. Returns the number of rows written.
+     */
+    public int backfillGroups() {
+        int groups = jdbcTemplate.getJdbcTemplate().update(
+                REFRESH_GROUP_LAST_ID + "last_message_id IS NULL AND message_seq > 0");
+        jdbcTemplate.getJdbcTemplate().update(
+                REFRESH_GROUP_LAST_DETAILS + "last_message_id IS NOT NULL AND last_message_at IS NULL");
+        return groups + jdbcTemplate.getJdbcTemplate().update(INSERT_MISSING_MEMBERSHIPS);
+    }
+
+    /**
+     * Take messages that were just marked read off the user's unread count for the peer
+     */
+    public void subtractDirectUnread(Long userId, Long peerId, int count) {
+        jdbcTemplate.update(SUBTRACT_DIRECT_UNREAD, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("peerId", peerId)
+                .addValue("count", count));
+    }
+
+    /**
+     * The user's conversations, most recent first, strictly after (afterAt, afterId).
+     * The unread count of a group conversation is left at 0; it lives in GroupReadCursorService.
+     * Since a group row's time is the group's, every row of the user is read to order them.
+     */
+    public List<ConversationDTO> findPage(Long userId, LocalDateTime afterAt, Long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("afterAt", Timestamp.valueOf(afterAt))
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(SELECT_PAGE, params, (rs, row) -> toDTO(rs));
+    }
+
+    public boolean isEmpty() {
+        return jdbcTemplate.getJdbcTemplate().queryForList(
+                "SELECT id FROM conversation_summary LIMIT 1", Long.class).isEmpty();
+    }
+
+    public void deleteMembership(Long userId, Long groupId) {
+        jdbcTemplate.update("DELETE FROM conversation_summary WHERE user_id = :userId AND group_id = :groupId",
+                new MapSqlParameterSource().addValue("userId", userId).addValue("groupId", groupId));
+    }
+
+    public void deleteByGroupIds(Collection<Long> groupIds) {
+        jdbcTemplate.update("DELETE FROM conversation_summary WHERE group_id IN (:ids)",
+                new MapSqlParameterSource("ids", groupIds));
+    }
+
+    /**
+     * Recompute every row and every group's last message from messages and group_members;
+     * returns the number of conversation rows written
+     */
+    public int rebuild() {
+        jdbcTemplate.getJdbcTemplate().update("DELETE FROM conversation_summary");
+        jdbcTemplate.getJdbcTemplate().update(REFRESH_GROUP_LAST_ID + "id IS NOT NULL");
+        jdbcTemplate.getJdbcTemplate().update(REFRESH_GROUP_LAST_DETAILS + "id IS NOT NULL");
+        return jdbcTemplate.getJdbcTemplate().update(REBUILD_DIRECT)
+                + jdbcTemplate.getJdbcTemplate().update(INSERT_MISSING_MEMBERSHIPS);
+    }
+
+    private static MapSqlParameterSource messageParams(Long messageId, Long senderId, String content,
+                                                       LocalDateTime sentAt) {
+        return new MapSqlParameterSource()
+                .addValue("messageId", messageId)
+                .addValue("senderId", senderId)
+                .addValue("preview", content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content)
+                .addValue("sentAt", Timestamp.valueOf(sentAt));
+    }
+
+    private static ConversationDTO toDTO(ResultSet rs) throws SQLException {
+        ConversationDTO dto = new ConversationDTO();
+        dto.setId(rs.getLong("id"));
+        long peerId = rs.getLong("peer_id");
+        if (!rs.wasNull()) {
+            dto.setType("DIRECT");
+            dto.setPeerId(peerId);
+            dto.setPeerName(rs.getString("peer_name"));
+        } else {
+            dto.setType("GROUP");
+            dto.setGroupId(rs.getLong("group_id"));
+            dto.setGroupName(rs.getString("group_name"));
+        }
+        dto.setLastMessageId(rs.getLong("last_message_id"));
+        dto.setLastSenderId(rs.getLong("last_sender_id"));
+        dto.setLastSenderName(rs.getString("last_sender_name"));
+        dto.setLastMessagePreview(rs.getString("last_message_preview"));
+        dto.setLastMessageAt(rs.getTimestamp("last_message_at").toLocalDateTime());
+        dto.setUnreadCount(rs.getInt("unread_count"));
+        return dto;
+    }
+}
@@ -0,0 +1,134 @@
+package com.campusconnect.repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.campusconnect.dto.GroupDTO;
+import com.campusconnect.util.DatabasePlatform;
+
+/**
+ * Read path for group lists: builds GroupDTOs straight from SQL, one query per list.
+ *
+ * Mapping entities through GroupService.convertToDTO loads the creator of every
+ * group (N+1 queries). Here the creator's username comes from a join, the member
+ * count from groups.member_count and the member ids from a per-group aggregate over
+ * group_members. PostgreSQL uses array_agg and other databases (H2) use LISTAGG.
+ */
+@Repository
+public class GroupDTORepository {
+    private static final String SELECT =
+            "SELECT g.id, g.name, g.description, g.course_name, g.course_code, g.topic, g.max_size, " +
+            "g.creator_id, u.username AS creator_name, g.status, g.visibility, g.requires_invite, g.created_at, " +
+            "g.member_count, " +
+            "(SELECT %s FROM group_members gm WHERE gm.group_id = g.id) AS member_ids " +
+            "FROM groups g JOIN users u ON u.id = g.creator_id ";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    /**
+     * DTOs for the given groups, in the order of the ids; missing ids are skipped
+     */
+    public List<GroupDTO> findByIds(List<Long> groupIds) {
+        if (groupIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, GroupDTO> byId = new LinkedHashMap<>();
+        for (GroupDTO dto : query("WHERE g.id IN (:ids)", new MapSqlParameterSource("ids", groupIds))) {
+            byId.put(dto.getId(), dto);
+        }
+        List<GroupDTO> ordered = new ArrayList<>(byId.size());
+        for (Long id : groupIds) {
+            GroupDTO dto = byId.get(id);
+            if (dto != null) {
+                ordered.add(dto);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Groups the user is a member of
+     */
+    public List<GroupDTO> findByMember(Long userId) {
+        return query("WHERE g.id IN (SELECT gm.group_id FROM group_members gm WHERE gm.user_id = :userId) " +
+                "ORDER BY g.created_at DESC, g.id DESC", new MapSqlParameterSource("userId", userId));
+    }
+
+    /**
+     * Groups the user created
+     */
+    public List<GroupDTO> findByCreator(Long userId) {
+        return query("WHERE g.creator_id = :userId ORDER BY g.created_at DESC, g.id DESC",
+                new MapSqlParameterSource("userId", userId));
+    }
+
+    /**
+     * Public groups whose course name contains the text (case-insensitive)
+     */
+    public List<GroupDTO> findPublicByCourseName(String courseName) {
+        return query("WHERE g.visibility = 'PUBLIC' AND LOWER(g.course_name) LIKE :pattern " +
+                "ORDER BY g.created_at DESC, g.id DESC",
+                new MapSqlParameterSource("pattern", "%" + courseName.trim().toLowerCase() + "%"));
+    }
+
+    private List<GroupDTO> query(String where, MapSqlParameterSource params) {
+        String aggregate = databasePlatform.isPostgres()
+                ? "array_agg(gm.user_id)"
+                : "LISTAGG(CAST(gm.user_id AS VARCHAR), ',')";
+        return jdbcTemplate.query(String.format(SELECT, aggregate) + where, params, (rs, row) -> toDTO(rs));
+    }
+
+    private static GroupDTO toDTO(ResultSet rs) throws SQLException {
+        GroupDTO dto = new GroupDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setName(rs.getString("name"));
+        dto.setDescription(rs.getString("description"));
+        dto.setCourseName(rs.getString("course_name"));
+        dto.setCourseCode(rs.getString("course_code"));
+        dto.setTopic(rs.getString("topic"));
+        dto.setMaxSize(rs.getInt("max_size"));
+        dto.setCreatorId(rs.getLong("creator_id"));
+        dto.setCreatorName(rs.getString("creator_name"));
+        dto.setMemberIds(memberIds(rs.getObject("member_ids")));
+        dto.setCurrentSize(rs.getInt("member_count"));
+        dto.setStatus(rs.getString("status"));
+        dto.setVisibility(rs.getString("visibility"));
+        dto.setRequiresInvite(rs.getBoolean("requires_invite"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        dto.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        return dto;
+    }
+
+    /**
+     * array_agg gives a SQL array, LISTAGG a comma-separated string, and both give null for no members
+     */
+    private static Set<Long> memberIds(Object aggregate) throws SQLException {
+        Set<Long> ids = new HashSet<>();
+        if (aggregate instanceof Array array) {
+            for (Object id : (Object[]) array.getArray()) {
+                ids.add(((Number) id).longValue());
+            }
+        } else if (aggregate instanceof String list && !list.isEmpty()) {
+            Arrays.stream(list.split(",")).map(Long::valueOf).forEach(ids::add);
+        }
+        return ids;
+    }
+}
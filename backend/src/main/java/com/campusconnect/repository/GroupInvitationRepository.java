@@ -2,8 +2,11 @@ package com.campusconnect.repository;
 
 import com.campusconnect.model.GroupInvitation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,5 +16,11 @@ public interface GroupInvitationRepository extends JpaRepository<GroupInvitation
     List<GroupInvitation> findByGroupId(Long groupId);
     Optional<GroupInvitation> findByGroupIdAndInvitedUserId(Long groupId, Long userId);
     List<GroupInvitation> findByInvitedUserIdAndStatus(Long userId, GroupInvitation.InvitationStatus status);
+
+    /**
+     * Which of the given users already have an invitation (in any status) to the group
+     */
+    @Query("SELECT i.invitedUser.id FROM GroupInvitation i WHERE i.group.id = :groupId AND i.invitedUser.id IN :userIds")
+    List<Long> findInvitedUserIds(@Param("groupId") Long groupId, @Param("userIds") Collection<Long> userIds);
 }
 
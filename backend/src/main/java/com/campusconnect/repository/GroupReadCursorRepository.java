@@ -0,0 +1,166 @@
+package com.campusconnect.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.campusconnect.util.DatabasePlatform;
+
+/**
+ * SQL for group_read_cursors.
+ *
+ * Cursors are only written for current members (the row source is group_members) and
+ * only ever move forward. PostgreSQL upserts a whole batch with ON CONFLICT; H2 runs
+ * the batch as an UPDATE and then inserts the cursors that did not exist yet.
+ */
+@Repository
+public class GroupReadCursorRepository {
+    private static final String UPSERT_POSTGRES =
+            "INSERT INTO group_read_cursors (user_id, group_id, last_read_seq, last_read_message_id, updated_at) " +
+            "SELECT gm.user_id, gm.group_id, ?, ?, ? FROM group_members gm WHERE gm.user_id = ? AND gm.group_id = ? " +
+            "ON CONFLICT (user_id, group_id) DO UPDATE SET last_read_seq = EXCLUDED.last_read_seq, " +
+            "last_read_message_id = EXCLUDED.last_read_message_id, updated_at = EXCLUDED.updated_at " +
+            "WHERE group_read_cursors.last_read_seq < EXCLUDED.last_read_seq";
+
+    private static final String ADVANCE =
+            "UPDATE group_read_cursors SET last_read_seq = ?, last_read_message_id = ?, updated_at = ? " +
+            "WHERE user_id = ? AND group_id = ? AND last_read_seq < ?";
+
+    private static final String INSERT_IF_MISSING =
+            "INSERT INTO group_read_cursors (user_id, group_id, last_read_seq, last_read_message_id, updated_at) " +
+            "SELECT gm.user_id, gm.group_id, ?, ?, ? FROM group_members gm WHERE gm.user_id = ? AND gm.group_id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM group_read_cursors rc " +
+            "WHERE rc.user_id = gm.user_id AND rc.group_id = gm.group_id)";
+
+    // A new member has read everything posted before they joined
+    private static final String CREATE_AT_LATEST =
+            "INSERT INTO group_read_cursors (user_id, group_id, last_read_seq, last_read_message_id, updated_at) " +
+            "SELECT gm.user_id, gm.group_id, COALESCE(g.message_seq, 0), " +
+            "(SELECT MAX(m.id) FROM messages m WHERE m.group_id = g.id), CURRENT_TIMESTAMP " +
+            "FROM group_members gm JOIN groups g ON g.id = gm.group_id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM group_read_cursors rc " +
+            "WHERE rc.user_id = gm.user_id AND rc.group_id = gm.group_id)";
+
+    // From groups rather than group_members: a new group's member rows are only written when JPA flushes
+    private static final String CREATE_AT_LATEST_FOR_MEMBER =
+            "INSERT INTO group_read_cursors (user_id, group_id, last_read_seq, last_read_message_id, updated_at) " +
+            "SELECT ?, g.id, COALESCE(g.message_seq, 0), " +
+            "(SELECT MAX(m.id) FROM messages m WHERE m.group_id = g.id), CURRENT_TIMESTAMP " +
+            "FROM groups g WHERE g.id = ? AND NOT EXISTS (SELECT 1 FROM group_read_cursors rc " +
+            "WHERE rc.user_id = ? AND rc.group_id = g.id)";
+
+    private static final String SELECT_READ_STATES =
+            "SELECT rc.group_id, COALESCE(g.message_seq, 0) AS message_seq, rc.last_read_seq " +
+            "FROM group_read_cursors rc JOIN groups g ON g.id = rc.group_id WHERE rc.user_id = ?";
+
+    /** Where a member has read up to in a group */
+    public record ReadPosition(Long userId, Long groupId, long seq, Long messageId) {
+    }
+
+    /** A group's latest sequence number and how far the member has read */
+    public record ReadState(Long groupId, long messageSeq, long lastReadSeq) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    /**
+     * Start the member's cursor at the group's latest message
+     */
+    public void createForMember(Long groupId, Long userId) {
+        jdbcTemplate.update(CREATE_AT_LATEST_FOR_MEMBER, userId, groupId, userId);
+    }
+
+    /**
+     * Start a cursor at the latest message for every member who has none; returns the number created
+     */
+    public int createMissing() {
+        return jdbcTemplate.update(CREATE_AT_LATEST);
+    }
+
+    /**
+     * Move each cursor forward to its position; positions behind the stored cursor are ignored
+     */
+    public void advance(Collection<ReadPosition> positions) {
+        if (positions.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (databasePlatform.isPostgres()) {
+            jdbcTemplate.batchUpdate(UPSERT_POSTGRES, positions, positions.size(),
+                    (ps, position) -> bind(ps, position, now));
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADVANCE, positions, positions.size(), (ps, position) -> {
+            bind(ps, position, now);
+            ps.setLong(6, position.seq());
+        });
+        jdbcTemplate.batchUpdate(INSERT_IF_MISSING, positions, positions.size(),
+                (ps, position) -> bind(ps, position, now));
+    }
+
+    /**
+     * Sequence number of the message if it was posted in the group, otherwise null
+     */
+    public Long findGroupSeq(Long groupId, Long messageId) {
+        List<Long> seqs = jdbcTemplate.queryForList(
+                "SELECT group_seq FROM messages WHERE id = ? AND group_id = ?", Long.class, messageId, groupId);
+        return seqs.isEmpty() ? null : seqs.get(0);
+    }
+
+    /**
+     * The group's newest message as a read position for the user; seq 0 if there are no messages
+     */
+    public ReadPosition findLatest(Long userId, Long groupId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(g.message_seq, 0) AS message_seq, " +
+                "(SELECT MAX(m.id) FROM messages m WHERE m.group_id = g.id) AS message_id " +
+                "FROM groups g WHERE g.id = ?",
+                (rs, row) -> new ReadPosition(userId, groupId, rs.getLong("message_seq"),
+                        rs.getObject("message_id", Long.class)),
+                groupId);
+    }
+
+    /**
+     * The user's read state in each group they have a cursor for
+     */
+    public List<ReadState> findReadStates(Long userId) {
+        return jdbcTemplate.query(SELECT_READ_STATES, (rs, row) -> new ReadState(
+                rs.getLong("group_id"), rs.getLong("message_seq"), rs.getLong("last_read_seq")), userId);
+    }
+
+    public void deleteMembership(Long userId, Long groupId) {
+        jdbcTemplate.update("DELETE FROM group_read_cursors WHERE user_id = ? AND group_id = ?", userId, groupId);
+    }
+
+    public void deleteByGroupId(Long groupId) {
+        jdbcTemplate.update("DELETE FROM group_read_cursors WHERE group_id = ?", groupId);
+    }
+
+    /**
+     * seq, message id, time, user, group: the leading parameters of every cursor write
+     */
+    private static void bind(PreparedStatement ps, ReadPosition position, Timestamp now) throws SQLException {
+        ps.setLong(1, position.seq());
+        // Typed null: PostgreSQL cannot infer the type of a parameter in a SELECT list
+        if (position.messageId() != null) {
+            ps.setLong(2, position.messageId());
+        } else {
+            ps.setNull(2, Types.BIGINT);
+        }
+        ps.setTimestamp(3, now);
+        ps.setLong(4, position.userId());
+        ps.setLong(5, position.groupId());
+    }
+}
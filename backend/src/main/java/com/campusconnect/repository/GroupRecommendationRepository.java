@@ -0,0 +1,36 @@
+package com.campusconnect.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.campusconnect.model.GroupRecommendation;
+
+@Repository
+public interface GroupRecommendationRepository extends JpaRepository<GroupRecommendation, Long> {
+
+    /**
+     * Precomputed recommendations for a user, best first
+     */
+    List<GroupRecommendation> findByUserIdOrderByRankAsc(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM GroupRecommendation r WHERE r.userId IN :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM GroupRecommendation r WHERE r.groupId = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+
+    @Query("SELECT COUNT(DISTINCT r.userId) FROM GroupRecommendation r")
+    long countUsers();
+
+    @Query("SELECT MIN(r.computedAt) FROM GroupRecommendation r")
+    LocalDateTime findOldestComputedAt();
+}
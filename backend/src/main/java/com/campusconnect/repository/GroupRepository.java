@@ -1,12 +1,18 @@
 package com.campusconnect.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.campusconnect.dto.GroupRecommendationCandidate;
 import com.campusconnect.model.Group;
 
 @Repository
@@ -15,15 +21,157 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
     List<Group> findByCourseCodeContainingIgnoreCase(String courseCode);
     List<Group> findByTopicContainingIgnoreCase(String topic);
     
-    @Query("SELECT g FROM Group g WHERE g.status = 'ACTIVE' AND " +
-           "(LOWER(g.courseName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(g.courseCode) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(g.topic) LIKE LOWER(CONCAT('%', :query, '%')))")
-    List<Group> searchGroups(@Param("query") String query);
+    /**
+     * Ids of a page of ranked full-text matches among public groups (PostgreSQL).
+     * search_vector is a generated tsvector column with a GIN index, created by FullTextSearchSchema:
+     * name and course code weigh most, then course name and topic, then description.
+     */
+    @Query(nativeQuery = true, value =
+           "SELECT g.id FROM groups g, to_tsquery('simple', :tsquery) q " +
+           "WHERE g.search_vector @@ q " +
+           "AND g.visibility = 'PUBLIC' " +
+           "AND g.status IN (:statuses) " +
+           "ORDER BY ts_rank(g.search_vector, q) DESC, g.id DESC " +
+           "LIMIT :limit OFFSET :offset")
+    List<Long> fullTextSearchPostgres(
+        @Param("tsquery") String tsquery,
+        @Param("statuses") Collection<String> statuses,
+        @Param("limit") int limit,
+        @Param("offset") long offset
+    );
+
+    @Query(nativeQuery = true, value =
+           "SELECT COUNT(*) FROM groups g " +
+           "WHERE g.search_vector @@ to_tsquery('simple', :tsquery) " +
+           "AND g.visibility = 'PUBLIC' " +
+           "AND g.status IN (:statuses)")
+    long countFullTextSearchPostgres(
+        @Param("tsquery") String tsquery,
+        @Param("statuses") Collection<String> statuses
+    );
+
+    /**
+     * Portable ranked search for databases without full-text support (H2 for local runs).
+     * Same filters and field weights as fullTextSearchPostgres, but matches the whole
+     * query as a substring, so it cannot use an index.
+     */
+    @Query(value = "SELECT g.id FROM Group g " +
+           "WHERE g.visibility = 'PUBLIC' " +
+           "AND g.status IN :statuses " +
+           "AND (LOWER(g.name) LIKE :pattern OR LOWER(g.courseCode) LIKE :pattern " +
+           "OR LOWER(g.courseName) LIKE :pattern OR LOWER(g.topic) LIKE :pattern " +
+           "OR LOWER(g.description) LIKE :pattern) " +
+           "ORDER BY (CASE WHEN LOWER(g.name) LIKE :pattern THEN 4 ELSE 0 END " +
+           "+ CASE WHEN LOWER(g.courseCode) LIKE :pattern THEN 4 ELSE 0 END " +
+           "+ CASE WHEN LOWER(g.courseName) LIKE :pattern THEN 2 ELSE 0 END " +
+           "+ CASE WHEN LOWER(g.topic) LIKE :pattern THEN 2 ELSE 0 END " +
+           "+ CASE WHEN LOWER(g.description) LIKE :pattern THEN 1 ELSE 0 END) DESC, g.id DESC",
+           countQuery = "SELECT COUNT(g) FROM Group g " +
+           "WHERE g.visibility = 'PUBLIC' " +
+           "AND g.status IN :statuses " +
+           "AND (LOWER(g.name) LIKE :pattern OR LOWER(g.courseCode) LIKE :pattern " +
+           "OR LOWER(g.courseName) LIKE :pattern OR LOWER(g.topic) LIKE :pattern " +
+           "OR LOWER(g.description) LIKE :pattern)")
+    Page<Long> searchGroupsRanked(
+        @Param("pattern") String pattern,
+        @Param("statuses") Collection<Group.GroupStatus> statuses,
+        Pageable pageable
+    );
+
+    /**
+     * Ids of a keyset page of public groups, newest first, strictly after the cursor (createdAt, id).
+     * course matches the course code or name exactly (case-insensitive); null means any.
+     * openSeats compares the stored member_count, so no group_members rows are counted.
+     * Served by idx_groups_visibility_created_id. Pass a Pageable of (0, limit).
+     */
+    @Query("SELECT g.id FROM Group g " +
+           "WHERE g.visibility = 'PUBLIC' " +
+           "AND g.status IN :statuses " +
+           "AND (:course IS NULL OR LOWER(g.courseCode) = :course OR LOWER(g.courseName) = :course) " +
+           "AND (:openSeats = false OR g.memberCount < g.maxSize) " +
+           "AND (g.createdAt < :afterCreatedAt OR (g.createdAt = :afterCreatedAt AND g.id < :afterId)) " +
+           "ORDER BY g.createdAt DESC, g.id DESC")
+    List<Long> findPublicPageAfter(
+        @Param("statuses") Collection<Group.GroupStatus> statuses,
+        @Param("course") String course,
+        @Param("openSeats") boolean openSeats,
+        @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
     
     List<Group> findByCreatorId(Long creatorId);
     List<Group> findByMembersId(Long memberId);
     
+    /**
+     * All (groupId, userId) rows of group_members, used to warm in-memory indexes
+     */
+    @Query("SELECT g.id, m.id FROM Group g JOIN g.members m")
+    List<Object[]> findAllMembershipPairs();
+
+    /**
+     * Take one seat if the group is not full. Returns 1 on success and 0 if the group
+     * is full: the capacity check and the increment are a single atomic statement, so
+     * concurrent joins cannot overshoot max_size and never wait on a lock held in Java.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "UPDATE groups SET member_count = member_count + 1, version = version + 1 " +
+           "WHERE id = :groupId AND member_count < max_size")
+    int claimSeat(@Param("groupId") Long groupId);
+
+    /**
+     * Give a seat back after a member left or was removed
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "UPDATE groups SET member_count = member_count - 1, version = version + 1 " +
+           "WHERE id = :groupId AND member_count > 0")
+    int releaseSeat(@Param("groupId") Long groupId);
+
+    /**
+     * Take the next message sequence number; the row stays locked until the sender's
+     * transaction ends, so numbers are handed out in order without gaps. Does not
+     * bump version: a new message is not an edit of the group.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "UPDATE groups SET message_seq = COALESCE(message_seq, 0) + 1 WHERE id = :groupId")
+    int incrementMessageSeq(@Param("groupId") Long groupId);
+
+    @Query(nativeQuery = true, value = "SELECT message_seq FROM groups WHERE id = :groupId")
+    Long findMessageSeq(@Param("groupId") Long groupId);
+
+    /**
+     * Add one group_members row without loading the group's member collection
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO group_members (group_id, user_id) VALUES (:groupId, :userId)")
+    int insertMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    /**
+     * Whether the user is a member, from the group_members primary key. Permission checks
+     * use this rather than GroupMembershipIndex, which can lag on other instances.
+     */
+    @Query(nativeQuery = true, value =
+           "SELECT CASE WHEN EXISTS (SELECT 1 FROM group_members " +
+           "WHERE group_id = :groupId AND user_id = :userId) THEN TRUE ELSE FALSE END")
+    boolean isMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    /**
+     * Which of the users are members of the group
+     */
+    @Query(nativeQuery = true, value =
+           "SELECT user_id FROM group_members WHERE group_id = :groupId AND user_id IN (:userIds)")
+    List<Long> findMemberIds(@Param("groupId") Long groupId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Delete one group_members row without loading the group's member collection
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM group_members WHERE group_id = :groupId AND user_id = :userId")
+    int deleteMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+    
     /**
      * Find public active groups that match course names (case-insensitive partial match)
      */
@@ -74,6 +222,70 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
            "AND (LOWER(g.name) LIKE LOWER(CONCAT('%', :groupName, '%')))")
     List<Group> findRecommendedByGroupName(@Param("userId") Long userId, @Param("groupName") String groupName);
     
+    /**
+     * Batched recommendation candidates in one round-trip (PostgreSQL).
+     * Takes every keyword per field as an array and returns each matching group once,
+     * with the first keyword that matched each field. Membership is checked once per
+     * group with NOT EXISTS instead of repeating the NOT IN subqueries per keyword.
+     * RecommendationScorer uses the match columns to skip fields no keyword is inside.
+     */
+    @Query(nativeQuery = true, value =
+           "SELECT * FROM (" +
+           "SELECT g.id AS \"groupId\", " +
+           "  (SELECT k.kw FROM unnest(CAST(:groupNames AS text[])) AS k(kw) " +
+           "   WHERE LOWER(g.name) LIKE '%' || LOWER(k.kw) || '%' LIMIT 1) AS \"nameMatch\", " +
+           "  (SELECT k.kw FROM unnest(CAST(:courseNames AS text[])) AS k(kw) " +
+           "   WHERE LOWER(g.course_name) LIKE '%' || LOWER(k.kw) || '%' LIMIT 1) AS \"courseNameMatch\", " +
+           "  (SELECT k.kw FROM unnest(CAST(:courseCodes AS text[])) AS k(kw) " +
+           "   WHERE LOWER(g.course_code) LIKE '%' || LOWER(k.kw) || '%' LIMIT 1) AS \"courseCodeMatch\", " +
+           "  (SELECT k.kw FROM unnest(CAST(:topics AS text[])) AS k(kw) " +
+           "   WHERE LOWER(g.topic) LIKE '%' || LOWER(k.kw) || '%' LIMIT 1) AS \"topicMatch\" " +
+           "FROM groups g " +
+           "WHERE g.status = 'ACTIVE' " +
+           "AND g.visibility = 'PUBLIC' " +
+           "AND g.creator_id <> :userId " +
+           "AND NOT EXISTS (SELECT 1 FROM group_members gm WHERE gm.group_id = g.id AND gm.user_id = :userId)" +
+           ") c " +
+           "WHERE c.\"nameMatch\" IS NOT NULL OR c.\"courseNameMatch\" IS NOT NULL " +
+           "OR c.\"courseCodeMatch\" IS NOT NULL OR c.\"topicMatch\" IS NOT NULL")
+    List<GroupRecommendationCandidate> findRecommendationCandidatesPostgres(
+        @Param("userId") Long userId,
+        @Param("groupNames") String[] groupNames,
+        @Param("courseNames") String[] courseNames,
+        @Param("courseCodes") String[] courseCodes,
+        @Param("topics") String[] topics
+    );
+    
+    /**
+     * H2-compatible variant of findRecommendationCandidatesPostgres for local runs
+     */
+    @Query(nativeQuery = true, value =
+           "SELECT * FROM (" +
+           "SELECT g.id AS \"groupId\", " +
+           "  (SELECT k.kw FROM UNNEST(CAST(:groupNames AS VARCHAR ARRAY)) AS k(kw) " +
+           "   WHERE LOWER(g.name) LIKE CONCAT('%', LOWER(k.kw), '%') LIMIT 1) AS \"nameMatch\", " +
+           "  (SELECT k.kw FROM UNNEST(CAST(:courseNames AS VARCHAR ARRAY)) AS k(kw) " +
+           "   WHERE LOWER(g.course_name) LIKE CONCAT('%', LOWER(k.kw), '%') LIMIT 1) AS \"courseNameMatch\", " +
+           "  (SELECT k.kw FROM UNNEST(CAST(:courseCodes AS VARCHAR ARRAY)) AS k(kw) " +
+           "   WHERE LOWER(g.course_code) LIKE CONCAT('%', LOWER(k.kw), '%') LIMIT 1) AS \"courseCodeMatch\", " +
+           "  (SELECT k.kw FROM UNNEST(CAST(:topics AS VARCHAR ARRAY)) AS k(kw) " +
+           "   WHERE LOWER(g.topic) LIKE CONCAT('%', LOWER(k.kw), '%') LIMIT 1) AS \"topicMatch\" " +
+           "FROM groups g " +
+           "WHERE g.status = 'ACTIVE' " +
+           "AND g.visibility = 'PUBLIC' " +
+           "AND g.creator_id <> :userId " +
+           "AND NOT EXISTS (SELECT 1 FROM group_members gm WHERE gm.group_id = g.id AND gm.user_id = :userId)" +
+           ") c " +
+           "WHERE c.\"nameMatch\" IS NOT NULL OR c.\"courseNameMatch\" IS NOT NULL " +
+           "OR c.\"courseCodeMatch\" IS NOT NULL OR c.\"topicMatch\" IS NOT NULL")
+    List<GroupRecommendationCandidate> findRecommendationCandidatesH2(
+        @Param("userId") Long userId,
+        @Param("groupNames") String[] groupNames,
+        @Param("courseNames") String[] courseNames,
+        @Param("courseCodes") String[] courseCodes,
+        @Param("topics") String[] topics
+    );
+    
     /**
      * Collaborative filtering: Find groups that members of user's groups are part of
      * This finds groups where at least one member is also a member of one of the user's groups
@@ -1,6 +1,7 @@
 package com.campusconnect.repository;
 
 import com.campusconnect.model.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,19 +10,49 @@ import java.util.List;
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findByRecipientIdOrderByCreatedAtDesc(Long recipientId);
-    List<Message> findByGroupIdOrderByCreatedAtAsc(Long groupId);
+    List<Message> findByGroupIdAndIdGreaterThanOrderByIdAsc(Long groupId, Long afterId, Pageable pageable);
+    List<Message> findByGroupIdAndIdLessThanOrderByIdDesc(Long groupId, Long beforeId, Pageable pageable);
     List<Message> findBySenderIdAndRecipientIdOrderByCreatedAtAsc(Long senderId, Long recipientId);
     Long countByRecipientIdAndIsReadFalse(Long recipientId);
     
+    // Each side of the OR is a range scan on (sender_id, recipient_id, id)
     @org.springframework.data.jpa.repository.Query("SELECT m FROM Message m WHERE " +
-            "(m.sender.id = :userId AND m.recipient.id = :otherUserId) OR " +
-            "(m.sender.id = :otherUserId AND m.recipient.id = :userId) " +
-            "ORDER BY m.createdAt ASC")
-    List<Message> findConversationMessages(Long userId, Long otherUserId);
+            "((m.sender.id = :userId AND m.recipient.id = :otherUserId) OR " +
+            "(m.sender.id = :otherUserId AND m.recipient.id = :userId)) " +
+            "AND m.id > :afterId ORDER BY m.id ASC")
+    List<Message> findConversationMessagesAfter(Long userId, Long otherUserId, Long afterId, Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Query("SELECT m FROM Message m WHERE " +
+            "((m.sender.id = :userId AND m.recipient.id = :otherUserId) OR " +
+            "(m.sender.id = :otherUserId AND m.recipient.id = :userId)) " +
+            "AND m.id < :beforeId ORDER BY m.id DESC")
+    List<Message> findConversationMessagesBefore(Long userId, Long otherUserId, Long beforeId, Pageable pageable);
     
     @org.springframework.data.jpa.repository.Query("SELECT m FROM Message m WHERE " +
             "m.recipient.id = :userId OR m.sender.id = :userId " +
             "ORDER BY m.createdAt DESC")
     List<Message> findAllUserMessages(Long userId);
+
+    /**
+     * Mark a received message read; 0 if it was already read or is not the user's
+     */
+    @org.springframework.data.jpa.repository.Modifying(clearAutomatically = true)
+    @org.springframework.data.jpa.repository.Query(nativeQuery = true, value =
+            "UPDATE messages SET is_read = TRUE WHERE id = :messageId AND recipient_id = :userId " +
+            "AND (is_read = FALSE OR is_read IS NULL)")
+    int markReadIfUnread(@org.springframework.data.repository.query.Param("messageId") Long messageId,
+                         @org.springframework.data.repository.query.Param("userId") Long userId);
+
+    /**
+     * Mark every unread message the sender sent the recipient, up to and including upTo, read
+     * in one statement (a range scan on sender_id, recipient_id, id); returns how many changed
+     */
+    @org.springframework.data.jpa.repository.Modifying(clearAutomatically = true)
+    @org.springframework.data.jpa.repository.Query(nativeQuery = true, value =
+            "UPDATE messages SET is_read = TRUE WHERE sender_id = :senderId AND recipient_id = :recipientId " +
+            "AND id <= :upTo AND (is_read = FALSE OR is_read IS NULL)")
+    int markConversationReadUpTo(@org.springframework.data.repository.query.Param("senderId") Long senderId,
+                                 @org.springframework.data.repository.query.Param("recipientId") Long recipientId,
+                                 @org.springframework.data.repository.query.Param("upTo") Long upTo);
 }
 
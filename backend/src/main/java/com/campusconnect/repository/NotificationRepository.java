@@ -2,6 +2,9 @@ package com.campusconnect.repository;
 
 import com.campusconnect.model.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,5 +14,12 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByUserIdOrderByTimestampDesc(Long userId);
     List<Notification> findByUserIdAndIsReadFalseOrderByTimestampDesc(Long userId);
     Long countByUserIdAndIsReadFalse(Long userId);
+
+    /**
+     * Mark all of the user's unread notifications read in one statement; returns how many changed
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsRead(@Param("userId") Long userId);
 }
 
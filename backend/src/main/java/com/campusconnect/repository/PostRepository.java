@@ -1,8 +1,12 @@
 package com.campusconnect.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.campusconnect.model.Post;
@@ -16,14 +20,16 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByTitleContainingIgnoreCaseOrderByCreatedAtDesc(String title);
     List<Post> findByContentContainingIgnoreCaseOrderByCreatedAtDesc(String content);
     
-    // Combined search
-    @org.springframework.data.jpa.repository.Query("SELECT p FROM Post p WHERE " +
-           "LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "ORDER BY p.createdAt DESC")
-    List<Post> searchPosts(@org.springframework.data.repository.query.Param("query") String query);
-    
     // Get all posts ordered by date
     List<Post> findAllByOrderByCreatedAtDesc();
+
+    // A group's posts in id order after afterId, with author and group loaded (for reindexing)
+    @Query("SELECT p FROM Post p JOIN FETCH p.author JOIN FETCH p.group " +
+           "WHERE p.group.id = :groupId AND p.id > :afterId ORDER BY p.id")
+    List<Post> findGroupPage(@Param("groupId") Long groupId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Which of the given ids still exist (for dropping deleted posts from the search index)
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
 
@@ -0,0 +1,134 @@
+package com.campusconnect.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.campusconnect.model.RecommendationState;
+import com.campusconnect.util.DatabasePlatform;
+
+/**
+ * SQL for recommendation_state.
+ *
+ * Invalidating a user bumps their epoch in the transaction that changed their data, so
+ * it commits or rolls back with that change. Marking a user computed only succeeds if the
+ * epoch still matches the one read before the computation started. Both writes lock the
+ * user's row, so a computation that read the data before an invalidating transaction
+ * committed waits for that commit and then sees the new epoch. PostgreSQL upserts with
+ * ON CONFLICT; H2 updates first and inserts if no row existed.
+ */
+@Repository
+public class RecommendationStateRepository {
+    private static final String MARK_COMPUTED_POSTGRES =
+            "INSERT INTO recommendation_state (user_id, epoch, computed_epoch, computed_at) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (user_id) DO UPDATE SET computed_epoch = EXCLUDED.computed_epoch, " +
+            "computed_at = EXCLUDED.computed_at WHERE recommendation_state.epoch = EXCLUDED.epoch";
+
+    private static final String MARK_COMPUTED =
+            "UPDATE recommendation_state SET computed_epoch = epoch, computed_at = ? " +
+            "WHERE user_id = ? AND epoch = ?";
+
+    private static final String INSERT_COMPUTED =
+            "INSERT INTO recommendation_state (user_id, epoch, computed_epoch, computed_at) " +
+            "SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM recommendation_state WHERE user_id = ?)";
+
+    private static final String INVALIDATE_POSTGRES =
+            "INSERT INTO recommendation_state (user_id, epoch) VALUES (?, 1) " +
+            "ON CONFLICT (user_id) DO UPDATE SET epoch = recommendation_state.epoch + 1";
+
+    private static final String INVALIDATE_H2 =
+            "MERGE INTO recommendation_state s USING (SELECT CAST(? AS BIGINT) AS user_id) v " +
+            "ON s.user_id = v.user_id " +
+            "WHEN MATCHED THEN UPDATE SET epoch = s.epoch + 1 " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, epoch) VALUES (v.user_id, 1)";
+
+    private static final String INVALIDATE_BY_GROUP =
+            "UPDATE recommendation_state SET epoch = epoch + 1 " +
+            "WHERE user_id IN (SELECT r.user_id FROM group_recommendations r WHERE r.group_id = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    /**
+     * The user's state, or null if their recommendations were never computed or invalidated
+     */
+    public RecommendationState find(Long userId) {
+        List<RecommendationState> states = jdbcTemplate.query(
+                "SELECT user_id, epoch, computed_epoch, computed_at FROM recommendation_state WHERE user_id = ?",
+                (rs, row) -> new RecommendationState(rs.getLong("user_id"), rs.getLong("epoch"),
+                        rs.getObject("computed_epoch", Long.class),
+                        toLocalDateTime(rs.getTimestamp("computed_at"))),
+                userId);
+        return states.isEmpty() ? null : states.get(0);
+    }
+
+    /**
+     * The user's current epoch; 0 if they have no state row yet
+     */
+    public long currentEpoch(Long userId) {
+        List<Long> epochs = jdbcTemplate.queryForList(
+                "SELECT epoch FROM recommendation_state WHERE user_id = ?", Long.class, userId);
+        return epochs.isEmpty() ? 0L : epochs.get(0);
+    }
+
+    /**
+     * Record a computation made at the given epoch; false if the user was invalidated since
+     */
+    public boolean markComputed(Long userId, long epoch, LocalDateTime at) {
+        Timestamp computedAt = Timestamp.valueOf(at);
+        if (databasePlatform.isPostgres()) {
+            return jdbcTemplate.update(MARK_COMPUTED_POSTGRES, userId, epoch, epoch, computedAt) > 0;
+        }
+        if (jdbcTemplate.update(MARK_COMPUTED, computedAt, userId, epoch) > 0) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_COMPUTED, userId, epoch, epoch, computedAt, userId) > 0;
+        } catch (DuplicateKeyException e) {
+            // A concurrent invalidation or computation created the row first
+            return false;
+        }
+    }
+
+    /**
+     * Bump the users' epochs; ids are locked in ascending order
+     */
+    public void invalidate(Collection<Long> userIds) {
+        List<Long> ids = userIds.stream().distinct().sorted().toList();
+        jdbcTemplate.batchUpdate(databasePlatform.isPostgres() ? INVALIDATE_POSTGRES : INVALIDATE_H2,
+                ids, ids.size(), (ps, userId) -> ps.setLong(1, userId));
+    }
+
+    /**
+     * Invalidate every user who has the group among their stored recommendations
+     */
+    public void invalidateByGroup(Long groupId) {
+        jdbcTemplate.update(INVALIDATE_BY_GROUP, groupId);
+    }
+
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM recommendation_state");
+    }
+
+    /**
+     * Users whose last computation is current and found nothing to recommend
+     */
+    public long countEmpty() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM recommendation_state s WHERE s.computed_epoch = s.epoch " +
+                "AND NOT EXISTS (SELECT 1 FROM group_recommendations r WHERE r.user_id = s.user_id)", Long.class);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
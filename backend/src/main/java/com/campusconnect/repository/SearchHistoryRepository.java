@@ -3,11 +3,14 @@ package com.campusconnect.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.campusconnect.dto.SearchLogEntry;
 import com.campusconnect.model.SearchHistory;
 
 @Repository
@@ -27,14 +30,14 @@ public interface SearchHistoryRepository extends JpaRepository<SearchHistory, Lo
     );
     
     /**
-     * Find distinct search queries by type for a user (recent searches)
-     * PostgreSQL requires ORDER BY columns to be in SELECT when using DISTINCT
+     * Find distinct search queries by type for a user (recent searches), most recent first.
+     * Grouping by query alone keeps each query once; ORDER BY uses the aggregate so PostgreSQL accepts it.
      */
     @Query("SELECT sh.query FROM SearchHistory sh " +
            "WHERE sh.user.id = :userId " +
            "AND sh.searchType = :searchType " +
            "AND sh.searchedAt >= :after " +
-           "GROUP BY sh.query, sh.searchedAt " +
+           "GROUP BY sh.query " +
            "ORDER BY MAX(sh.searchedAt) DESC")
     List<String> findDistinctQueriesByType(
         @Param("userId") Long userId,
@@ -43,13 +46,12 @@ public interface SearchHistoryRepository extends JpaRepository<SearchHistory, Lo
     );
     
     /**
-     * Find all distinct search queries for a user (recent searches, last 30 days)
-     * PostgreSQL requires ORDER BY columns to be in SELECT when using DISTINCT
+     * Find all distinct search queries for a user (recent searches, last 30 days), most recent first
      */
     @Query("SELECT sh.query FROM SearchHistory sh " +
            "WHERE sh.user.id = :userId " +
            "AND sh.searchedAt >= :after " +
-           "GROUP BY sh.query, sh.searchedAt " +
+           "GROUP BY sh.query " +
            "ORDER BY MAX(sh.searchedAt) DESC")
     List<String> findDistinctRecentQueries(
         @Param("userId") Long userId,
@@ -60,5 +62,28 @@ public interface SearchHistoryRepository extends JpaRepository<SearchHistory, Lo
      * Count searches by type for a user
      */
     long countByUserIdAndSearchType(Long userId, SearchHistory.SearchType searchType);
+
+    /**
+     * Page through the log since the cutoff by user, then id, after the given (user, id) position.
+     * Used to backfill search interest profiles; returns plain columns, not entities.
+     */
+    @Query("SELECT new com.campusconnect.dto.SearchLogEntry(sh.id, sh.user.id, sh.searchType, sh.query, sh.searchedAt) " +
+           "FROM SearchHistory sh " +
+           "WHERE sh.searchedAt >= :cutoff " +
+           "AND (sh.user.id > :afterUserId OR (sh.user.id = :afterUserId AND sh.id > :afterId)) " +
+           "ORDER BY sh.user.id, sh.id")
+    List<SearchLogEntry> findLogPageByUser(
+        @Param("cutoff") LocalDateTime cutoff,
+        @Param("afterUserId") Long afterUserId,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Expire raw log rows older than the cutoff; search_interests keeps the rolled-up signal
+     */
+    @Modifying
+    @Query("DELETE FROM SearchHistory sh WHERE sh.searchedAt < :cutoff")
+    int deleteSearchedBefore(@Param("cutoff") LocalDateTime cutoff);
 }
 
@@ -0,0 +1,28 @@
+package com.campusconnect.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.campusconnect.model.SearchInterest;
+
+@Repository
+public interface SearchInterestRepository extends JpaRepository<SearchInterest, Long> {
+
+    /**
+     * A user's whole interest profile (all search types) in one indexed lookup
+     */
+    List<SearchInterest> findByUserId(Long userId);
+
+    /**
+     * Drop terms nobody has searched for since the cutoff (their weight has decayed to ~0)
+     */
+    @Modifying
+    @Query("DELETE FROM SearchInterest si WHERE si.updatedAt < :cutoff")
+    int deleteUpdatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -22,5 +22,47 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     // Count bot users
     long countByIsBotTrue();
-}
 
+    boolean existsByIsBotTrue();
+
+    // Bots a page at a time, in id order
+    org.springframework.data.domain.Page<User> findByIsBotTrueOrderByIdAsc(org.springframework.data.domain.Pageable pageable);
+
+    java.util.List<User> findByIsBotTrue();
+
+    // Up to limit random bot ids (RANDOM() exists in both PostgreSQL and H2)
+    @org.springframework.data.jpa.repository.Query(nativeQuery = true,
+            value = "SELECT id FROM users WHERE is_bot = true ORDER BY RANDOM() LIMIT :limit")
+    java.util.List<Long> findRandomBotIds(@org.springframework.data.repository.query.Param("limit") int limit);
+
+    // Set every bot's profile visibility in one statement; returns the number of bots changed
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE User u SET u.visibility = :visibility, u.updatedAt = :now " +
+            "WHERE u.isBot = true AND (u.visibility IS NULL OR u.visibility <> :visibility)")
+    int updateBotVisibility(@org.springframework.data.repository.query.Param("visibility") User.ProfileVisibility visibility,
+                            @org.springframework.data.repository.query.Param("now") java.time.LocalDateTime now);
+
+    // Real users seen since the given time (used by the recommendation precompute job)
+    @org.springframework.data.jpa.repository.Query("SELECT u.id FROM User u WHERE u.isBot = false AND u.lastActiveAt >= :since")
+    java.util.List<Long> findActiveUserIdsSince(@org.springframework.data.repository.query.Param("since") java.time.LocalDateTime since);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE User u SET u.lastActiveAt = :seenAt WHERE u.id = :userId AND (u.lastActiveAt IS NULL OR u.lastActiveAt < :seenAt)")
+    int updateLastActiveAt(@org.springframework.data.repository.query.Param("userId") Long userId,
+                           @org.springframework.data.repository.query.Param("seenAt") java.time.LocalDateTime seenAt);
+
+    // (user id, value) pairs for every element collection, so the user directory loads in three queries
+    @org.springframework.data.jpa.repository.Query("SELECT u.id, i FROM User u JOIN u.interests i")
+    java.util.List<Object[]> findAllInterestPairs();
+
+    @org.springframework.data.jpa.repository.Query("SELECT u.id, s FROM User u JOIN u.skills s")
+    java.util.List<Object[]> findAllSkillPairs();
+
+    @org.springframework.data.jpa.repository.Query("SELECT u.id, c FROM User u JOIN u.courses c")
+    java.util.List<Object[]> findAllCoursePairs();
+
+    // Which of the given ids belong to existing users
+    @org.springframework.data.jpa.repository.Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    java.util.List<Long> findExistingIds(@org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
+}
@@ -16,7 +16,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -37,6 +36,12 @@ public class AuthService {
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private UserActivityTracker userActivityTracker;
+
+    @Autowired
+    private UserDirectoryIndex userDirectoryIndex;
+
     @Transactional
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -64,6 +69,7 @@ public class AuthService {
         }
 
         user = userRepository.save(user);
+        userDirectoryIndex.index(user);
 
         // Send welcome messages from 2-7 random bot users
         sendWelcomeMessagesFromBots(user.getId());
@@ -90,6 +96,7 @@ public class AuthService {
 
         User user = userRepository.findById(userPrincipal.getId())
             .orElseThrow(() -> new RuntimeException("User not found"));
+        userActivityTracker.touch(user.getId());
 
         return new AuthResponse(token, "Bearer", user.getId(), user.getUsername(), 
                                user.getEmail(), user.getRole().name());
@@ -100,23 +107,14 @@ public class AuthService {
      */
     private void sendWelcomeMessagesFromBots(Long newUserId) {
         try {
-            // Get all bot users
-            List<User> allBots = userRepository.findAll().stream()
-                    .filter(User::getIsBot)
-                    .collect(java.util.stream.Collectors.toList());
-
-            if (allBots.isEmpty()) {
-                return; // No bots available to send messages
-            }
-
-            // Randomly select 2-7 bots
+            // Randomly select 2-7 bots; the database picks them so no bot rows are loaded
             Random random = new Random();
             int numMessages = 2 + random.nextInt(6); // 2-7 messages
-            numMessages = Math.min(numMessages, allBots.size()); // Don't exceed available bots
+            List<Long> selectedBotIds = userRepository.findRandomBotIds(numMessages);
 
-            // Shuffle and select random bots
-            Collections.shuffle(allBots);
-            List<User> selectedBots = allBots.subList(0, numMessages);
+            if (selectedBotIds.isEmpty()) {
+                return; // No bots available to send messages
+            }
 
             // Welcome message templates
             List<String> welcomeMessages = List.of(
@@ -133,13 +131,13 @@ public class AuthService {
             );
 
             // Send messages from each selected bot
-            for (User bot : selectedBots) {
+            for (Long botId : selectedBotIds) {
                 try {
                     String message = welcomeMessages.get(random.nextInt(welcomeMessages.size()));
-                    messageService.sendDirectMessage(bot.getId(), newUserId, message);
+                    messageService.sendDirectMessage(botId, newUserId, message);
                 } catch (Exception e) {
                     // Log error but continue with other bots
-                    System.err.println("Failed to send welcome message from bot " + bot.getId() + ": " + e.getMessage());
+                    System.err.println("Failed to send welcome message from bot " + botId + ": " + e.getMessage());
                 }
             }
         } catch (Exception e) {
@@ -9,6 +9,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,6 +42,18 @@ public class BotSeederService {
     @Autowired
     private MessageService messageService;
     
+    @Autowired
+    private GroupService groupService;
+    
+    @Autowired
+    private GroupSearchIndex groupSearchIndex;
+    
+    @Autowired
+    private GroupMembershipIndex membershipIndex;
+    
+    @Autowired
+    private UserDirectoryIndex userDirectoryIndex;
+    
     private static final String[] FIRST_NAMES = {
         "Alex", "Jordan", "Taylor", "Morgan", "Casey", "Riley", "Avery", "Quinn",
         "Blake", "Cameron", "Dakota", "Emery", "Finley", "Harper", "Hayden", "Jamie",
@@ -64,6 +77,10 @@ public class BotSeederService {
         "Computer Science", "Information Technology", "Engineering", "Physics", "Mathematics"
     };
     
+    // Real (non-bot) account that bot group creators message; falls back to the first real user
+    @Value("${bots.seed.message-recipient-email:}")
+    private String messageRecipientEmail;
+    
     private final Random random = new Random();
     
     @Transactional
@@ -72,11 +89,7 @@ public class BotSeederService {
         List<Group> createdGroups = new ArrayList<>();
         
         // Check if bots already exist
-        long existingBotCount = userRepository.findAll().stream()
-            .filter(User::getIsBot)
-            .count();
-        
-        if (existingBotCount > 0) {
+        if (userRepository.existsByIsBotTrue()) {
             throw new RuntimeException("Bots already exist. Delete existing bots first using /api/admin/bots/delete-all");
         }
         
@@ -153,17 +166,14 @@ public class BotSeederService {
             int groupsToJoin = 1 + random.nextInt(3); // Join 1-3 groups
             List<Group> availableGroups = createdGroups.stream()
                 .filter(g -> !g.getCreator().getId().equals(bot.getId())) // Not groups they created
-                .filter(g -> !g.getMembers().contains(bot)) // Not already a member
-                .filter(g -> g.getMembers().size() < g.getMaxSize()) // Group not full
                 .collect(Collectors.toList());
             
             Collections.shuffle(availableGroups);
             int joined = 0;
             for (Group group : availableGroups) {
                 if (joined >= groupsToJoin) break;
-                if (group.getMembers().size() < group.getMaxSize()) {
-                    group.getMembers().add(bot);
-                    groupRepository.save(group);
+                // Takes a seat and the member row like a real join; skips full groups
+                if (groupService.addMemberIfSeatFree(group, bot.getId())) {
                     joined++;
                 }
             }
@@ -171,9 +181,9 @@ public class BotSeederService {
         
         // Find the real user (non-bot user) to send messages to
         User realUser = null;
-        // Try to find user by email first (your account)
+        // Try the configured account first
         try {
-            realUser = userRepository.findByEmail("daniel.underwood@mga.edu").orElse(null);
+            realUser = userRepository.findByEmail(messageRecipientEmail).orElse(null);
             if (realUser != null && realUser.getIsBot()) {
                 realUser = null; // Don't use if it's a bot
             }
@@ -280,9 +290,7 @@ public class BotSeederService {
     @Transactional
     public BotSeedResult createGroupsAndMessagesForExistingBots(int groupsToCreate) {
         // Get all existing bot users
-        List<User> bots = userRepository.findAll().stream()
-            .filter(User::getIsBot)
-            .collect(Collectors.toList());
+        List<User> bots = userRepository.findByIsBotTrue();
         
         if (bots.isEmpty()) {
             throw new RuntimeException("No bot users found. Please seed bots first using /api/admin/bots/seed");
@@ -339,17 +347,14 @@ public class BotSeederService {
             int groupsToJoin = 1 + random.nextInt(3); // Join 1-3 groups
             List<Group> availableGroups = createdGroups.stream()
                 .filter(g -> !g.getCreator().getId().equals(bot.getId()))
-                .filter(g -> !g.getMembers().contains(bot))
-                .filter(g -> g.getMembers().size() < g.getMaxSize())
                 .collect(Collectors.toList());
             
             Collections.shuffle(availableGroups);
             int joined = 0;
             for (Group group : availableGroups) {
                 if (joined >= groupsToJoin) break;
-                if (group.getMembers().size() < group.getMaxSize()) {
-                    group.getMembers().add(bot);
-                    groupRepository.save(group);
+                // Takes a seat and the member row like a real join; skips full groups
+                if (groupService.addMemberIfSeatFree(group, bot.getId())) {
                     joined++;
                 }
             }
@@ -358,7 +363,7 @@ public class BotSeederService {
         // Find the real user (non-bot user) to send messages to
         User realUser = null;
         try {
-            realUser = userRepository.findByEmail("daniel.underwood@mga.edu").orElse(null);
+            realUser = userRepository.findByEmail(messageRecipientEmail).orElse(null);
             if (realUser != null && realUser.getIsBot()) {
                 realUser = null;
             }
@@ -462,9 +467,7 @@ public class BotSeederService {
     @Transactional
     public BotSeedResult replaceBotGroups() {
         // Get all bot users
-        List<User> bots = userRepository.findAll().stream()
-            .filter(User::getIsBot)
-            .toList();
+        List<User> bots = userRepository.findByIsBotTrue();
         
         if (bots.isEmpty()) {
             throw new RuntimeException("No bot users found. Please seed bots first using /api/admin/bots/seed");
@@ -488,6 +491,10 @@ public class BotSeederService {
             existingGroups.addAll(botGroups);
         }
         groupRepository.deleteAll(existingGroups);
+        existingGroups.forEach(g -> {
+            groupSearchIndex.remove(g.getId());
+            membershipIndex.groupRemoved(g.getId());
+        });
         
         // Create new groups with CSCI courses
         List<Group> newGroups = new ArrayList<>();
@@ -569,7 +576,9 @@ public class BotSeederService {
             bot.getCourses().add(course.getCode());
         }
         
-        return userRepository.save(bot);
+        User savedBot = userRepository.save(bot);
+        userDirectoryIndex.index(savedBot);
+        return savedBot;
     }
     
     private Group createBotGroup(User creator, int groupIndex, Course course) {
@@ -578,20 +587,13 @@ public class BotSeederService {
         String groupName = course.getCode() + " - " + topic;
         String description = "A test study group for " + course.getName() + " (" + course.getCode() + "). This is a bot-created group for testing purposes.";
         
-        Group group = new Group();
-        group.setName(groupName);
-        group.setDescription(description);
-        group.setCourseName(course.getName());
-        group.setCourseCode(course.getCode());
-        group.setTopic(topic);
-        group.setMaxSize(5 + random.nextInt(6)); // Random between 5-10
-        group.setCreator(creator);
-        group.getMembers().add(creator);
-        group.setStatus(Group.GroupStatus.ACTIVE);
-        group.setVisibility(Group.GroupVisibility.PUBLIC);
-        group.setRequiresInvite(random.nextBoolean()); // Random privacy setting
-        
-        return groupRepository.save(group);
+        // Created like a user's group, so the creator's membership is indexed the same way
+        return groupService.createGroup(creator.getId(), groupName, description,
+                course.getName(), course.getCode(), topic,
+                5 + random.nextInt(6), // Random between 5-10
+                Group.GroupVisibility.PUBLIC,
+                random.nextBoolean(), // Random privacy setting
+                null);
     }
     
     /**
@@ -603,9 +605,7 @@ public class BotSeederService {
         List<User> createdBots = new ArrayList<>();
         
         // Get existing bot count to generate unique usernames/emails
-        long existingBotCount = userRepository.findAll().stream()
-            .filter(User::getIsBot)
-            .count();
+        long existingBotCount = userRepository.countByIsBotTrue();
         
         // Ensure courses are initialized
         if (courseRepository.count() == 0) {
@@ -659,9 +659,7 @@ public class BotSeederService {
         List<Group> createdGroups = new ArrayList<>();
         
         // Get all existing bots
-        List<User> existingBots = userRepository.findAll().stream()
-            .filter(User::getIsBot)
-            .collect(Collectors.toList());
+        List<User> existingBots = userRepository.findByIsBotTrue();
         
         if (existingBots.isEmpty()) {
             throw new RuntimeException("No bot users found. Please seed bots first using /api/admin/bots/seed or /api/admin/bots/add-more");
@@ -718,20 +716,13 @@ public class BotSeederService {
         String groupName = course.getCode() + " - " + topic;
         String description = "A study group for " + course.getName() + " (" + course.getCode() + ").";
         
-        Group group = new Group();
-        group.setName(groupName);
-        group.setDescription(description);
-        group.setCourseName(course.getName());
-        group.setCourseCode(course.getCode());
-        group.setTopic(topic);
-        group.setMaxSize(5 + random.nextInt(6)); // Random between 5-10
-        group.setCreator(creator);
-        group.getMembers().add(creator);
-        group.setStatus(Group.GroupStatus.ACTIVE);
-        group.setVisibility(Group.GroupVisibility.PUBLIC); // Always PUBLIC
-        group.setRequiresInvite(false); // Always open join
-        
-        return groupRepository.save(group);
+        // Created like a user's group, so the creator's membership is indexed the same way
+        return groupService.createGroup(creator.getId(), groupName, description,
+                course.getName(), course.getCode(), topic,
+                5 + random.nextInt(6), // Random between 5-10
+                Group.GroupVisibility.PUBLIC, // Always PUBLIC
+                false, // Always open join
+                null);
     }
     
     public static class BotSeedResult {
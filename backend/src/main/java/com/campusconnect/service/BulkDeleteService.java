@@ -0,0 +1,329 @@
+package com.campusconnect.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import com.campusconnect.repository.ConversationSummaryRepository;
+import com.campusconnect.util.GroupReadCursorSchema;
+import com.campusconnect.util.MemberCountSchema;
+
+/**
+ * Admin bulk deletion of all groups, or of all bots and the groups they created, as
+ * background jobs.
+ *
+ * Rows are deleted with set-based DELETE ... WHERE ... IN statements, one chunk of
+ * group or user ids at a time, and every chunk commits in its own short transaction.
+ * A job never holds more than one chunk of ids in memory, and it keeps no lock for
+ * longer than one chunk takes. Dependent rows (invitations, join requests, members,
+ * messages, posts, meetings, ...) are deleted before their group or user. The
+ * in-memory indexes and caches are updated as each chunk commits.
+ *
+ * Jobs run one after another on a single background thread. The most recent jobs and
+ * their progress can be read back by id.
+ */
+@Service
+public class BulkDeleteService {
+    private static final int MAX_JOBS_KEPT = 20;
+
+    public enum JobType {
+        ALL_GROUPS, BOTS
+    }
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GroupSearchIndex groupSearchIndex;
+
+    @Autowired
+    private GroupMembershipIndex membershipIndex;
+
+    @Autowired
+    private UserDirectoryIndex userDirectoryIndex;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    private MemberCountSchema memberCountSchema;
+
+    @Autowired
+    private GroupReadCursorSchema groupReadCursorSchema;
+
+    @Autowired
+    private GroupReadCursorService readCursorService;
+
+    @Autowired
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @Value("${bulk-delete.chunk-size:500}")
+    private int chunkSize;
+
+    private ExecutorService executor;
+
+    private final Map<String, Job> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+            return size() > MAX_JOBS_KEPT;
+        }
+    });
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bulk-delete");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue deletion of every group. Returns the job's progress snapshot.
+     */
+    public Map<String, Object> deleteAllGroups() {
+        return submit(JobType.ALL_GROUPS);
+    }
+
+    /**
+     * Queue deletion of every bot user and every group a bot created
+     */
+    public Map<String, Object> deleteAllBots() {
+        return submit(JobType.BOTS);
+    }
+
+    public Map<String, Object> getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Bulk delete job not found: " + jobId);
+        }
+        return job.toMap();
+    }
+
+    public List<Map<String, Object>> getJobs() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        synchronized (jobs) {
+            jobs.values().forEach(job -> result.add(job.toMap()));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private Map<String, Object> submit(JobType type) {
+        Job job = new Job(UUID.randomUUID().toString(), type);
+        jobs.put(job.id, job);
+        executor.submit(() -> run(job));
+        return job.toMap();
+    }
+
+    private void run(Job job) {
+        job.status = JobStatus.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        try {
+            if (job.type == JobType.ALL_GROUPS) {
+                job.totalGroups = count("SELECT COUNT(*) FROM groups");
+                deleteGroupsMatching(job, "SELECT g.id FROM groups g WHERE g.id > :after ORDER BY g.id");
+            } else {
+                job.totalGroups = count("SELECT COUNT(*) FROM groups g JOIN users u ON u.id = g.creator_id " +
+                        "WHERE u.is_bot = true");
+                job.totalUsers = count("SELECT COUNT(*) FROM users WHERE is_bot = true");
+                deleteGroupsMatching(job, "SELECT g.id FROM groups g JOIN users u ON u.id = g.creator_id " +
+                        "WHERE u.is_bot = true AND g.id > :after ORDER BY g.id");
+                deleteBotUsers(job);
+            }
+            job.status = JobStatus.COMPLETED;
+        } catch (RuntimeException e) {
+            job.status = JobStatus.FAILED;
+            job.error = e.getMessage();
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private void deleteGroupsMatching(Job job, String idQuery) {
+        job.phase = "groups";
+        long after = 0;
+        List<Long> ids;
+        while (!(ids = nextChunk(idQuery, after)).isEmpty()) {
+            List<Long> chunk = ids;
+            transactionTemplate.executeWithoutResult(status -> deleteGroupChunk(chunk));
+            after = chunk.get(chunk.size() - 1);
+            job.groupsDeleted += chunk.size();
+            job.chunks++;
+        }
+    }
+
+    private void deleteBotUsers(Job job) {
+        job.phase = "users";
+        long after = 0;
+        List<Long> ids;
+        while (!(ids = nextChunk("SELECT u.id FROM users u WHERE u.is_bot = true AND u.id > :after ORDER BY u.id",
+                after)).isEmpty()) {
+            List<Long> chunk = ids;
+            transactionTemplate.executeWithoutResult(status -> deleteUserChunk(chunk));
+            after = chunk.get(chunk.size() - 1);
+            job.usersDeleted += chunk.size();
+            job.chunks++;
+        }
+    }
+
+    private void deleteGroupChunk(List<Long> groupIds) {
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", groupIds);
+        List<Long> postIds = jdbcTemplate.queryForList("SELECT id FROM posts WHERE group_id IN (:ids)", ids, Long.class);
+
+        jdbcTemplate.update("DELETE FROM group_invitations WHERE group_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM group_join_requests WHERE group_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM conversation_summary WHERE group_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM group_read_cursors WHERE group_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM group_members WHERE group_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM user_groups WHERE group_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM messages WHERE group_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM meetings WHERE group_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM resources WHERE group_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM posts WHERE group_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM group_recommendations WHERE group_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM groups WHERE id IN (:ids)", ids);
+
+        for (Long groupId : groupIds) {
+            groupSearchIndex.remove(groupId);
+            membershipIndex.groupRemoved(groupId);
+            recommendationCache.invalidateGroup(groupId);
+        }
+        postIds.forEach(postSearchIndex::remove);
+    }
+
+    private void deleteUserChunk(List<Long> userIds) {
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", userIds);
+        List<Map<String, Object>> memberships = jdbcTemplate.queryForList(
+                "SELECT group_id, user_id FROM group_members WHERE user_id IN (:ids)", ids);
+        List<Long> postIds = jdbcTemplate.queryForList("SELECT id FROM posts WHERE author_id IN (:ids)", ids, Long.class);
+        List<Long> messagedGroups = jdbcTemplate.queryForList(
+                "SELECT DISTINCT group_id FROM messages WHERE sender_id IN (:ids) AND group_id IS NOT NULL",
+                ids, Long.class);
+
+        jdbcTemplate.update("DELETE FROM group_invitations WHERE invited_user_id IN (:ids) OR inviter_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM group_join_requests WHERE user_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM conversation_summary WHERE user_id IN (:ids) OR peer_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM group_read_cursors WHERE user_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM group_members WHERE user_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM user_groups WHERE user_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM messages WHERE sender_id IN (:ids) OR recipient_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM meetings WHERE organizer_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM resources WHERE uploader_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM posts WHERE author_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM search_history WHERE user_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM search_interests WHERE user_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM group_recommendations WHERE user_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM recommendation_state WHERE user_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM user_interests WHERE user_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM user_skills WHERE user_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM user_courses WHERE user_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (:ids)", ids);
+
+        // Bots were members of groups that remain; give their seats back
+        Set<Long> affectedGroups = new HashSet<>();
+        for (Map<String, Object> membership : memberships) {
+            Long groupId = ((Number) membership.get("group_id")).longValue();
+            Long userId = ((Number) membership.get("user_id")).longValue();
+            affectedGroups.add(groupId);
+            membershipIndex.memberRemoved(groupId, userId);
+        }
+        memberCountSchema.recount(affectedGroups);
+        // Their messages left gaps in the numbering that unread counts are based on
+        groupReadCursorSchema.renumber(messagedGroups);
+        readCursorService.groupsRenumbered(messagedGroups);
+        // and may have been those groups' last messages
+        conversationSummaryRepository.refreshGroupLastMessages(messagedGroups);
+
+        userDirectoryIndex.removeAll(userIds);
+        userIds.forEach(recommendationCache::invalidateUser);
+        postIds.forEach(postSearchIndex::remove);
+    }
+
+    private List<Long> nextChunk(String idQuery, long after) {
+        MapSqlParameterSource params = new MapSqlParameterSource("after", after).addValue("limit", chunkSize);
+        return jdbcTemplate.queryForList(idQuery + " LIMIT :limit", params, Long.class);
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, new MapSqlParameterSource(), Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Progress of one job; written by the job thread, read by status requests
+     */
+    private static final class Job {
+        private final String id;
+        private final JobType type;
+        private final LocalDateTime queuedAt = LocalDateTime.now();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile String phase;
+        private volatile long totalGroups;
+        private volatile long totalUsers;
+        private volatile long groupsDeleted;
+        private volatile long usersDeleted;
+        private volatile int chunks;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(String id, JobType type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("jobId", id);
+            map.put("type", type);
+            map.put("status", status);
+            map.put("phase", phase);
+            map.put("totalGroups", totalGroups);
+            map.put("totalUsers", totalUsers);
+            map.put("groupsDeleted", groupsDeleted);
+            map.put("usersDeleted", usersDeleted);
+            map.put("chunks", chunks);
+            map.put("queuedAt", queuedAt);
+            map.put("startedAt", startedAt);
+            map.put("finishedAt", finishedAt);
+            map.put("error", error);
+            return map;
+        }
+    }
+}
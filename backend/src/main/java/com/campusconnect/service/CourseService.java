@@ -8,12 +8,16 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.campusconnect.model.Course;
 import com.campusconnect.repository.CourseRepository;
+import com.campusconnect.util.TransactionCallbacks;
 
 @Service
 public class CourseService {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private TypeaheadIndex typeaheadIndex;
+
     public List<Course> getAllCourses() {
         return courseRepository.findByActiveTrue();
     }
@@ -264,6 +268,8 @@ public class CourseService {
         createCourse("MATH 4901", "Operations Research I", "MATH");
         createCourse("MATH 4902", "Operations Research II", "MATH");
         createCourse("MATH 4905", "Optimization", "MATH");
+
+        TransactionCallbacks.afterCommit(typeaheadIndex::reloadCourses);
     }
 
     private void createCourse(String code, String name, String department) {
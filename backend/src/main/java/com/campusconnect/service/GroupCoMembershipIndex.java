@@ -0,0 +1,139 @@
+package com.campusconnect.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Service;
+
+import com.campusconnect.util.CompactBitmap;
+import com.campusconnect.util.LongIntHashMap;
+
+/**
+ * Sparse group x group co-membership counts for collaborative filtering.
+ *
+ * For every pair of groups that share at least one member we keep the number of
+ * shared members, so "groups that people in my groups are also in" becomes a
+ * lookup of a few rows instead of a multi-join query, and each candidate comes
+ * with how strongly it overlaps with the user's groups.
+ *
+ * Holds only the counts: who is in which group lives in GroupMembershipIndex, which
+ * calls in here under its write lock with the user's groups each time it applies a
+ * membership change, and rebuilds the counts from its bitmaps after its own rebuild.
+ */
+@Service
+public class GroupCoMembershipIndex {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // group id -> (other group id -> number of shared members)
+    private final Map<Long, LongIntHashMap> sharedMembers = new HashMap<>();
+
+    /**
+     * Recount every pair from the groups of each user
+     */
+    void rebuild(Collection<CompactBitmap> groupsByUser) {
+        lock.writeLock().lock();
+        try {
+            sharedMembers.clear();
+            for (CompactBitmap userGroups : groupsByUser) {
+                long[] groupIds = userGroups.toArray();
+                for (int i = 0; i < groupIds.length; i++) {
+                    for (int j = i + 1; j < groupIds.length; j++) {
+                        increment(groupIds[i], groupIds[j], 1);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A user joined groupId; userGroups are all of the user's groups, including groupId
+     */
+    void memberAdded(long groupId, CompactBitmap userGroups) {
+        lock.writeLock().lock();
+        try {
+            userGroups.forEach(otherGroupId -> {
+                if (otherGroupId != groupId) {
+                    increment(groupId, otherGroupId, 1);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A user left groupId; userGroups are the groups the user is still in, or null if none
+     */
+    void memberRemoved(long groupId, CompactBitmap userGroups) {
+        if (userGroups == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            userGroups.forEach(otherGroupId -> increment(groupId, otherGroupId, -1));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop a deleted group's row and its column in every row it overlapped with
+     */
+    void groupRemoved(long groupId) {
+        lock.writeLock().lock();
+        try {
+            LongIntHashMap row = sharedMembers.remove(groupId);
+            if (row != null) {
+                row.forEach((otherGroupId, count) -> add(otherGroupId, groupId, -count));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            sharedMembers.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Groups that share members with any of the given groups, mapped to the total number
+     * of shared memberships. The given groups themselves are not included.
+     */
+    public Map<Long, Integer> findOverlaps(Collection<Long> groupIds) {
+        Map<Long, Integer> overlaps = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Long groupId : groupIds) {
+                LongIntHashMap row = sharedMembers.get(groupId);
+                if (row != null) {
+                    row.forEach((otherGroupId, count) -> overlaps.merge(otherGroupId, count, Integer::sum));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        groupIds.forEach(overlaps::remove);
+        return overlaps;
+    }
+
+    private void increment(long groupId, long otherGroupId, int delta) {
+        add(groupId, otherGroupId, delta);
+        add(otherGroupId, groupId, delta);
+    }
+
+    private void add(long groupId, long otherGroupId, int delta) {
+        LongIntHashMap row = sharedMembers.computeIfAbsent(groupId, id -> new LongIntHashMap());
+        row.addTo(otherGroupId, delta);
+        if (row.isEmpty()) {
+            sharedMembers.remove(groupId);
+        }
+    }
+}
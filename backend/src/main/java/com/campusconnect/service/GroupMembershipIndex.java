@@ -0,0 +1,283 @@
+package com.campusconnect.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.campusconnect.dto.MembershipChange;
+import com.campusconnect.repository.GroupRepository;
+import com.campusconnect.util.CompactBitmap;
+import com.campusconnect.util.TransactionCallbacks;
+
+/**
+ * Who is in which group, as one compressed bitmap of user ids per group and one
+ * bitmap of group ids per user.
+ *
+ * Member counts, fan-out and recommendation filters are answered here instead of
+ * through group.getMembers(), which loads every member row and hashes whole User
+ * entities (Lombok @Data) just to test one id. Permission checks (join, leave, invite,
+ * post) go to group_members instead: this index may lag behind other instances.
+ *
+ * Built at startup from group_members. Every membership change goes through
+ * memberAdded/memberRemoved/groupRemoved/clear, which apply it after commit and publish
+ * it as a MembershipChange; PushService relays it to the other instances, which apply it
+ * when it arrives. Changes applied while a rebuild is reading group_members are logged
+ * and replayed onto the rebuilt bitmaps, so none is lost to the rebuild.
+ *
+ * GroupCoMembershipIndex keeps no membership of its own: each applied change is passed
+ * on to it with the user's groups, under this index's write lock.
+ */
+@Service
+public class GroupMembershipIndex {
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private GroupCoMembershipIndex coMembershipIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, CompactBitmap> membersByGroup = new HashMap<>();
+    private final Map<Long, CompactBitmap> groupsByUser = new HashMap<>();
+    // Changes applied during a rebuild, in order; null when no rebuild is running
+    private List<MembershipChange> changesDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            List<Object[]> pairs = groupRepository.findAllMembershipPairs();
+
+            lock.writeLock().lock();
+            try {
+                membersByGroup.clear();
+                groupsByUser.clear();
+                for (Object[] pair : pairs) {
+                    add((Long) pair[0], (Long) pair[1]);
+                }
+                // Each change is idempotent, so replaying one the query already saw is harmless
+                for (MembershipChange change : changesDuringRebuild) {
+                    applyLocked(change);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // Co-membership counts are not kept up while rebuilding, so recount them
+                // from the bitmaps, which also hold every change applied meanwhile
+                coMembershipIndex.rebuild(groupsByUser.values());
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Rebuild this index, and with it GroupCoMembershipIndex, here and on every other instance,
+     * after bulk writes to group_members that bypassed memberAdded
+     */
+    public void rebuildAll() {
+        rebuild();
+        eventPublisher.publishEvent(new MembershipChange(MembershipChange.Kind.REBUILT, null, null, null));
+    }
+
+    /**
+     * Record that a user joined a group, once the current transaction commits
+     */
+    public void memberAdded(Long groupId, Long userId) {
+        publish(new MembershipChange(MembershipChange.Kind.ADDED, groupId, userId, null));
+    }
+
+    /**
+     * Record that a user left or was removed from a group, once the current transaction commits
+     */
+    public void memberRemoved(Long groupId, Long userId) {
+        publish(new MembershipChange(MembershipChange.Kind.REMOVED, groupId, userId, null));
+    }
+
+    /**
+     * Drop a deleted group and all of its memberships, once the current transaction commits
+     */
+    public void groupRemoved(Long groupId) {
+        publish(new MembershipChange(MembershipChange.Kind.GROUP_REMOVED, groupId, null, null));
+    }
+
+    public void clear() {
+        publish(new MembershipChange(MembershipChange.Kind.CLEARED, null, null, null));
+    }
+
+    /**
+     * Apply a change made on another instance; it has already committed there
+     */
+    @EventListener
+    public void onRelayedChange(MembershipChange change) {
+        if (change.getOrigin() == null) {
+            return;
+        }
+        if (change.getKind() == MembershipChange.Kind.REBUILT) {
+            rebuild();
+        } else {
+            apply(change);
+        }
+    }
+
+    public boolean isMember(Long groupId, Long userId) {
+        lock.readLock().lock();
+        try {
+            CompactBitmap members = membersByGroup.get(groupId);
+            return members != null && members.contains(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int memberCount(Long groupId) {
+        lock.readLock().lock();
+        try {
+            CompactBitmap members = membersByGroup.get(groupId);
+            return members != null ? (int) members.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Member ids of a group, ascending
+     */
+    public long[] memberIds(Long groupId) {
+        lock.readLock().lock();
+        try {
+            CompactBitmap members = membersByGroup.get(groupId);
+            return members != null ? members.toArray() : new long[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the groups a user belongs to, ascending
+     */
+    public long[] groupIds(Long userId) {
+        lock.readLock().lock();
+        try {
+            CompactBitmap groups = groupsByUser.get(userId);
+            return groups != null ? groups.toArray() : new long[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            long memberships = 0;
+            long bytes = 0;
+            for (CompactBitmap members : membersByGroup.values()) {
+                memberships += members.size();
+                bytes += members.sizeInBytes();
+            }
+            for (CompactBitmap groups : groupsByUser.values()) {
+                bytes += groups.sizeInBytes();
+            }
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("groups", membersByGroup.size());
+            stats.put("users", groupsByUser.size());
+            stats.put("memberships", memberships);
+            stats.put("bitmapBytes", bytes);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply locally after commit, and publish for the relay inside the transaction
+     */
+    private void publish(MembershipChange change) {
+        TransactionCallbacks.afterCommit(() -> apply(change));
+        eventPublisher.publishEvent(change);
+    }
+
+    private void apply(MembershipChange change) {
+        lock.writeLock().lock();
+        try {
+            applyLocked(change);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(MembershipChange change) {
+        switch (change.getKind()) {
+            case ADDED -> add(change.getGroupId(), change.getUserId());
+            case REMOVED -> remove(change.getGroupId(), change.getUserId());
+            case GROUP_REMOVED -> {
+                CompactBitmap members = membersByGroup.remove(change.getGroupId());
+                if (members != null) {
+                    members.forEach(userId -> {
+                        CompactBitmap userGroups = groupsByUser.get(userId);
+                        if (userGroups != null && userGroups.remove(change.getGroupId()) && userGroups.isEmpty()) {
+                            groupsByUser.remove(userId);
+                        }
+                    });
+                }
+                coMembershipIndex.groupRemoved(change.getGroupId());
+            }
+            case CLEARED -> {
+                membersByGroup.clear();
+                groupsByUser.clear();
+                coMembershipIndex.clear();
+            }
+            case REBUILT -> {
+            }
+        }
+    }
+
+    private void add(Long groupId, Long userId) {
+        membersByGroup.computeIfAbsent(groupId, id -> new CompactBitmap()).add(userId);
+        CompactBitmap userGroups = groupsByUser.computeIfAbsent(userId, id -> new CompactBitmap());
+        if (userGroups.add(groupId) && changesDuringRebuild == null) {
+            coMembershipIndex.memberAdded(groupId, userGroups);
+        }
+    }
+
+    private void remove(Long groupId, Long userId) {
+        CompactBitmap members = membersByGroup.get(groupId);
+        if (members != null && members.remove(userId) && members.isEmpty()) {
+            membersByGroup.remove(groupId);
+        }
+        CompactBitmap userGroups = groupsByUser.get(userId);
+        if (userGroups != null && userGroups.remove(groupId)) {
+            if (userGroups.isEmpty()) {
+                groupsByUser.remove(userId);
+                userGroups = null;
+            }
+            if (changesDuringRebuild == null) {
+                coMembershipIndex.memberRemoved(groupId, userGroups);
+            }
+        }
+    }
+}
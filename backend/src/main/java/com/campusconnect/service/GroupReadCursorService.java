@@ -0,0 +1,120 @@
+package com.campusconnect.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.campusconnect.repository.GroupReadCursorRepository;
+import com.campusconnect.repository.GroupRepository;
+import com.campusconnect.repository.GroupReadCursorRepository.ReadPosition;
+import com.campusconnect.repository.GroupReadCursorRepository.ReadState;
+import com.campusconnect.util.TransactionCallbacks;
+
+/**
+ * Per-member read cursors for group chats, and the unread counts derived from them.
+ *
+ * markRead() only records the position in memory, keeping the furthest one per member
+ * and group. A scheduled flush writes every pending position in one batch, so reading
+ * through a busy group costs one write per flush rather than one per message. Unread
+ * counts are groups.message_seq minus the cursor, with pending positions applied, and
+ * never touch the messages table.
+ */
+@Service
+public class GroupReadCursorService {
+    @Autowired
+    private GroupReadCursorRepository readCursorRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    private final Map<CursorKey, ReadPosition> pending = new ConcurrentHashMap<>();
+
+    private record CursorKey(Long userId, Long groupId) {
+    }
+
+    /**
+     * Mark the group read up to the message, or up to its newest message if messageId is null
+     */
+    public void markRead(Long userId, Long groupId, Long messageId) {
+        if (!groupRepository.isMember(groupId, userId)) {
+            throw new RuntimeException("User is not a member of this group");
+        }
+        ReadPosition position;
+        if (messageId == null) {
+            position = readCursorRepository.findLatest(userId, groupId);
+        } else {
+            Long seq = readCursorRepository.findGroupSeq(groupId, messageId);
+            if (seq == null) {
+                throw new RuntimeException("Message not found in this group");
+            }
+            position = new ReadPosition(userId, groupId, seq, messageId);
+        }
+        pending.merge(new CursorKey(userId, groupId), position,
+                (current, next) -> next.seq() > current.seq() ? next : current);
+    }
+
+    /**
+     * Move the sender's cursor past their own message, in the sending transaction
+     */
+    public void markSent(Long userId, Long groupId, Long messageId, long seq) {
+        readCursorRepository.advance(List.of(new ReadPosition(userId, groupId, seq, messageId)));
+    }
+
+    /**
+     * Unread message count in each of the user's groups, by group id
+     */
+    public Map<Long, Long> getUnreadCounts(Long userId) {
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        for (ReadState state : readCursorRepository.findReadStates(userId)) {
+            ReadPosition position = pending.get(new CursorKey(userId, state.groupId()));
+            long lastRead = position != null ? Math.max(position.seq(), state.lastReadSeq()) : state.lastReadSeq();
+            counts.put(state.groupId(), Math.max(0, state.messageSeq() - lastRead));
+        }
+        return counts;
+    }
+
+    public void memberAdded(Long groupId, Long userId) {
+        readCursorRepository.createForMember(groupId, userId);
+    }
+
+    public void memberRemoved(Long groupId, Long userId) {
+        pending.remove(new CursorKey(userId, groupId));
+        readCursorRepository.deleteMembership(userId, groupId);
+    }
+
+    public void groupRemoved(Long groupId) {
+        pending.keySet().removeIf(key -> key.groupId().equals(groupId));
+        readCursorRepository.deleteByGroupId(groupId);
+    }
+
+    /**
+     * Forget pending positions in groups whose messages were renumbered, once the renumber
+     * commits; they hold the old numbers
+     */
+    public void groupsRenumbered(Collection<Long> groupIds) {
+        Set<Long> ids = Set.copyOf(groupIds);
+        TransactionCallbacks.afterCommit(() -> pending.keySet().removeIf(key -> ids.contains(key.groupId())));
+    }
+
+    /**
+     * Write pending read positions. Each is removed once the write commits, unless a
+     * further position replaced it meanwhile; after a failure all of them are retried.
+     */
+    @Scheduled(fixedDelayString = "${messages.read-cursors.flush-interval-ms:2000}")
+    @Transactional
+    public int flush() {
+        Map<CursorKey, ReadPosition> batch = new HashMap<>(pending);
+        readCursorRepository.advance(batch.values());
+        TransactionCallbacks.afterCommit(() -> batch.forEach(pending::remove));
+        return batch.size();
+    }
+}
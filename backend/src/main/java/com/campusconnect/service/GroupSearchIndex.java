@@ -0,0 +1,319 @@
+package com.campusconnect.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.campusconnect.model.Group;
+import com.campusconnect.repository.GroupRepository;
+import com.campusconnect.util.TransactionCallbacks;
+
+/**
+ * In-memory inverted index over group name, course name, course code and topic.
+ *
+ * Every field value is lower-cased and broken into all n-grams of length 1 to 3.
+ * A keyword of up to 3 characters is answered by a single posting list; longer
+ * keywords intersect the posting lists of their trigrams and verify the survivors
+ * with contains(), so the result is the same as LOWER(field) LIKE '%keyword%'.
+ *
+ * The index is built once at startup and then kept current by GroupService
+ * (and the bot seeding utilities) after each committed change. Public group
+ * names are passed on to TypeaheadIndex as they change.
+ */
+@Service
+public class GroupSearchIndex {
+    private static final int MAX_GRAM = 3;
+
+    public enum Field {
+        NAME, COURSE_NAME, COURSE_CODE, TOPIC
+    }
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private TypeaheadIndex typeaheadIndex;
+
+    @Autowired
+    private GroupMembershipIndex membershipIndex;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Field, Map<String, Set<Long>>> postings = new EnumMap<>(Field.class);
+
+    public GroupSearchIndex() {
+        for (Field field : Field.values()) {
+            postings.put(field, new HashMap<>());
+        }
+    }
+
+    /**
+     * Load every group and its member count from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Long, Integer> memberCounts = new HashMap<>();
+        for (Object[] pair : groupRepository.findAllMembershipPairs()) {
+            memberCounts.merge((Long) pair[0], 1, Integer::sum);
+        }
+
+        List<Entry> loaded = new ArrayList<>();
+        for (Group group : groupRepository.findAll()) {
+            loaded.add(new Entry(group));
+        }
+
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            postings.values().forEach(Map::clear);
+            typeaheadIndex.clearGroups();
+            loaded.forEach(entry -> put(entry, memberCounts.getOrDefault(entry.id, 0)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * (Re)index a group once the current transaction commits.
+     * The snapshot is taken now, while the creator is still attached; membership
+     * comes from GroupMembershipIndex, so the members collection is never loaded.
+     */
+    public void index(Group group) {
+        Entry entry = new Entry(group);
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                // put replaces the typeahead suggestion, so a member count change stays a count change
+                dropPostings(entry.id);
+                put(entry, membershipIndex.memberCount(entry.id));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Remove a group once the current transaction commits
+     */
+    public void remove(Long groupId) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                drop(groupId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Remove every group once the current transaction commits
+     */
+    public void clear() {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                entries.clear();
+                postings.values().forEach(Map::clear);
+                typeaheadIndex.clearGroups();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Ids of public, active groups the user neither created nor joined whose field
+     * contains any of the keywords (case-insensitive). Mirrors findRecommendedBy*.
+     */
+    public Set<Long> findRecommendationCandidates(Long userId, Field field, Collection<String> keywords) {
+        Set<Long> result = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (String keyword : keywords) {
+                if (keyword == null) {
+                    continue;
+                }
+                for (Long groupId : match(field, keyword.toLowerCase())) {
+                    Entry entry = entries.get(groupId);
+                    if (entry != null && isRecommendableTo(entry, userId)) {
+                        result.add(groupId);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Whether a group is public, active and neither created nor joined by the user
+     */
+    public boolean isRecommendable(Long groupId, Long userId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(groupId);
+            return entry != null && isRecommendableTo(entry, userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> match(Field field, String keyword) {
+        Map<String, Set<Long>> fieldPostings = postings.get(field);
+        if (keyword.isEmpty()) {
+            // LIKE '%%' matches every non-null value
+            List<Long> all = new ArrayList<>();
+            entries.values().forEach(e -> {
+                if (e.fields[field.ordinal()] != null) {
+                    all.add(e.id);
+                }
+            });
+            return all;
+        }
+        if (keyword.length() <= MAX_GRAM) {
+            return fieldPostings.getOrDefault(keyword, Collections.emptySet());
+        }
+
+        // Intersect trigram postings, starting from the rarest one
+        List<Set<Long>> lists = new ArrayList<>();
+        for (int i = 0; i + MAX_GRAM <= keyword.length(); i++) {
+            Set<Long> posting = fieldPostings.get(keyword.substring(i, i + MAX_GRAM));
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            lists.add(posting);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        List<Long> matches = new ArrayList<>();
+        outer:
+        for (Long groupId : lists.get(0)) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(groupId)) {
+                    continue outer;
+                }
+            }
+            String value = entries.get(groupId).fields[field.ordinal()];
+            if (value != null && value.contains(keyword)) {
+                matches.add(groupId);
+            }
+        }
+        return matches;
+    }
+
+    private void put(Entry entry, int memberCount) {
+        entries.put(entry.id, entry);
+        typeaheadIndex.putGroup(entry.id, entry.activeAndPublic ? entry.name : null, memberCount);
+        for (Field field : Field.values()) {
+            String value = entry.fields[field.ordinal()];
+            if (value == null) {
+                continue;
+            }
+            Map<String, Set<Long>> fieldPostings = postings.get(field);
+            for (String gram : grams(value)) {
+                fieldPostings.computeIfAbsent(gram, g -> new HashSet<>()).add(entry.id);
+            }
+        }
+    }
+
+    private void drop(Long groupId) {
+        if (dropPostings(groupId)) {
+            typeaheadIndex.removeGroup(groupId);
+        }
+    }
+
+    /**
+     * Remove the entry and its postings, leaving the typeahead suggestion; false if absent
+     */
+    private boolean dropPostings(Long groupId) {
+        Entry existing = entries.remove(groupId);
+        if (existing == null) {
+            return false;
+        }
+        for (Field field : Field.values()) {
+            String value = existing.fields[field.ordinal()];
+            if (value == null) {
+                continue;
+            }
+            Map<String, Set<Long>> fieldPostings = postings.get(field);
+            for (String gram : grams(value)) {
+                Set<Long> posting = fieldPostings.get(gram);
+                if (posting != null) {
+                    posting.remove(groupId);
+                    if (posting.isEmpty()) {
+                        fieldPostings.remove(gram);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isRecommendableTo(Entry entry, Long userId) {
+        return entry.activeAndPublic
+                && !userId.equals(entry.creatorId)
+                && !membershipIndex.isMember(entry.id, userId);
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int n = 1; n <= MAX_GRAM; n++) {
+            for (int i = 0; i + n <= value.length(); i++) {
+                grams.add(value.substring(i, i + n));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Immutable snapshot of the group attributes the recommendation queries look at
+     */
+    private static final class Entry {
+        private final Long id;
+        private final String name; // as entered, for typeahead
+        private final String[] fields = new String[Field.values().length];
+        private final boolean activeAndPublic;
+        private final Long creatorId;
+
+        private Entry(Group group) {
+            this.id = group.getId();
+            this.name = group.getName();
+            this.fields[Field.NAME.ordinal()] = lower(group.getName());
+            this.fields[Field.COURSE_NAME.ordinal()] = lower(group.getCourseName());
+            this.fields[Field.COURSE_CODE.ordinal()] = lower(group.getCourseCode());
+            this.fields[Field.TOPIC.ordinal()] = lower(group.getTopic());
+            this.activeAndPublic = group.getStatus() == Group.GroupStatus.ACTIVE
+                    && group.getVisibility() == Group.GroupVisibility.PUBLIC;
+            this.creatorId = group.getCreator() != null ? group.getCreator().getId() : null;
+        }
+
+        private static String lower(String value) {
+            return value != null ? value.toLowerCase() : null;
+        }
+    }
+}
@@ -1,32 +1,61 @@
 package com.campusconnect.service;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.campusconnect.dto.GroupDTO;
+import com.campusconnect.dto.GroupRecommendationCandidate;
+import com.campusconnect.dto.SearchEvent;
 import com.campusconnect.model.Group;
 import com.campusconnect.model.GroupInvitation;
 import com.campusconnect.model.GroupJoinRequest;
+import com.campusconnect.model.GroupRecommendation;
 import com.campusconnect.model.SearchHistory;
 import com.campusconnect.model.User;
+import com.campusconnect.repository.ConversationSummaryRepository;
+import com.campusconnect.repository.GroupDTORepository;
 import com.campusconnect.repository.GroupInvitationRepository;
 import com.campusconnect.repository.GroupJoinRequestRepository;
 import com.campusconnect.repository.GroupRepository;
-import com.campusconnect.repository.SearchHistoryRepository;
 import com.campusconnect.repository.UserRepository;
+import com.campusconnect.util.DatabasePlatform;
+import com.campusconnect.util.FullTextSearchSchema;
+import com.campusconnect.util.KeysetCursor;
 
 @Service
 public class GroupService {
+    public enum InviteOutcome {
+        INVITED, ALREADY_MEMBER, ALREADY_INVITED, NOT_FOUND
+    }
+
     @Autowired
     private GroupRepository groupRepository;
 
@@ -40,7 +69,60 @@ public class GroupService {
     private GroupInvitationRepository invitationRepository;
 
     @Autowired
-    private SearchHistoryRepository searchHistoryRepository;
+    private SearchInterestService searchInterestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GroupDTORepository groupDTORepository;
+
+    @Autowired
+    private FullTextSearchSchema fullTextSearchSchema;
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    private static final int MAX_EDIT_ATTEMPTS = 3;
+
+    // Invitees handled per IN query and JDBC batch
+    private static final int INVITE_BATCH_SIZE = 500;
+
+    @Autowired
+    private GroupSearchIndex groupSearchIndex;
+
+    @Autowired
+    private GroupMembershipIndex membershipIndex;
+
+    @Autowired
+    private GroupCoMembershipIndex coMembershipIndex;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    private RecommendationStore recommendationStore;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @Autowired
+    private GroupReadCursorService readCursorService;
+
+    /**
+     * Where recommendation candidates come from: "index" (in-memory GroupSearchIndex)
+     * or "query" (one batched SQL query per request)
+     */
+    @Value("${recommendations.candidate-source:index}")
+    private String candidateSource;
 
     @Transactional
     public Group createGroup(Long creatorId, String name, String description, 
@@ -58,10 +140,12 @@ public class GroupService {
         group.setMaxSize(maxSize != null ? maxSize : 10);
         group.setCreator(creator);
         group.getMembers().add(creator);
+        group.setMemberCount(1);
         group.setVisibility(visibility != null ? visibility : Group.GroupVisibility.PUBLIC);
         group.setRequiresInvite(requiresInvite != null ? requiresInvite : false);
 
         Group savedGroup = groupRepository.save(group);
+        onMemberAdded(savedGroup, creatorId);
 
         // Send invitations to invited users
         if (invitedUserIds != null && !invitedUserIds.isEmpty()) {
@@ -72,45 +156,55 @@ public class GroupService {
     }
 
     /**
-     * Send invitations to users for a group
+     * Invite users to a group in a fixed number of statements per batch: one query for
+     * which invitees exist, one for who is already invited, and one JDBC batch insert.
+     * Membership comes from the in-memory index. Returns each distinct user id's outcome,
+     * in the order given.
      */
     @Transactional
-    public List<GroupInvitation> sendInvitations(Long groupId, Long inviterId, List<Long> invitedUserIds, String message) {
+    public Map<Long, InviteOutcome> sendInvitations(Long groupId, Long inviterId, List<Long> invitedUserIds, String message) {
         Group group = getGroupById(groupId);
-        User inviter = userRepository.findById(inviterId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (!group.getCreator().getId().equals(inviterId)) {
             throw new RuntimeException("Only the group creator can send invitations");
         }
 
-        List<GroupInvitation> invitations = new ArrayList<>();
-
-        for (Long userId : invitedUserIds) {
-            // Skip if user is already a member
-            User invitedUser = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-
-            if (group.getMembers().contains(invitedUser)) {
-                continue; // Skip if already a member
-            }
-
-            // Check if invitation already exists
-            if (invitationRepository.findByGroupIdAndInvitedUserId(groupId, userId).isPresent()) {
-                continue; // Skip if invitation already exists
+        List<Long> userIds = new ArrayList<>(new LinkedHashSet<>(invitedUserIds));
+        Map<Long, InviteOutcome> outcomes = new LinkedHashMap<>();
+        for (int from = 0; from < userIds.size(); from += INVITE_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + INVITE_BATCH_SIZE, userIds.size()));
+            Set<Long> existing = new HashSet<>(userRepository.findExistingIds(batch));
+            Set<Long> alreadyInvited = new HashSet<>(invitationRepository.findInvitedUserIds(groupId, batch));
+            Set<Long> members = new HashSet<>(groupRepository.findMemberIds(groupId, batch));
+
+            List<Long> toInvite = new ArrayList<>();
+            for (Long userId : batch) {
+                if (!existing.contains(userId)) {
+                    outcomes.put(userId, InviteOutcome.NOT_FOUND);
+                } else if (userId.equals(inviterId) || members.contains(userId)) {
+                    outcomes.put(userId, InviteOutcome.ALREADY_MEMBER);
+                } else if (alreadyInvited.contains(userId)) {
+                    outcomes.put(userId, InviteOutcome.ALREADY_INVITED);
+                } else {
+                    outcomes.put(userId, InviteOutcome.INVITED);
+                    toInvite.add(userId);
+                }
             }
 
-            GroupInvitation invitation = new GroupInvitation();
-            invitation.setGroup(group);
-            invitation.setInvitedUser(invitedUser);
-            invitation.setInviter(inviter);
-            invitation.setMessage(message);
-            invitation.setStatus(GroupInvitation.InvitationStatus.PENDING);
-
-            invitations.add(invitationRepository.save(invitation));
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO group_invitations (group_id, invited_user_id, inviter_id, status, message, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)",
+                    toInvite, toInvite.size(), (ps, userId) -> {
+                        ps.setLong(1, groupId);
+                        ps.setLong(2, userId);
+                        ps.setLong(3, inviterId);
+                        ps.setString(4, GroupInvitation.InvitationStatus.PENDING.name());
+                        ps.setString(5, message);
+                        ps.setTimestamp(6, now);
+                    });
         }
-
-        return invitations;
+        return outcomes;
     }
 
     /**
@@ -130,16 +224,11 @@ public class GroupService {
         }
 
         Group group = invitation.getGroup();
-
-        if (group.getMembers().size() >= group.getMaxSize()) {
-            throw new RuntimeException("Group is full");
-        }
-
-        group.getMembers().add(invitation.getInvitedUser());
+        addMember(group.getId(), userId);
         invitation.setStatus(GroupInvitation.InvitationStatus.ACCEPTED);
 
-        groupRepository.save(group);
         invitationRepository.save(invitation);
+        onMemberAdded(group, userId);
 
         return group;
     }
@@ -167,28 +256,70 @@ public class GroupService {
         return invitationRepository.findByInvitedUserIdAndStatus(userId, GroupInvitation.InvitationStatus.PENDING);
     }
 
-    public List<Group> getAllGroups() {
-        // Only return public groups (private groups are hidden from general listing)
-        return groupRepository.findAll().stream()
-                .filter(group -> group.getVisibility() == Group.GroupVisibility.PUBLIC)
-                .toList();
+    /**
+     * One page of public groups, newest first, strictly after the cursor (KeysetCursor.START for
+     * the first page). Optional filters: exact course code or name, status (any if null), and
+     * groups with open seats. Filtering, ordering and the page limit all run in SQL, so the
+     * cost depends on the page size rather than the number of groups.
+     */
+    public Slice<GroupDTO> browseGroups(String course, Group.GroupStatus status, boolean openSeatsOnly,
+                                        KeysetCursor after, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        Collection<Group.GroupStatus> statuses = status != null
+                ? List.of(status)
+                : Arrays.asList(Group.GroupStatus.values());
+        String courseFilter = course == null || course.isBlank() ? null : course.trim().toLowerCase();
+
+        // Fetch one extra row to learn whether there is a next page
+        List<Long> ids = groupRepository.findPublicPageAfter(statuses, courseFilter, openSeatsOnly,
+                after.getCreatedAt(), after.getId(), PageRequest.of(0, limit + 1));
+        boolean hasNext = ids.size() > limit;
+        List<GroupDTO> groups = groupDTORepository.findByIds(hasNext ? ids.subList(0, limit) : ids);
+        return new SliceImpl<>(groups, PageRequest.of(0, limit), hasNext);
     }
 
-    public List<Group> searchGroups(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return getAllGroups();
+    /**
+     * Ranked, paginated search over public groups with the given status (any status if null).
+     * Uses the PostgreSQL tsvector/GIN index when available, otherwise a LIKE-based ranking.
+     * Visibility, status, ranking and paging all run in SQL; the page is then loaded as DTOs in one query.
+     */
+    public Page<GroupDTO> searchGroups(String query, Group.GroupStatus status, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE));
+        List<Group.GroupStatus> statuses = status != null ? List.of(status) : List.of(Group.GroupStatus.values());
+
+        if (fullTextSearchSchema.isAvailable()) {
+            String tsquery = toPrefixTsQuery(query);
+            if (tsquery.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            List<String> statusNames = statuses.stream().map(Enum::name).toList();
+            List<Long> ids = groupRepository.fullTextSearchPostgres(
+                    tsquery, statusNames, pageable.getPageSize(), pageable.getOffset());
+            long total = ids.size() < pageable.getPageSize() && pageable.getOffset() == 0
+                    ? ids.size()
+                    : groupRepository.countFullTextSearchPostgres(tsquery, statusNames);
+            return new PageImpl<>(groupDTORepository.findByIds(ids), pageable, total);
         }
-        // Only return public groups in search results
-        return groupRepository.searchGroups(query).stream()
-                .filter(group -> group.getVisibility() == Group.GroupVisibility.PUBLIC)
-                .toList();
+
+        String pattern = "%" + query.trim().toLowerCase() + "%";
+        Page<Long> ids = groupRepository.searchGroupsRanked(pattern, statuses, pageable);
+        return new PageImpl<>(groupDTORepository.findByIds(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    /**
+     * "Calc  study!" -> "calc:* & study:*" so every word must match, each as a prefix.
+     * Only letters and digits are kept, so user input cannot break the tsquery syntax.
+     */
+    private static String toPrefixTsQuery(String query) {
+        return Arrays.stream(query.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
     }
 
-    public List<Group> getGroupsByCourse(String courseName) {
+    public List<GroupDTO> getGroupsByCourse(String courseName) {
         // Only return public groups
-        return groupRepository.findByCourseNameContainingIgnoreCase(courseName).stream()
-                .filter(group -> group.getVisibility() == Group.GroupVisibility.PUBLIC)
-                .toList();
+        return groupDTORepository.findPublicByCourseName(courseName);
     }
 
     public Group getGroupById(Long id) {
@@ -202,7 +333,7 @@ public class GroupService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (group.getMembers().contains(user)) {
+        if (groupRepository.isMember(groupId, userId)) {
             throw new RuntimeException("User is already a member");
         }
 
@@ -232,15 +363,12 @@ public class GroupService {
     @Transactional
     public Group joinGroupDirectly(Long groupId, Long userId) {
         Group group = getGroupById(groupId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (group.getMembers().contains(user)) {
-            throw new RuntimeException("User is already a member");
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
         }
 
-        if (group.getMembers().size() >= group.getMaxSize()) {
-            throw new RuntimeException("Group is full");
+        if (groupRepository.isMember(groupId, userId)) {
+            throw new RuntimeException("User is already a member");
         }
 
         // Check if group allows direct joining
@@ -250,8 +378,9 @@ public class GroupService {
 
         // Private groups can still allow direct join if requiresInvite is false
         // (user must have the direct link to the group)
-        group.getMembers().add(user);
-        return groupRepository.save(group);
+        addMember(groupId, userId);
+        onMemberAdded(group, userId);
+        return group;
     }
 
     @Transactional
@@ -264,14 +393,10 @@ public class GroupService {
             throw new RuntimeException("Only group creator can accept requests");
         }
 
-        if (group.getMembers().size() >= group.getMaxSize()) {
-            throw new RuntimeException("Group is full");
-        }
-
-        group.getMembers().add(request.getUser());
+        addMember(group.getId(), request.getUser().getId());
         request.setStatus(GroupJoinRequest.RequestStatus.ACCEPTED);
-        groupRepository.save(group);
         joinRequestRepository.save(request);
+        onMemberAdded(group, request.getUser().getId());
     }
 
     @Transactional
@@ -301,24 +426,17 @@ public class GroupService {
     }
 
     /**
-     * Delete all groups from the database
-     * This will cascade delete join requests, but we need to manually delete invitations
+     * Groups the user belongs to, as DTOs built in a single query
      */
-    @Transactional
-    public int deleteAllGroups() {
-        // Get all groups first
-        List<Group> allGroups = groupRepository.findAll();
-        
-        // Delete all group invitations first (since they reference groups)
-        for (Group group : allGroups) {
-            List<GroupInvitation> invitations = invitationRepository.findByGroupId(group.getId());
-            invitationRepository.deleteAll(invitations);
-        }
-        
-        // Delete all groups (this will cascade delete join requests due to orphanRemoval)
-        groupRepository.deleteAll(allGroups);
-        
-        return allGroups.size();
+    public List<GroupDTO> getUserGroupDTOs(Long userId) {
+        return groupDTORepository.findByMember(userId);
+    }
+
+    /**
+     * Groups the user created, as DTOs built in a single query
+     */
+    public List<GroupDTO> getUserCreatedGroupDTOs(Long userId) {
+        return groupDTORepository.findByCreator(userId);
     }
 
     /**
@@ -327,10 +445,8 @@ public class GroupService {
     @Transactional
     public void leaveGroup(Long groupId, Long userId) {
         Group group = getGroupById(groupId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!group.getMembers().contains(user)) {
+        if (!groupRepository.isMember(groupId, userId)) {
             throw new RuntimeException("User is not a member of this group");
         }
 
@@ -339,8 +455,8 @@ public class GroupService {
             throw new RuntimeException("Group creator cannot leave the group. Delete the group instead if you want to remove it.");
         }
 
-        group.getMembers().remove(user);
-        groupRepository.save(group);
+        removeMemberRow(groupId, userId);
+        onMemberRemoved(group, userId);
     }
 
     /**
@@ -354,10 +470,7 @@ public class GroupService {
             throw new RuntimeException("Only the group creator can remove members");
         }
 
-        User memberToRemove = userRepository.findById(memberIdToRemove)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!group.getMembers().contains(memberToRemove)) {
+        if (!groupRepository.isMember(groupId, memberIdToRemove)) {
             throw new RuntimeException("User is not a member of this group");
         }
 
@@ -366,8 +479,8 @@ public class GroupService {
             throw new RuntimeException("Cannot remove the group creator");
         }
 
-        group.getMembers().remove(memberToRemove);
-        groupRepository.save(group);
+        removeMemberRow(groupId, memberIdToRemove);
+        onMemberRemoved(group, memberIdToRemove);
     }
 
     /**
@@ -394,9 +507,21 @@ public class GroupService {
         result.put("groupName", group.getName());
         result.put("groupId", group.getId());
         result.put("actions", new ArrayList<String>());
+        int currentMembers = group.getMembers().size();
         
-        // Remove one member if requested
-        if (removeOneMember && group.getMembers().size() > 1) {
+        // Set to open join if requested. Flushed first: removing a member below bumps the
+        // group's version in SQL, after which this entity can no longer be written.
+        if (setOpenJoin) {
+            boolean wasInviteOnly = group.getRequiresInvite();
+            group.setRequiresInvite(false);
+            groupRepository.saveAndFlush(group);
+            if (wasInviteOnly) {
+                ((List<String>) result.get("actions")).add("Changed from invite-only to open join");
+            }
+        }
+        
+        // Remove one member if requested, through the same steps as removeMember
+        if (removeOneMember && currentMembers > 1) {
             // Find a non-creator member to remove
             User memberToRemove = group.getMembers().stream()
                     .filter(m -> !m.getId().equals(group.getCreator().getId()))
@@ -404,7 +529,9 @@ public class GroupService {
                     .orElse(null);
             
             if (memberToRemove != null) {
-                group.getMembers().remove(memberToRemove);
+                removeMemberRow(group.getId(), memberToRemove.getId());
+                onMemberRemoved(group, memberToRemove.getId());
+                currentMembers--;
                 result.put("memberRemoved", memberToRemove.getUsername());
                 ((List<String>) result.get("actions")).add("Removed member: " + memberToRemove.getUsername());
             } else {
@@ -412,23 +539,112 @@ public class GroupService {
             }
         }
         
-        // Set to open join if requested
-        if (setOpenJoin) {
-            boolean wasInviteOnly = group.getRequiresInvite();
-            group.setRequiresInvite(false);
-            if (wasInviteOnly) {
-                ((List<String>) result.get("actions")).add("Changed from invite-only to open join");
-            }
-        }
-        
-        groupRepository.save(group);
+        groupSearchIndex.index(group);
         result.put("success", true);
-        result.put("currentMembers", group.getMembers().size());
+        result.put("currentMembers", currentMembers);
         result.put("requiresInvite", group.getRequiresInvite());
         
         return result;
     }
 
+    /**
+     * Add a member on behalf of a seeding job, the way joinGroupDirectly does but without
+     * its join rules; returns false, changing nothing, if the group is full
+     */
+    @Transactional
+    public boolean addMemberIfSeatFree(Group group, Long userId) {
+        if (!tryAddMember(group.getId(), userId)) {
+            return false;
+        }
+        onMemberAdded(group, userId);
+        return true;
+    }
+
+    private void addMember(Long groupId, Long userId) {
+        if (!tryAddMember(groupId, userId)) {
+            throw new RuntimeException("Group is full");
+        }
+    }
+
+    /**
+     * Take a seat and add the member row; returns false without side effects if the group
+     * is full. A concurrent join of the same user hits the primary key, and the transaction
+     * rolls back with the seat.
+     */
+    private boolean tryAddMember(Long groupId, Long userId) {
+        if (groupRepository.claimSeat(groupId) == 0) {
+            return false;
+        }
+        try {
+            groupRepository.insertMember(groupId, userId);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("User is already a member");
+        }
+        return true;
+    }
+
+    private void removeMemberRow(Long groupId, Long userId) {
+        if (groupRepository.deleteMember(groupId, userId) == 0) {
+            throw new RuntimeException("User is not a member of this group");
+        }
+        groupRepository.releaseSeat(groupId);
+        conversationSummaryRepository.deleteMembership(userId, groupId);
+        readCursorService.memberRemoved(groupId, userId);
+    }
+
+    /**
+     * Run a group edit in its own transaction. Joins and leaves bump the group's version,
+     * so an edit that read the group before one of them fails on flush; it is then
+     * re-read and re-checked, up to MAX_EDIT_ATTEMPTS times.
+     */
+    private <T> T withOptimisticRetry(Supplier<T> edit) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> edit.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_EDIT_ATTEMPTS) {
+                    throw new RuntimeException("Group was changed by someone else, please try again");
+                }
+            }
+        }
+    }
+
+    /**
+     * Keep the in-memory group indexes in step with a membership change
+     */
+    private void onMemberAdded(Group group, Long userId) {
+        membershipIndex.memberAdded(group.getId(), userId);
+        readCursorService.memberAdded(group.getId(), userId);
+        conversationSummaryRepository.addMembership(userId, group.getId());
+        groupSearchIndex.index(group);
+        recommendationCache.invalidateUser(userId);
+        recommendationStore.invalidateUser(userId);
+    }
+
+    private void onMemberRemoved(Group group, Long userId) {
+        membershipIndex.memberRemoved(group.getId(), userId);
+        groupSearchIndex.index(group);
+        recommendationCache.invalidateUser(userId);
+        recommendationStore.invalidateUser(userId);
+    }
+
+    /**
+     * Invalidate cached recommendations affected by a visibility or status change.
+     * A group that became recommendable may belong in anyone's list; one that stopped
+     * being recommendable only affects the lists that contain it.
+     */
+    private void onVisibilityOrStatusChanged(Group group, Group.GroupVisibility oldVisibility,
+                                             Group.GroupStatus oldStatus) {
+        if (group.getVisibility() == oldVisibility && group.getStatus() == oldStatus) {
+            return;
+        }
+        if (group.getVisibility() == Group.GroupVisibility.PUBLIC && group.getStatus() == Group.GroupStatus.ACTIVE) {
+            recommendationCache.invalidateAll();
+        } else {
+            recommendationCache.invalidateGroup(group.getId());
+        }
+    }
+
     /**
      * Get a human-readable privacy description for a group
      */
@@ -459,8 +675,8 @@ public class GroupService {
         dto.setMaxSize(group.getMaxSize());
         dto.setCreatorId(group.getCreator().getId());
         dto.setCreatorName(group.getCreator().getUsername());
-        dto.setMemberIds(group.getMembers().stream().map(User::getId).collect(Collectors.toSet()));
-        dto.setCurrentSize(group.getMembers().size());
+        dto.setMemberIds(Arrays.stream(membershipIndex.memberIds(group.getId())).boxed().collect(Collectors.toSet()));
+        dto.setCurrentSize(membershipIndex.memberCount(group.getId()));
         dto.setStatus(group.getStatus().name());
         dto.setCreatedAt(group.getCreatedAt());
         dto.setVisibility(group.getVisibility().name());
@@ -471,33 +687,51 @@ public class GroupService {
     /**
      * Update group privacy settings
      */
-    @Transactional
     public Group updateGroupPrivacy(Long groupId, Long creatorId, Group.GroupVisibility visibility, Boolean requiresInvite) {
+        return withOptimisticRetry(() -> applyPrivacyUpdate(groupId, creatorId, visibility, requiresInvite));
+    }
+
+    private Group applyPrivacyUpdate(Long groupId, Long creatorId, Group.GroupVisibility visibility, Boolean requiresInvite) {
         Group group = getGroupById(groupId);
         
         if (!group.getCreator().getId().equals(creatorId)) {
             throw new RuntimeException("Only the group creator can update privacy settings");
         }
 
+        Group.GroupVisibility oldVisibility = group.getVisibility();
+        Group.GroupStatus oldStatus = group.getStatus();
         group.setVisibility(visibility != null ? visibility : group.getVisibility());
         group.setRequiresInvite(requiresInvite != null ? requiresInvite : group.getRequiresInvite());
         
-        return groupRepository.save(group);
+        Group savedGroup = groupRepository.saveAndFlush(group);
+        groupSearchIndex.index(savedGroup);
+        onVisibilityOrStatusChanged(savedGroup, oldVisibility, oldStatus);
+        return savedGroup;
     }
 
     /**
      * Update group information (only creator can update)
      */
-    @Transactional
     public Group updateGroup(Long groupId, Long creatorId, String name, String description,
                             String courseName, String courseCode, String topic, Integer maxSize,
                             Group.GroupVisibility visibility, Boolean requiresInvite) {
+        return withOptimisticRetry(() -> applyGroupUpdate(groupId, creatorId, name, description,
+                courseName, courseCode, topic, maxSize, visibility, requiresInvite));
+    }
+
+    private Group applyGroupUpdate(Long groupId, Long creatorId, String name, String description,
+                                   String courseName, String courseCode, String topic, Integer maxSize,
+                                   Group.GroupVisibility visibility, Boolean requiresInvite) {
         Group group = getGroupById(groupId);
         
         if (!group.getCreator().getId().equals(creatorId)) {
             throw new RuntimeException("Only the group creator can update the group");
         }
 
+        Group.GroupVisibility oldVisibility = group.getVisibility();
+        Group.GroupStatus oldStatus = group.getStatus();
+
+        boolean renamed = name != null && !name.trim().isEmpty() && !name.equals(group.getName());
         if (name != null && !name.trim().isEmpty()) {
             group.setName(name);
         }
@@ -514,8 +748,9 @@ public class GroupService {
             group.setTopic(topic);
         }
         if (maxSize != null && maxSize > 0) {
-            // Ensure maxSize is at least the current number of members
-            if (maxSize < group.getMembers().size()) {
+            // Ensure maxSize is at least the current number of members; a join committed
+            // after this read bumps the version, and the retry checks again
+            if (maxSize < group.getMemberCount()) {
                 throw new RuntimeException("Max size cannot be less than current number of members");
             }
             group.setMaxSize(maxSize);
@@ -527,7 +762,14 @@ public class GroupService {
             group.setRequiresInvite(requiresInvite);
         }
 
-        return groupRepository.save(group);
+        Group savedGroup = groupRepository.saveAndFlush(group);
+        groupSearchIndex.index(savedGroup);
+        if (renamed) {
+            // Post search results show the group's name
+            postSearchIndex.reindexGroup(groupId);
+        }
+        onVisibilityOrStatusChanged(savedGroup, oldVisibility, oldStatus);
+        return savedGroup;
     }
 
     /**
@@ -547,6 +789,12 @@ public class GroupService {
 
         // Delete the group (cascade will handle join requests and member relationships)
         groupRepository.delete(group);
+        conversationSummaryRepository.deleteByGroupIds(List.of(groupId));
+        readCursorService.groupRemoved(groupId);
+        groupSearchIndex.remove(groupId);
+        membershipIndex.groupRemoved(groupId);
+        recommendationCache.invalidateGroup(groupId);
+        recommendationStore.invalidateGroup(groupId);
     }
 
     /**
@@ -557,14 +805,56 @@ public class GroupService {
      * - Search history (group names searched, courses searched)
      * - Collaborative filtering: Groups that members of user's groups are part of
      * 
-     * OPTIMIZED: Uses database queries to filter groups instead of loading all groups into memory
+     * OPTIMIZED: Uses database queries to filter groups instead of loading all groups into memory,
+     * serves repeat requests from the per-user RecommendationCache and otherwise serves the rows
+     * precomputed by RecommendationPrecomputeJob. Only missing or stale users are computed on demand.
      */
-    public List<Group> getRecommendedGroups(Long userId) {
+    public List<GroupDTO> getRecommendedGroups(Long userId) {
+        List<Long> cachedIds = recommendationCache.get(userId);
+        if (cachedIds != null) {
+            return groupDTORepository.findByIds(cachedIds);
+        }
+
+        long epoch = recommendationCache.currentEpoch();
+        List<Long> groupIds;
+        List<GroupRecommendation> stored = recommendationStore.findFresh(userId);
+        if (stored != null) {
+            // Precomputed rows may predate a visibility or status change
+            groupIds = stored.stream()
+                    .map(GroupRecommendation::getGroupId)
+                    .filter(groupId -> groupSearchIndex.isRecommendable(groupId, userId))
+                    .toList();
+        } else {
+            long storeEpoch = recommendationStore.currentEpoch(userId);
+            List<GroupRecommendation> computed = computeRecommendations(userId);
+            recommendationStore.replace(userId, computed, storeEpoch);
+            groupIds = computed.stream().map(GroupRecommendation::getGroupId).toList();
+        }
+
+        List<GroupDTO> recommended = groupDTORepository.findByIds(groupIds);
+        recommendationCache.put(userId, recommended.stream().map(GroupDTO::getId).toList(), epoch);
+        return recommended;
+    }
+
+    /**
+     * Recompute and store one user's recommendations, in the caller's transaction.
+     * Used by RecommendationPrecomputeJob; returns false if the user was invalidated
+     * while their recommendations were being computed.
+     */
+    public boolean refreshRecommendations(Long userId) {
+        long storeEpoch = recommendationStore.currentEpoch(userId);
+        return recommendationStore.replace(userId, computeRecommendations(userId), storeEpoch);
+    }
+
+    /**
+     * Top 10 recommendations for a user, ranked, with the score and main reason for each
+     */
+    private List<GroupRecommendation> computeRecommendations(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Get recent search history (last 30 days) - wrap in try-catch to prevent errors from breaking recommendations
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
+        // Get the user's search interest profile (decayed, strongest terms first) - wrap in try-catch
+        // to prevent errors from breaking recommendations
         List<String> searchedGroupNames = new ArrayList<>();
         List<String> searchedCourseNames = new ArrayList<>();
         List<String> searchedCourseCodes = new ArrayList<>();
@@ -572,19 +862,15 @@ public class GroupService {
         List<String> generalSearches = new ArrayList<>();
         
         try {
-            searchedGroupNames = searchHistoryRepository.findDistinctQueriesByType(
-                userId, SearchHistory.SearchType.GROUP_NAME, thirtyDaysAgo);
-            searchedCourseNames = searchHistoryRepository.findDistinctQueriesByType(
-                userId, SearchHistory.SearchType.COURSE_NAME, thirtyDaysAgo);
-            searchedCourseCodes = searchHistoryRepository.findDistinctQueriesByType(
-                userId, SearchHistory.SearchType.COURSE_CODE, thirtyDaysAgo);
-            searchedTopics = searchHistoryRepository.findDistinctQueriesByType(
-                userId, SearchHistory.SearchType.TOPIC, thirtyDaysAgo);
-            generalSearches = searchHistoryRepository.findDistinctQueriesByType(
-                userId, SearchHistory.SearchType.GENERAL, thirtyDaysAgo);
+            Map<SearchHistory.SearchType, List<String>> interests = searchInterestService.getInterests(userId);
+            searchedGroupNames = interests.get(SearchHistory.SearchType.GROUP_NAME);
+            searchedCourseNames = interests.get(SearchHistory.SearchType.COURSE_NAME);
+            searchedCourseCodes = interests.get(SearchHistory.SearchType.COURSE_CODE);
+            searchedTopics = interests.get(SearchHistory.SearchType.TOPIC);
+            generalSearches = interests.get(SearchHistory.SearchType.GENERAL);
         } catch (Exception e) {
-            // If search history query fails, continue without search history (don't break recommendations)
-            // This can happen if the search_history table doesn't exist yet or has schema issues
+            // If the profile lookup fails, continue without search history (don't break recommendations)
+            // This can happen if the search_interests table doesn't exist yet or has schema issues
         }
 
         // Collect keywords from user's groups (only load what we need)
@@ -716,238 +1002,168 @@ public class GroupService {
             });
         }
 
-        // OPTIMIZED: Query database for matching groups instead of loading all groups
-        Set<Group> candidateGroups = new HashSet<>();
-        
-        // Only query if we have keywords to search for
-        // Query by group names (from groups user has joined/created + search history)
-        if (!groupNames.isEmpty()) {
-            for (String groupName : groupNames) {
-                List<Group> matches = groupRepository.findRecommendedByGroupName(userId, groupName);
-                candidateGroups.addAll(matches);
-            }
-        }
-        
-        // Query by course names (from groups + user courses + search history)
-        if (!courseNames.isEmpty()) {
-            for (String courseName : courseNames) {
-                List<Group> matches = groupRepository.findRecommendedByCourseName(userId, courseName);
-                candidateGroups.addAll(matches);
-            }
-        }
-        
-        // Query by course codes (from groups + search history)
-        if (!courseCodes.isEmpty()) {
-            for (String courseCode : courseCodes) {
-                List<Group> matches = groupRepository.findRecommendedByCourseCode(userId, courseCode);
-                candidateGroups.addAll(matches);
-            }
-        }
-        
-        // Query by topics (from groups + search history)
-        if (!topics.isEmpty()) {
-            for (String topic : topics) {
-                List<Group> matches = groupRepository.findRecommendedByTopic(userId, topic);
-                candidateGroups.addAll(matches);
-            }
-        }
-        
-        // Collaborative filtering: Groups that members of user's groups are part of
-        Map<Group, Boolean> collaborativeGroups = new HashMap<>(); // Track which groups came from collaborative filtering
+        // OPTIMIZED: Find candidate ids without one LIKE query per keyword, then load them in one query
+        Map<Long, GroupRecommendationCandidate> keywordMatches = new HashMap<>();
+        Set<Long> candidateIds = findKeywordCandidateIds(userId, groupNames, courseNames, courseCodes, topics,
+                keywordMatches);
+
+        // Collaborative filtering: Groups that members of user's groups are part of,
+        // with the number of shared memberships taken from the co-membership index
+        Map<Long, Integer> collaborativeOverlap = new HashMap<>();
         if (!userGroupIds.isEmpty()) {
-            List<Group> collaborativeMatches = groupRepository.findRecommendedByCollaborativeFiltering(userId, new ArrayList<>(userGroupIds));
-            candidateGroups.addAll(collaborativeMatches);
-            // Mark these as collaborative filtering groups for scoring
-            collaborativeMatches.forEach(g -> collaborativeGroups.put(g, true));
+            coMembershipIndex.findOverlaps(userGroupIds).forEach((groupId, overlap) -> {
+                if (groupSearchIndex.isRecommendable(groupId, userId)) {
+                    collaborativeOverlap.put(groupId, overlap);
+                }
+            });
+            candidateIds.addAll(collaborativeOverlap.keySet());
+        }
+
+        Set<Group> candidateGroups = new HashSet<>();
+        if (!candidateIds.isEmpty()) {
+            candidateGroups.addAll(groupRepository.findAllById(candidateIds));
         }
         
         // If no candidate groups found from keyword matching, ALWAYS try general recommendations
         // This handles the case where user's groups don't have course names/codes/topics set
         if (candidateGroups.isEmpty()) {
-            return getGeneralRecommendationsFallback(userId);
+            return toRecommendations(userId, getGeneralRecommendationsFallback(userId));
         }
 
-        // Score only the candidate groups (much smaller set than all groups)
-        Map<Group, Integer> groupScores = new HashMap<>();
+        // Score only the candidate groups (much smaller set than all groups).
+        // Keyword matching is compiled once for this user rather than looping over every keyword per group.
+        RecommendationScorer scorer = new RecommendationScorer(searchedGroupNames, searchedCourseNames,
+                searchedCourseCodes, searchedTopics, generalSearches, groupNames, courseNames, courseCodes,
+                topics, courseCodePrefixes, courseCodeFirstChars, candidateGroups, keywordMatches);
+        List<GroupRecommendation> scored = new ArrayList<>();
         
         for (Group group : candidateGroups) {
-            int score = 0;
-            boolean isCollaborative = collaborativeGroups.getOrDefault(group, false);
+            int collaborativeScore = 0;
+            Integer overlap = collaborativeOverlap.get(group.getId());
 
             // HIGH WEIGHT: Collaborative filtering (groups that members of user's groups are in)
-            if (isCollaborative) {
-                score += 25; // Strong signal - people in your groups are in these groups
+            if (overlap != null) {
+                collaborativeScore += 25; // Strong signal - people in your groups are in these groups
+                collaborativeScore += Math.min(15, (overlap - 1) * 5); // More shared members, stronger signal
             }
 
-            // HIGH WEIGHT: Search history matches (user has searched for similar terms)
-            // Check if group name matches searched group names
-            if (group.getName() != null) {
-                String groupName = group.getName().toLowerCase();
-                for (String searchedName : searchedGroupNames) {
-                    if (groupName.contains(searchedName.toLowerCase()) || 
-                        searchedName.toLowerCase().contains(groupName)) {
-                        score += 18; // User searched for group names like this
-                        break;
-                    }
-                }
-            }
-            
-            // Check if course name matches searched course names
-            if (group.getCourseName() != null) {
-                String groupCourseName = group.getCourseName().toLowerCase();
-                for (String searchedCourse : searchedCourseNames) {
-                    if (groupCourseName.contains(searchedCourse.toLowerCase()) || 
-                        searchedCourse.toLowerCase().contains(groupCourseName)) {
-                        score += 18; // User searched for courses like this
-                        break;
-                    }
-                }
-            }
-            
-            // Check if course code matches searched course codes
-            if (group.getCourseCode() != null) {
-                String groupCourseCode = group.getCourseCode().toLowerCase();
-                for (String searchedCode : searchedCourseCodes) {
-                    if (groupCourseCode.equals(searchedCode.toLowerCase())) {
-                        score += 20; // Exact match with searched course code
-                        break;
-                    } else if (groupCourseCode.contains(searchedCode.toLowerCase()) || 
-                               searchedCode.toLowerCase().contains(groupCourseCode)) {
-                        score += 15; // Partial match with searched course code
-                        break;
-                    }
-                }
-            }
-            
-            // Check if topic matches searched topics
-            if (group.getTopic() != null) {
-                String groupTopic = group.getTopic().toLowerCase();
-                for (String searchedTopic : searchedTopics) {
-                    if (groupTopic.contains(searchedTopic.toLowerCase()) || 
-                        searchedTopic.toLowerCase().contains(groupTopic)) {
-                        score += 12; // User searched for topics like this
-                        break;
-                    }
-                }
-            }
-            
-            // Check general searches (could match any field)
-            if (!generalSearches.isEmpty()) {
-                String searchQuery = generalSearches.get(0).toLowerCase(); // Use most recent
-                if (group.getName() != null && group.getName().toLowerCase().contains(searchQuery)) {
-                    score += 15;
-                } else if (group.getCourseName() != null && group.getCourseName().toLowerCase().contains(searchQuery)) {
-                    score += 15;
-                } else if (group.getCourseCode() != null && group.getCourseCode().toLowerCase().contains(searchQuery)) {
-                    score += 15;
-                } else if (group.getTopic() != null && group.getTopic().toLowerCase().contains(searchQuery)) {
-                    score += 12;
-                }
-            }
-
-            // Score based on group name match (from groups user has joined/created)
-            if (group.getName() != null) {
-                String groupName = group.getName().toLowerCase();
-                for (String userGroupName : groupNames) {
-                    if (groupName.equals(userGroupName)) {
-                        score += 12; // Exact match
-                    } else if (groupName.contains(userGroupName) || userGroupName.contains(groupName)) {
-                        score += 8; // Partial match
-                    }
-                }
-            }
-
-            // Score based on course name match
-            if (group.getCourseName() != null) {
-                String groupCourseName = group.getCourseName().toLowerCase();
-                for (String courseName : courseNames) {
-                    if (groupCourseName.equals(courseName)) {
-                        score += 15; // Exact match
-                    } else if (groupCourseName.contains(courseName) || courseName.contains(groupCourseName)) {
-                        score += 10; // Partial match
-                    }
-                }
-            }
-
-            // Score based on course code match
-            if (group.getCourseCode() != null) {
-                String groupCourseCode = group.getCourseCode().toLowerCase().trim();
-                
-                // HIGHEST PRIORITY: Course code prefix match (e.g., "MATH 4" matches "MATH 4150", "MATH 4260")
-                if (!groupCourseCode.isEmpty() && !courseCodePrefixes.isEmpty()) {
-                    for (String prefix : courseCodePrefixes) {
-                        if (groupCourseCode.startsWith(prefix)) {
-                            score += 30; // Highest priority - same course code prefix (e.g., MATH 4xxx courses)
-                            break; // Only count once
-                        }
-                    }
-                }
-                
-                // HIGH PRIORITY: First non-space character match (same department/subject area)
-                // Only apply if prefix match didn't already apply
-                if (!groupCourseCode.isEmpty() && !courseCodeFirstChars.isEmpty()) {
-                    // Find first non-whitespace character
-                    for (int i = 0; i < groupCourseCode.length(); i++) {
-                        char ch = groupCourseCode.charAt(i);
-                        if (!Character.isWhitespace(ch)) {
-                            char groupFirstChar = Character.toUpperCase(ch);
-                            if (courseCodeFirstChars.contains(groupFirstChar)) {
-                                score += 22; // High priority - same department (e.g., CSCI, MATH, ENGL)
-                            }
-                            break; // Only check the first non-space character
-                        }
-                    }
-                }
-                
-                // Exact and partial matches
-                for (String courseCode : courseCodes) {
-                    if (groupCourseCode.equals(courseCode)) {
-                        score += 20; // Exact match is worth more
-                    } else if (groupCourseCode.contains(courseCode) || courseCode.contains(groupCourseCode)) {
-                        score += 8; // Partial match
-                    }
-                }
-            }
-
-            // Score based on topic match
-            if (group.getTopic() != null) {
-                String groupTopic = group.getTopic().toLowerCase();
-                for (String topic : topics) {
-                    if (groupTopic.equals(topic)) {
-                        score += 8; // Exact match
-                    } else if (groupTopic.contains(topic) || topic.contains(groupTopic)) {
-                        score += 5; // Partial match
-                    }
-                }
-            }
+            // Search history, keyword, course code prefix and department matches
+            RecommendationScorer.Score keywordScore = scorer.score(group);
+            int score = collaborativeScore + keywordScore.getTotal();
 
             // Small bonus for groups with available spots (full groups are still recommended)
             // Full groups are included in recommendations - they just get a slightly lower score
-            if (group.getMaxSize() != null && group.getMembers().size() < group.getMaxSize()) {
+            if (group.getMaxSize() != null && membershipIndex.memberCount(group.getId()) < group.getMaxSize()) {
                 score += 2;
             }
             // Note: Full groups (members.size() >= maxSize) are still included if they have score > 0
 
             if (score > 0) {
-                groupScores.put(group, score);
+                GroupRecommendation recommendation = new GroupRecommendation();
+                recommendation.setUserId(userId);
+                recommendation.setGroupId(group.getId());
+                recommendation.setScore(score);
+                recommendation.setReason(mainReason(collaborativeScore, keywordScore));
+                scored.add(recommendation);
             }
         }
 
         // Sort by score (descending) and return top 10
-        List<Group> recommended = groupScores.entrySet().stream()
-                .sorted(Map.Entry.<Group, Integer>comparingByValue().reversed())
+        List<GroupRecommendation> recommended = scored.stream()
+                .sorted(Comparator.comparing(GroupRecommendation::getScore).reversed())
                 .limit(10)
-                .map(Map.Entry::getKey)
                 .collect(Collectors.toList());
         
         // FALLBACK: If no recommendations found, show general recommendations (recent public groups)
         if (recommended.isEmpty()) {
-            return getGeneralRecommendationsFallback(userId);
+            return toRecommendations(userId, getGeneralRecommendationsFallback(userId));
         }
         
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < recommended.size(); i++) {
+            recommended.get(i).setRank(i);
+            recommended.get(i).setComputedAt(now);
+        }
         return recommended;
     }
 
+    /**
+     * The signal that contributed the most to a group's score (earlier signals win ties)
+     */
+    private GroupRecommendation.Reason mainReason(int collaborativeScore, RecommendationScorer.Score keywordScore) {
+        GroupRecommendation.Reason reason = GroupRecommendation.Reason.POPULAR;
+        int best = 0;
+        if (collaborativeScore > best) {
+            reason = GroupRecommendation.Reason.COLLABORATIVE;
+            best = collaborativeScore;
+        }
+        if (keywordScore.getSearchHistory() > best) {
+            reason = GroupRecommendation.Reason.SEARCH_HISTORY;
+            best = keywordScore.getSearchHistory();
+        }
+        if (keywordScore.getCourse() > best) {
+            reason = GroupRecommendation.Reason.COURSE;
+            best = keywordScore.getCourse();
+        }
+        if (keywordScore.getKeyword() > best) {
+            reason = GroupRecommendation.Reason.SIMILAR_GROUPS;
+        }
+        return reason;
+    }
+
+    /**
+     * Unscored recommendations from the general fallback, in the fallback's order
+     */
+    private List<GroupRecommendation> toRecommendations(Long userId, List<Group> groups) {
+        LocalDateTime now = LocalDateTime.now();
+        List<GroupRecommendation> recommendations = new ArrayList<>();
+        for (Group group : groups) {
+            recommendations.add(new GroupRecommendation(null, userId, group.getId(), 0,
+                    GroupRecommendation.Reason.POPULAR, recommendations.size(), now));
+        }
+        return recommendations;
+    }
+
+    /**
+     * Ids of groups whose name, course name, course code or topic contains any of the keywords.
+     * Uses the in-memory group index by default, or a single batched query when
+     * recommendations.candidate-source=query; the query's per-field matches go into keywordMatches.
+     */
+    private Set<Long> findKeywordCandidateIds(Long userId, Set<String> groupNames, Set<String> courseNames,
+                                              Set<String> courseCodes, Set<String> topics,
+                                              Map<Long, GroupRecommendationCandidate> keywordMatches) {
+        Set<Long> candidateIds = new HashSet<>();
+
+        if ("query".equalsIgnoreCase(candidateSource)) {
+            if (groupNames.isEmpty() && courseNames.isEmpty() && courseCodes.isEmpty() && topics.isEmpty()) {
+                return candidateIds;
+            }
+            String[] names = groupNames.toArray(new String[0]);
+            String[] courses = courseNames.toArray(new String[0]);
+            String[] codes = courseCodes.toArray(new String[0]);
+            String[] topicArray = topics.toArray(new String[0]);
+            List<GroupRecommendationCandidate> rows = databasePlatform.isPostgres()
+                    ? groupRepository.findRecommendationCandidatesPostgres(userId, names, courses, codes, topicArray)
+                    : groupRepository.findRecommendationCandidatesH2(userId, names, courses, codes, topicArray);
+            for (GroupRecommendationCandidate row : rows) {
+                candidateIds.add(row.getGroupId());
+                keywordMatches.put(row.getGroupId(), row);
+            }
+            return candidateIds;
+        }
+
+        // Union posting lists from the in-memory group index
+        candidateIds.addAll(groupSearchIndex.findRecommendationCandidates(
+            userId, GroupSearchIndex.Field.NAME, groupNames));
+        candidateIds.addAll(groupSearchIndex.findRecommendationCandidates(
+            userId, GroupSearchIndex.Field.COURSE_NAME, courseNames));
+        candidateIds.addAll(groupSearchIndex.findRecommendationCandidates(
+            userId, GroupSearchIndex.Field.COURSE_CODE, courseCodes));
+        candidateIds.addAll(groupSearchIndex.findRecommendationCandidates(
+            userId, GroupSearchIndex.Field.TOPIC, topics));
+        return candidateIds;
+    }
+
     /**
      * Fallback method to get general recommendations when no specific matches are found
      */
@@ -973,7 +1189,7 @@ public class GroupService {
                     .filter(g -> g.getStatus() == Group.GroupStatus.ACTIVE)
                     .filter(g -> g.getVisibility() == Group.GroupVisibility.PUBLIC)
                     .filter(g -> g.getCreator() != null && !g.getCreator().getId().equals(userId))
-                    .filter(g -> g.getMembers().stream().noneMatch(m -> m != null && m.getId().equals(userId)))
+                    .filter(g -> !membershipIndex.isMember(g.getId(), userId))
                     .sorted((g1, g2) -> {
                         if (g1.getCreatedAt() == null || g2.getCreatedAt() == null) {
                             return 0;
@@ -991,7 +1207,7 @@ public class GroupService {
             allPublicGroups = allGroups.stream()
                     .filter(g -> g != null)
                     .filter(g -> g.getCreator() != null && !g.getCreator().getId().equals(userId))
-                    .filter(g -> g.getMembers().stream().noneMatch(m -> m != null && m.getId().equals(userId)))
+                    .filter(g -> !membershipIndex.isMember(g.getId(), userId))
                     .limit(10)
                     .collect(Collectors.toList());
             
@@ -1015,6 +1231,7 @@ public class GroupService {
             // Get all groups
             List<Group> allGroups = groupRepository.findAll();
             debug.put("totalGroupsInDatabase", allGroups.size());
+            debug.put("groupsInSearchIndex", groupSearchIndex.size());
             
             // Get user's groups
             List<Group> userGroups = getUserGroups(userId);
@@ -1079,7 +1296,7 @@ public class GroupService {
             }
             
             // Get actual recommendations
-            List<Group> recommendations = getRecommendedGroups(userId);
+            List<GroupDTO> recommendations = getRecommendedGroups(userId);
             debug.put("actualRecommendationsCount", recommendations.size());
             
             // Extract keywords from user's groups
@@ -1104,24 +1321,30 @@ public class GroupService {
         return debug;
     }
 
+    public Map<String, Object> getRecommendationCacheStats() {
+        return recommendationCache.getStats();
+    }
+
     /**
-     * Track a user's search for recommendation purposes
+     * Record a batch of tracked searches for recommendation purposes: append them to the
+     * search_history log with one JDBC batch insert and fold them into each user's search
+     * interest profile. Called by SearchTracker off the request path.
      */
     @Transactional
-    public void trackSearch(Long userId, String query, SearchHistory.SearchType searchType) {
-        if (query == null || query.trim().isEmpty()) {
-            return;
-        }
-        
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        SearchHistory searchHistory = new SearchHistory();
-        searchHistory.setUser(user);
-        searchHistory.setQuery(query.trim());
-        searchHistory.setSearchType(searchType);
-        
-        searchHistoryRepository.save(searchHistory);
+    public void recordSearches(List<SearchEvent> events) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO search_history (user_id, query, search_type, searched_at) VALUES (?, ?, ?, ?)",
+                events, events.size(), (ps, event) -> {
+                    ps.setLong(1, event.getUserId());
+                    ps.setString(2, event.getQuery());
+                    ps.setString(3, event.getSearchType().name());
+                    ps.setTimestamp(4, Timestamp.valueOf(event.getSearchedAt()));
+                });
+        searchInterestService.recordAll(events);
+
+        Set<Long> userIds = events.stream().map(SearchEvent::getUserId).collect(Collectors.toSet());
+        userIds.forEach(recommendationCache::invalidateUser);
+        recommendationStore.invalidateUsers(userIds);
     }
 }
 
@@ -1,20 +1,32 @@
 package com.campusconnect.service;
 
+import com.campusconnect.dto.ConversationDTO;
 import com.campusconnect.dto.MessageDTO;
 import com.campusconnect.model.Group;
 import com.campusconnect.model.Message;
 import com.campusconnect.model.User;
+import com.campusconnect.repository.ConversationSummaryRepository;
 import com.campusconnect.repository.GroupRepository;
 import com.campusconnect.repository.MessageRepository;
 import com.campusconnect.repository.UserRepository;
+import com.campusconnect.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class MessageService {
+    private static final int MAX_CONVERSATION_PAGE_SIZE = 100;
+    private static final int MAX_MESSAGE_PAGE_SIZE = 200;
+
     @Autowired
     private MessageRepository messageRepository;
 
@@ -24,21 +36,31 @@ public class MessageService {
     @Autowired
     private GroupRepository groupRepository;
 
+    @Autowired
+    private PushService pushService;
+
+    @Autowired
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @Autowired
+    private GroupReadCursorService readCursorService;
+
     @Transactional
     public Message sendDirectMessage(Long senderId, String recipientUsername, String content) {
         User sender = userRepository.findById(senderId)
                 .orElseThrow(() -> new RuntimeException("Sender not found"));
         User recipient = userRepository.findByUsername(recipientUsername)
                 .orElseThrow(() -> new RuntimeException("Recipient not found with username: " + recipientUsername));
+        return saveDirectMessage(sender, recipient, content);
+    }
 
-        Message message = new Message();
-        message.setSender(sender);
-        message.setRecipient(recipient);
-        message.setContent(content);
-        message.setType(Message.MessageType.DIRECT);
-        message.setIsRead(false);
-
-        return messageRepository.save(message);
+    @Transactional
+    public Message sendDirectMessage(Long senderId, Long recipientId, String content) {
+        User sender = userRepository.findById(senderId)
+                .orElseThrow(() -> new RuntimeException("Sender not found"));
+        User recipient = userRepository.findById(recipientId)
+                .orElseThrow(() -> new RuntimeException("Recipient not found"));
+        return saveDirectMessage(sender, recipient, content);
     }
 
     @Transactional
@@ -48,26 +70,109 @@ public class MessageService {
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new RuntimeException("Group not found"));
 
-        if (!group.getMembers().contains(sender)) {
+        if (!groupRepository.isMember(groupId, senderId)) {
             throw new RuntimeException("User is not a member of this group");
         }
 
+        // Locks the group row until commit, so the group's messages are numbered in order
+        groupRepository.incrementMessageSeq(groupId);
+        long seq = groupRepository.findMessageSeq(groupId);
+
         Message message = new Message();
         message.setSender(sender);
         message.setGroup(group);
         message.setContent(content);
         message.setType(Message.MessageType.GROUP);
         message.setIsRead(false);
+        message.setGroupSeq(seq);
 
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+        conversationSummaryRepository.recordGroup(groupId, saved.getId(), senderId, content, saved.getCreatedAt());
+        readCursorService.markSent(senderId, groupId, saved.getId(), seq);
+        pushService.publishToGroup("message", convertToDTO(saved), groupId);
+        return saved;
     }
 
-    public List<Message> getDirectMessages(Long userId, Long otherUserId) {
-        return messageRepository.findConversationMessages(userId, otherUserId);
+    private Message saveDirectMessage(User sender, User recipient, String content) {
+        Message message = new Message();
+        message.setSender(sender);
+        message.setRecipient(recipient);
+        message.setContent(content);
+        message.setType(Message.MessageType.DIRECT);
+        message.setIsRead(false);
+
+        Message saved = messageRepository.save(message);
+        recordDirectSummaries(saved);
+        // The sender's other tabs show it too
+        pushService.publishToUsers("message", convertToDTO(saved), List.of(recipient.getId(), sender.getId()));
+        return saved;
+    }
+
+    private void recordDirectSummaries(Message message) {
+        Long senderId = message.getSender().getId();
+        Long recipientId = message.getRecipient().getId();
+        if (recipientId.equals(senderId)) {
+            recordDirectSummary(message, senderId, recipientId);
+            return;
+        }
+        // Lower user id first, so replies crossing in flight lock the two rows in the same order
+        recordDirectSummary(message, Math.min(senderId, recipientId), Math.max(senderId, recipientId));
+        recordDirectSummary(message, Math.max(senderId, recipientId), Math.min(senderId, recipientId));
+    }
+
+    private void recordDirectSummary(Message message, Long userId, Long peerId) {
+        Long senderId = message.getSender().getId();
+        conversationSummaryRepository.recordDirect(userId, peerId, message.getId(), senderId,
+                message.getContent(), message.getCreatedAt(), userId.equals(senderId) ? 0 : 1);
+    }
+
+    /**
+     * A page of the direct conversation between the two users, oldest first. With since,
+     * the messages after that id (what a poll has not seen yet); otherwise the newest
+     * messages before the given id, or the newest overall. hasNext means there are more
+     * messages in the same direction: newer for since, older otherwise.
+     */
+    public Slice<Message> getDirectMessages(Long userId, Long otherUserId, Long since, Long before, int size) {
+        int limit = messagePageLimit(since, before, size);
+        // Fetch one extra row to learn whether there is a next page
+        PageRequest page = PageRequest.of(0, limit + 1);
+        if (since != null) {
+            return newerPage(messageRepository.findConversationMessagesAfter(userId, otherUserId, since, page), limit);
+        }
+        return olderPage(messageRepository.findConversationMessagesBefore(userId, otherUserId,
+                before != null ? before : Long.MAX_VALUE, page), limit);
+    }
+
+    /**
+     * A page of the group's messages, oldest first; since and before as for direct messages
+     */
+    public Slice<Message> getGroupMessages(Long groupId, Long since, Long before, int size) {
+        int limit = messagePageLimit(since, before, size);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        if (since != null) {
+            return newerPage(messageRepository.findByGroupIdAndIdGreaterThanOrderByIdAsc(groupId, since, page), limit);
+        }
+        return olderPage(messageRepository.findByGroupIdAndIdLessThanOrderByIdDesc(groupId,
+                before != null ? before : Long.MAX_VALUE, page), limit);
     }
 
-    public List<Message> getGroupMessages(Long groupId) {
-        return messageRepository.findByGroupIdOrderByCreatedAtAsc(groupId);
+    private static int messagePageLimit(Long since, Long before, int size) {
+        if (since != null && before != null) {
+            throw new RuntimeException("Use either since or before, not both");
+        }
+        return Math.max(1, Math.min(size, MAX_MESSAGE_PAGE_SIZE));
+    }
+
+    private static Slice<Message> newerPage(List<Message> ascending, int limit) {
+        boolean hasNext = ascending.size() > limit;
+        return new SliceImpl<>(hasNext ? ascending.subList(0, limit) : ascending, PageRequest.of(0, limit), hasNext);
+    }
+
+    private static Slice<Message> olderPage(List<Message> descending, int limit) {
+        boolean hasNext = descending.size() > limit;
+        List<Message> ascending = new ArrayList<>(hasNext ? descending.subList(0, limit) : descending);
+        Collections.reverse(ascending);
+        return new SliceImpl<>(ascending, PageRequest.of(0, limit), hasNext);
     }
 
     public List<Message> getInbox(Long userId) {
@@ -75,15 +180,54 @@ public class MessageService {
         return messageRepository.findAllUserMessages(userId);
     }
 
+    /**
+     * One page of the user's conversations (direct and group), most recent first, strictly
+     * after the cursor. Reads conversation_summary, so the cost depends on the number of
+     * conversations rather than the number of messages the user has sent or received.
+     * Group unread counts include read positions that are not flushed yet.
+     */
+    public Slice<ConversationDTO> getConversations(Long userId, KeysetCursor after, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_CONVERSATION_PAGE_SIZE));
+        // Fetch one extra row to learn whether there is a next page
+        List<ConversationDTO> conversations = conversationSummaryRepository.findPage(userId,
+                after.getCreatedAt(), after.getId(), limit + 1);
+        boolean hasNext = conversations.size() > limit;
+        if (conversations.stream().anyMatch(conversation -> conversation.getGroupId() != null)) {
+            Map<Long, Long> unread = readCursorService.getUnreadCounts(userId);
+            for (ConversationDTO conversation : conversations) {
+                if (conversation.getGroupId() != null) {
+                    conversation.setUnreadCount(unread.getOrDefault(conversation.getGroupId(), 0L).intValue());
+                }
+            }
+        }
+        return new SliceImpl<>(hasNext ? conversations.subList(0, limit) : conversations,
+                PageRequest.of(0, limit), hasNext);
+    }
+
     @Transactional
     public void markAsRead(Long messageId, Long userId) {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Message not found"));
 
-        if (message.getRecipient() != null && message.getRecipient().getId().equals(userId)) {
-            message.setIsRead(true);
-            messageRepository.save(message);
+        // Only the request that flips is_read moves the unread count
+        if (messageRepository.markReadIfUnread(messageId, userId) > 0) {
+            conversationSummaryRepository.subtractDirectUnread(userId, message.getSender().getId(), 1);
+        }
+    }
+
+    /**
+     * Mark everything the other user sent this user, up to and including upTo (everything
+     * if null), as read. One UPDATE on messages, and the conversation's unread count drops
+     * by exactly the number of rows it changed, in the same transaction. Returns that number.
+     */
+    @Transactional
+    public int markConversationRead(Long userId, Long otherUserId, Long upTo) {
+        int marked = messageRepository.markConversationReadUpTo(otherUserId, userId,
+                upTo != null ? upTo : Long.MAX_VALUE);
+        if (marked > 0) {
+            conversationSummaryRepository.subtractDirectUnread(userId, otherUserId, marked);
         }
+        return marked;
     }
 
     public Long getUnreadCount(Long userId) {
@@ -8,7 +8,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class NotificationService {
@@ -18,6 +20,9 @@ public class NotificationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PushService pushService;
+
     @Transactional
     public Notification createNotification(Long userId, String type, String message) {
         User user = userRepository.findById(userId)
@@ -29,7 +34,15 @@ public class NotificationService {
         notification.setMessage(message);
         notification.setIsRead(false);
 
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", saved.getId());
+        data.put("type", saved.getType());
+        data.put("message", saved.getMessage());
+        data.put("isRead", saved.getIsRead());
+        data.put("timestamp", saved.getTimestamp());
+        pushService.publishToUsers("notification", data, List.of(userId));
+        return saved;
     }
 
     public List<Notification> getUserNotifications(Long userId) {
@@ -58,10 +71,8 @@ public class NotificationService {
     }
 
     @Transactional
-    public void markAllAsRead(Long userId) {
-        List<Notification> notifications = getUnreadNotifications(userId);
-        notifications.forEach(n -> n.setIsRead(true));
-        notificationRepository.saveAll(notifications);
+    public int markAllAsRead(Long userId) {
+        return notificationRepository.markAllAsRead(userId);
     }
 }
 
@@ -0,0 +1,409 @@
+package com.campusconnect.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.Bits;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import com.campusconnect.dto.PostSearchHit;
+import com.campusconnect.model.Post;
+import com.campusconnect.repository.PostRepository;
+import com.campusconnect.util.CompactBitmap;
+import com.campusconnect.util.TransactionCallbacks;
+
+/**
+ * Embedded Lucene index of posts, stored on disk under posts.search.index-dir (memory-mapped).
+ *
+ * PostService adds and removes posts after each commit. A background reopen thread makes
+ * changes searchable within a second (near-real-time), and the writer commits to disk
+ * periodically and on shutdown. Every field a search result needs is stored in the index,
+ * so searching never loads Post entities. The stored author and group names are copied
+ * at index time, so renaming a group reindexes its posts (usernames cannot change). The
+ * index can be rebuilt from the database in place, without going empty, and it is built
+ * automatically on startup when it is empty.
+ */
+@Service
+public class PostSearchIndex {
+    private static final int REBUILD_PAGE_SIZE = 500;
+    private static final int MAX_RESULT_WINDOW = 10_000;
+    private static final int SNIPPET_LENGTH = 200;
+
+    private static final FieldType CONTENT_TYPE = new FieldType(TextField.TYPE_STORED);
+    static {
+        // Offsets in the postings let the highlighter skip re-analyzing the stored text
+        CONTENT_TYPE.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        CONTENT_TYPE.freeze();
+    }
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Value("${posts.search.index-dir:./data/post-index}")
+    private String indexDir;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private MMapDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path path = Paths.get(indexDir);
+        Files.createDirectories(path);
+        directory = new MMapDirectory(path);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, 1.0, 0.025);
+        reopenThread.setName("post-index-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        writer.close(); // commits pending changes
+        directory.close();
+    }
+
+    /**
+     * Build the index from the database if it is empty (first start, or index directory removed)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0 && postRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Re-add every post from the database, replacing each post's document by id, then drop
+     * documents of posts that no longer exist. Searches keep seeing the old documents until
+     * their replacements are visible. Returns the number of posts indexed.
+     */
+    @Transactional(readOnly = true)
+    public int rebuild() {
+        try {
+            CompactBitmap indexedIds = new CompactBitmap();
+            int page = 0;
+            List<Post> posts;
+            do {
+                posts = postRepository.findAll(PageRequest.of(page++, REBUILD_PAGE_SIZE, Direction.ASC, "id")).getContent();
+                for (Post post : posts) {
+                    writer.updateDocument(idTerm(post.getId()), toDocument(post));
+                    indexedIds.add(post.getId());
+                }
+            } while (posts.size() == REBUILD_PAGE_SIZE);
+            searcherManager.maybeRefreshBlocking();
+            removeDeletedPosts(indexedIds);
+            writer.commit();
+            searcherManager.maybeRefresh();
+            return (int) indexedIds.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rebuild the post index", e);
+        }
+    }
+
+    /**
+     * Delete documents whose post the rebuild did not see and the database no longer has.
+     * Posts created while the rebuild ran were not seen either, but still exist, so they stay.
+     */
+    private void removeDeletedPosts(CompactBitmap indexedIds) throws IOException {
+        List<Long> unseen = new ArrayList<>();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                LeafReader reader = leaf.reader();
+                Bits liveDocs = reader.getLiveDocs();
+                StoredFields storedFields = reader.storedFields();
+                for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                    if (liveDocs == null || liveDocs.get(doc)) {
+                        long postId = Long.parseLong(storedFields.document(doc, Set.of("id")).get("id"));
+                        if (!indexedIds.contains(postId)) {
+                            unseen.add(postId);
+                        }
+                    }
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        for (int from = 0; from < unseen.size(); from += REBUILD_PAGE_SIZE) {
+            List<Long> batch = unseen.subList(from, Math.min(from + REBUILD_PAGE_SIZE, unseen.size()));
+            Set<Long> existing = Set.copyOf(postRepository.findExistingIds(batch));
+            for (Long postId : batch) {
+                if (!existing.contains(postId)) {
+                    writer.deleteDocuments(idTerm(postId));
+                }
+            }
+        }
+    }
+
+    /**
+     * Add or replace a post once the current transaction commits.
+     * The document is built now, while the author and group are still attached.
+     */
+    public void index(Post post) {
+        Document document = toDocument(post);
+        Term id = idTerm(post.getId());
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                writer.updateDocument(id, document);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not index post " + post.getId(), e);
+            }
+        });
+    }
+
+    /**
+     * Re-add every post of the group once the current transaction commits, so results
+     * show the group's new name. Documents are built now, in pages on the caller's
+     * connection; opening a second transaction after commit could exhaust the pool.
+     */
+    public void reindexGroup(Long groupId) {
+        Map<Long, Document> documents = new LinkedHashMap<>();
+        long afterId = 0;
+        List<Post> posts;
+        do {
+            posts = postRepository.findGroupPage(groupId, afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (Post post : posts) {
+                documents.put(post.getId(), toDocument(post));
+                afterId = post.getId();
+            }
+        } while (posts.size() == REBUILD_PAGE_SIZE);
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                for (Map.Entry<Long, Document> entry : documents.entrySet()) {
+                    writer.updateDocument(idTerm(entry.getKey()), entry.getValue());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not reindex the posts of group " + groupId, e);
+            }
+        });
+    }
+
+    /**
+     * Remove a post once the current transaction commits
+     */
+    public void remove(Long postId) {
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                writer.deleteDocuments(idTerm(postId));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not remove post " + postId + " from the index", e);
+            }
+        });
+    }
+
+    /**
+     * Persist recent changes so a crash loses at most one interval of updates
+     * (they can always be recovered with a rebuild)
+     */
+    @Scheduled(fixedDelayString = "${posts.search.commit-interval-ms:30000}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    /**
+     * Ranked page of posts matching the query (title weighs twice as much as content),
+     * or the newest posts if the query is empty. The query supports "phrases",
+     * prefix*, -exclusions and a|b; all other words are required.
+     */
+    public Map<String, Object> search(String queryText, int page, int size) {
+        // In long, since page comes straight from the request and page * size can overflow an int
+        long firstHit = (long) Math.max(page, 0) * size;
+        Map<String, Object> result = new HashMap<>();
+        result.put("page", Math.max(page, 0));
+        result.put("size", size);
+        if (firstHit >= MAX_RESULT_WINDOW) {
+            result.put("totalHits", 0L);
+            result.put("hits", List.of());
+            return result;
+        }
+        int start = (int) firstHit;
+
+        boolean emptyQuery = queryText == null || queryText.trim().isEmpty();
+        Query query;
+        if (emptyQuery) {
+            query = new MatchAllDocsQuery();
+        } else {
+            SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of("title", 2.0f, "content", 1.0f));
+            parser.setDefaultOperator(BooleanClause.Occur.MUST);
+            query = parser.parse(queryText.trim());
+        }
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs top = emptyQuery
+                    ? searcher.search(query, start + size, new Sort(new SortField("createdAt", SortField.Type.LONG, true)))
+                    : searcher.search(query, start + size);
+            ScoreDoc[] pageDocs = start < top.scoreDocs.length
+                    ? Arrays.copyOfRange(top.scoreDocs, start, top.scoreDocs.length)
+                    : new ScoreDoc[0];
+            long totalHits = top.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                    ? top.totalHits.value
+                    : searcher.count(query);
+
+            String[] snippets = new String[pageDocs.length];
+            if (!emptyQuery && pageDocs.length > 0) {
+                UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                        .withFormatter(new DefaultPassageFormatter("<mark>", "</mark>", "... ", true))
+                        .withMaxNoHighlightPassages(1)
+                        .withHandleMultiTermQuery(true)
+                        .build();
+                snippets = highlighter.highlight("content", query, new TopDocs(top.totalHits, pageDocs), 1);
+            }
+
+            StoredFields storedFields = searcher.storedFields();
+            List<PostSearchHit> hits = new ArrayList<>();
+            for (int i = 0; i < pageDocs.length; i++) {
+                Document doc = storedFields.document(pageDocs[i].doc);
+                hits.add(toHit(doc, emptyQuery ? Float.NaN : pageDocs[i].score,
+                        snippets[i] != null ? snippets[i] : leadingSnippet(doc.get("content"))));
+            }
+
+            result.put("totalHits", totalHits);
+            result.put("hits", hits);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Post search failed", e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    // Nothing to recover; the searcher is closed when the manager refreshes
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("indexDir", Paths.get(indexDir).toAbsolutePath().toString());
+        stats.put("documents", writer.getDocStats().numDocs);
+        stats.put("uncommittedChanges", writer.hasUncommittedChanges());
+        return stats;
+    }
+
+    private static Term idTerm(Long postId) {
+        return new Term("id", String.valueOf(postId));
+    }
+
+    private static Document toDocument(Post post) {
+        Document doc = new Document();
+        doc.add(new StringField("id", String.valueOf(post.getId()), Field.Store.YES));
+        if (post.getTitle() != null) {
+            doc.add(new TextField("title", post.getTitle(), Field.Store.YES));
+        }
+        doc.add(new Field("content", post.getContent() != null ? post.getContent() : "", CONTENT_TYPE));
+        if (post.getAuthor() != null) {
+            doc.add(new StoredField("authorId", post.getAuthor().getId()));
+            doc.add(new StoredField("authorName", post.getAuthor().getUsername()));
+        }
+        if (post.getGroup() != null) {
+            doc.add(new StoredField("groupId", post.getGroup().getId()));
+            doc.add(new StoredField("groupName", post.getGroup().getName()));
+        }
+        long createdAt = (post.getCreatedAt() != null ? post.getCreatedAt() : LocalDateTime.now())
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        doc.add(new StoredField("createdAt", createdAt));
+        doc.add(new NumericDocValuesField("createdAt", createdAt));
+        return doc;
+    }
+
+    private static PostSearchHit toHit(Document doc, float score, String snippet) {
+        PostSearchHit hit = new PostSearchHit();
+        hit.setId(Long.valueOf(doc.get("id")));
+        hit.setTitle(doc.get("title"));
+        hit.setSnippet(snippet);
+        hit.setScore(Float.isNaN(score) ? null : score);
+        if (doc.getField("authorId") != null) {
+            hit.setAuthorId(doc.getField("authorId").numericValue().longValue());
+            hit.setAuthorName(doc.get("authorName"));
+        }
+        if (doc.getField("groupId") != null) {
+            hit.setGroupId(doc.getField("groupId").numericValue().longValue());
+            hit.setGroupName(doc.get("groupName"));
+        }
+        long createdAt = doc.getField("createdAt").numericValue().longValue();
+        hit.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAt), ZoneId.systemDefault()));
+        return hit;
+    }
+
+    /**
+     * Start of the post, HTML-escaped like highlighter output, for hits without a content match
+     */
+    private static String leadingSnippet(String content) {
+        if (content == null) {
+            return "";
+        }
+        String lead = content.length() > SNIPPET_LENGTH ? content.substring(0, SNIPPET_LENGTH) + "..." : content;
+        return lead.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&#x27;");
+    }
+}
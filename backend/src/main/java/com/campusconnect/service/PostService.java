@@ -1,6 +1,7 @@
 package com.campusconnect.service;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -15,6 +16,8 @@ import com.campusconnect.repository.UserRepository;
 
 @Service
 public class PostService {
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     @Autowired
     private PostRepository postRepository;
 
@@ -24,6 +27,9 @@ public class PostService {
     @Autowired
     private GroupRepository groupRepository;
 
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
     @Transactional
     public Post createPost(Long authorId, Long groupId, String title, String content) {
         User author = userRepository.findById(authorId)
@@ -37,7 +43,9 @@ public class PostService {
         post.setTitle(title);
         post.setContent(content);
 
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        postSearchIndex.index(saved);
+        return saved;
     }
 
     public List<Post> getPostsByGroup(Long groupId) {
@@ -60,13 +68,14 @@ public class PostService {
             throw new RuntimeException("Only the author can delete this post");
         }
         postRepository.delete(post);
+        postSearchIndex.remove(postId);
     }
 
-    public List<Post> searchPosts(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return postRepository.findAllByOrderByCreatedAtDesc();
-        }
-        return postRepository.searchPosts(query);
+    /**
+     * Ranked, paged post search through the Lucene index (newest posts for an empty query)
+     */
+    public Map<String, Object> searchPosts(String query, int page, int size) {
+        return postSearchIndex.search(query, page, Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE)));
     }
 
     public List<Post> getAllPosts() {
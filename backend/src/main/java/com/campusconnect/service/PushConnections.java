@@ -0,0 +1,310 @@
+package com.campusconnect.service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.campusconnect.dto.PushEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The server-sent event streams open on this instance, by user.
+ *
+ * An open stream is an async request parked in Tomcat: it holds no thread and costs
+ * nothing until an event or the periodic heartbeat is written to it. Events and
+ * heartbeats are queued per stream and written by a small pool of delivery threads,
+ * at most one per stream at a time, so a slow client never holds up the request that
+ * caused the event, the scheduler, or other clients. A stream is dropped once it has
+ * more than max-pending unsent events or one write has run longer than send-timeout-ms.
+ * Group events go to connected members only; membership is checked when the event is
+ * delivered, so joins and leaves apply straight away.
+ */
+@Service
+public class PushConnections {
+    // Queued to complete a stream once the events before it are written
+    private static final SseEmitter.SseEventBuilder COMPLETE = SseEmitter.event();
+
+    @Autowired
+    private GroupMembershipIndex membershipIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${push.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${push.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    @Value("${push.stream.heartbeat-ms:25000}")
+    private long heartbeatMs;
+
+    @Value("${push.stream.max-pending:100}")
+    private int maxPending;
+
+    @Value("${push.stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${push.delivery.threads:4}")
+    private int deliveryThreads;
+
+    @Value("${push.delivery.queue-capacity:10000}")
+    private int deliveryQueueCapacity;
+
+    private final Map<Long, List<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicLong eventsDropped = new AtomicLong();
+    private final AtomicLong streamsDropped = new AtomicLong();
+
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService heartbeatScheduler;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(deliveryThreads, deliveryThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(deliveryQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "push-delivery-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "push-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeatScheduler.shutdownNow();
+        executor.shutdownNow();
+        connectionsByUser.values().forEach(connections ->
+                connections.forEach(connection -> connection.emitter.complete()));
+    }
+
+    /**
+     * Open a stream for the user. Their oldest stream is closed beyond max-per-user.
+     */
+    public SseEmitter open(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(userId, emitter);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> remove(connection));
+
+        List<Connection> connections = connectionsByUser.compute(userId, (id, existing) -> {
+            List<Connection> list = existing != null ? existing : new CopyOnWriteArrayList<>();
+            list.add(connection);
+            return list;
+        });
+        while (connections.size() > maxPerUser) {
+            connections.remove(0).enqueue(null);
+        }
+
+        Map<String, Object> ready = new HashMap<>();
+        ready.put("userId", userId);
+        connection.enqueue(SseEmitter.event().name("ready").data(ready));
+        return emitter;
+    }
+
+    /**
+     * Write the event to every stream it targets on this instance, in the background.
+     * Dropped if the delivery queue is full.
+     */
+    public void deliver(PushEvent event) {
+        try {
+            executor.execute(() -> deliverNow(event));
+        } catch (RejectedExecutionException e) {
+            eventsDropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Keep idle streams from being closed by proxies; a comment line is ignored by clients.
+     * Also drops streams whose current write has been stuck longer than send-timeout-ms.
+     */
+    void heartbeat() {
+        long stuckSince = System.currentTimeMillis() - sendTimeoutMs;
+        connectionsByUser.values().forEach(connections -> connections.forEach(connection -> {
+            long sendStartedAt = connection.sendStartedAt;
+            if (sendStartedAt != 0 && sendStartedAt < stuckSince) {
+                // The write holds the emitter's lock, so leave it to fail on the socket timeout
+                connection.close();
+            } else {
+                connection.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        }));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("users", connectionsByUser.size());
+        stats.put("connections", connectionsByUser.values().stream().mapToInt(List::size).sum());
+        stats.put("deliveryQueued", executor.getQueue().size());
+        stats.put("eventsDropped", eventsDropped.get());
+        stats.put("streamsDropped", streamsDropped.get());
+        return stats;
+    }
+
+    private void deliverNow(PushEvent event) {
+        Set<Long> targets = new HashSet<>();
+        if (event.getUserIds() != null) {
+            targets.addAll(event.getUserIds());
+        }
+        Long groupId = event.getGroupId();
+        if (groupId != null) {
+            // Walk whichever is smaller: the group's members or the connected users
+            if (membershipIndex.memberCount(groupId) < connectionsByUser.size()) {
+                for (long memberId : membershipIndex.memberIds(groupId)) {
+                    if (connectionsByUser.containsKey(memberId)) {
+                        targets.add(memberId);
+                    }
+                }
+            } else {
+                connectionsByUser.keySet().stream()
+                        .filter(userId -> membershipIndex.isMember(groupId, userId))
+                        .forEach(targets::add);
+            }
+        }
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event.getData());
+        } catch (JsonProcessingException e) {
+            return;
+        }
+        for (Long userId : targets) {
+            for (Connection connection : connectionsByUser.getOrDefault(userId, List.of())) {
+                connection.enqueue(SseEmitter.event().name(event.getType()).data(json));
+            }
+        }
+    }
+
+    private void remove(Connection connection) {
+        connectionsByUser.computeIfPresent(connection.userId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    /**
+     * One stream and its unsent events; enqueue(null) completes it after the events
+     * queued before
+     */
+    private class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // When the write in progress started; 0 while idle
+        private volatile long sendStartedAt;
+
+        private Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPending) {
+                close();
+                return;
+            }
+            pending.add(event != null ? event : COMPLETE);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down, or the delivery queue is full; the emitter times out on its own
+                    draining.set(false);
+                    closed = true;
+                    remove(this);
+                }
+            }
+        }
+
+        private void drain() {
+            SseEmitter.SseEventBuilder event;
+            while ((event = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                if (closed || event == COMPLETE) {
+                    break;
+                }
+                sendStartedAt = System.currentTimeMillis();
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; drop the stream
+                    closed = true;
+                    remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                } finally {
+                    sendStartedAt = 0;
+                }
+            }
+            if (closed || event == COMPLETE) {
+                closed = true;
+                remove(this);
+                pending.clear();
+                emitter.complete();
+                return;
+            }
+            draining.set(false);
+            // An event may have been queued after the last poll
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * Stop writing to a stream that cannot keep up. Its emitter is completed by the
+         * delivery thread, after any write in progress finishes or fails.
+         */
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            remove(this);
+            streamsDropped.incrementAndGet();
+            pending.add(COMPLETE);
+            scheduleDrain();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.campusconnect.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.campusconnect.dto.MembershipChange;
+import com.campusconnect.dto.PushEvent;
+import com.campusconnect.util.DatabasePlatform;
+import com.campusconnect.util.TransactionCallbacks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Publishes real-time events (new messages, notifications) to the users they concern.
+ *
+ * On PostgreSQL every instance LISTENs on one channel, and publishing is a pg_notify
+ * inside the caller's transaction: PostgreSQL delivers it to all instances when the
+ * transaction commits and drops it on rollback. Each instance then writes the event to
+ * its own open streams (PushConnections). Notifications are limited to 8000 bytes, so
+ * larger payloads are relayed without their data. On H2 (single instance) events go
+ * straight to the local streams after commit.
+ *
+ * The same channel relays group membership changes (MembershipChange) between
+ * instances, as events of type "membership" that are never sent to clients; each
+ * instance skips its own.
+ *
+ * The listener holds one pooled connection for the life of the application and
+ * reconnects if it is lost.
+ */
+@Service
+public class PushService {
+    private static final int MAX_NOTIFY_BYTES = 7900;
+    private static final int LISTEN_POLL_MS = 10_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+    private static final String MEMBERSHIP_TYPE = "membership";
+
+    @Autowired
+    private PushConnections pushConnections;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${push.relay.channel:campus_push}")
+    private String channel;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile boolean listening;
+    private Thread listener;
+
+    /**
+     * Send an event to each of the users (all of their open streams)
+     */
+    public void publishToUsers(String type, Object data, Collection<Long> userIds) {
+        publish(new PushEvent(type, new LinkedHashSet<>(userIds), null, data));
+    }
+
+    /**
+     * Send an event to every member of the group with an open stream
+     */
+    public void publishToGroup(String type, Object data, Long groupId) {
+        publish(new PushEvent(type, null, groupId, data));
+    }
+
+    /**
+     * Relay a membership change made here to the other instances when the caller's
+     * transaction commits
+     */
+    @EventListener
+    public void relayMembershipChange(MembershipChange change) {
+        if (!databasePlatform.isPostgres() || change.getOrigin() != null) {
+            return;
+        }
+        MembershipChange relayed = new MembershipChange(change.getKind(), change.getGroupId(),
+                change.getUserId(), instanceId);
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel,
+                toJson(new PushEvent(MEMBERSHIP_TYPE, null, null, relayed)));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>(pushConnections.getStats());
+        stats.put("relay", databasePlatform.isPostgres() ? "postgres" : "local");
+        stats.put("listening", listening && listener != null && listener.isAlive());
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListener() {
+        if (!databasePlatform.isPostgres()) {
+            return;
+        }
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new RuntimeException("Invalid push relay channel: " + channel);
+        }
+        listening = true;
+        listener = new Thread(this::listen, "push-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stopListener() {
+        listening = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void publish(PushEvent event) {
+        if (!databasePlatform.isPostgres()) {
+            TransactionCallbacks.afterCommit(() -> pushConnections.deliver(event));
+            return;
+        }
+        String payload = toJson(event);
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_NOTIFY_BYTES) {
+            event.setData(null);
+            payload = toJson(event);
+        }
+        String notification = payload;
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, notification);
+    }
+
+    private void listen() {
+        while (listening) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (listening) {
+                    PGNotification[] notifications = pgConnection.getNotifications(LISTEN_POLL_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        try {
+                            receive(objectMapper.readValue(notification.getParameter(), PushEvent.class));
+                        } catch (IOException | RuntimeException e) {
+                            // Not one of ours, or its handler failed; skip it and keep listening
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!listening) {
+                    return;
+                }
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(PushEvent event) {
+        if (!MEMBERSHIP_TYPE.equals(event.getType())) {
+            pushConnections.deliver(event);
+            return;
+        }
+        MembershipChange change = objectMapper.convertValue(event.getData(), MembershipChange.class);
+        if (!instanceId.equals(change.getOrigin())) {
+            eventPublisher.publishEvent(change);
+        }
+    }
+
+    private String toJson(PushEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize push event", e);
+        }
+    }
+}
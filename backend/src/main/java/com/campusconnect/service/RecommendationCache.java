@@ -0,0 +1,174 @@
+package com.campusconnect.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.campusconnect.util.TransactionCallbacks;
+
+/**
+ * Bounded per-user cache of recommended group ids.
+ *
+ * Entries expire after a TTL and the least recently used user is evicted once the
+ * cache is full. GroupService invalidates a user's entry when they join, leave or
+ * create a group or record a search, and drops every entry that may be affected
+ * when a group changes visibility or status.
+ *
+ * A computation that started before an invalidation covering its user is not cached,
+ * so a stale result can never overwrite a fresh invalidation. Each invalidation takes
+ * the next epoch; the cache remembers the epoch of each user's latest invalidation and
+ * of the latest invalidateAll/invalidateGroup, so invalidating one user does not
+ * discard computations in flight for everyone else.
+ */
+@Service
+public class RecommendationCache {
+    @Value("${recommendations.cache.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${recommendations.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final LinkedHashMap<Long, CachedRecommendations> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long epoch;
+    // Epoch of each user's latest invalidation, oldest first; bounded like the entries
+    private final LinkedHashMap<Long, Long> userInvalidatedAt = new LinkedHashMap<>();
+    // Users not in userInvalidatedAt were last invalidated no later than this
+    private long allInvalidatedAt;
+    private long hits;
+    private long misses;
+    private long sizeEvictions;
+    private long expirations;
+    private long invalidations;
+
+    /**
+     * Cached group ids for the user, or null on a miss
+     */
+    public synchronized List<Long> get(Long userId) {
+        CachedRecommendations cached = entries.get(userId);
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        if (cached.expiresAt < System.currentTimeMillis()) {
+            entries.remove(userId);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return cached.groupIds;
+    }
+
+    /**
+     * Token to pass to put(); invalidating that user, or everyone, in between makes the put a no-op
+     */
+    public synchronized long currentEpoch() {
+        return epoch;
+    }
+
+    public synchronized void put(Long userId, List<Long> groupIds, long computedAtEpoch) {
+        if (computedAtEpoch < userInvalidatedAt.getOrDefault(userId, allInvalidatedAt) || maxUsers <= 0) {
+            return;
+        }
+        entries.put(userId, new CachedRecommendations(List.copyOf(groupIds),
+                System.currentTimeMillis() + ttlSeconds * 1000));
+        Iterator<Map.Entry<Long, CachedRecommendations>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxUsers && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            sizeEvictions++;
+        }
+    }
+
+    /**
+     * Drop a user's recommendations once the current transaction commits
+     */
+    public void invalidateUser(Long userId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                epoch++;
+                userInvalidatedAt.remove(userId);
+                userInvalidatedAt.put(userId, epoch);
+                Iterator<Long> eldest = userInvalidatedAt.values().iterator();
+                while (userInvalidatedAt.size() > Math.max(maxUsers, 1)) {
+                    // Forgetting the oldest is safe: it falls back to a floor at least as late
+                    allInvalidatedAt = eldest.next();
+                    eldest.remove();
+                }
+                if (entries.remove(userId) != null) {
+                    invalidations++;
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop every cached list that contains the group, once the current transaction commits.
+     * Use when a group stops being recommendable (made private, deactivated or deleted).
+     */
+    public void invalidateGroup(Long groupId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                invalidateEveryone();
+                Iterator<CachedRecommendations> it = entries.values().iterator();
+                while (it.hasNext()) {
+                    if (it.next().groupIds.contains(groupId)) {
+                        it.remove();
+                        invalidations++;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop everything once the current transaction commits.
+     * Use when a group becomes recommendable, since it may now belong in anyone's list.
+     */
+    public void invalidateAll() {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                invalidateEveryone();
+                invalidations += entries.size();
+                entries.clear();
+            }
+        });
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long lookups = hits + misses;
+        stats.put("size", entries.size());
+        stats.put("maxUsers", maxUsers);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hits / lookups);
+        stats.put("sizeEvictions", sizeEvictions);
+        stats.put("expirations", expirations);
+        stats.put("invalidations", invalidations);
+        return stats;
+    }
+
+    private void invalidateEveryone() {
+        epoch++;
+        allInvalidatedAt = epoch;
+        userInvalidatedAt.clear();
+    }
+
+    private static final class CachedRecommendations {
+        private final List<Long> groupIds;
+        private final long expiresAt;
+
+        private CachedRecommendations(List<Long> groupIds, long expiresAt) {
+            this.groupIds = groupIds;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
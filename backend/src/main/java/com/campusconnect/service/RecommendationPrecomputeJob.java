@@ -0,0 +1,167 @@
+package com.campusconnect.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import com.campusconnect.repository.UserRepository;
+
+/**
+ * Periodically precomputes recommendations for recently active users into group_recommendations.
+ *
+ * Active users are split into chunks, and each chunk is refreshed on a small fixed-size
+ * pool, one short transaction per user so no user's recommendation_state row stays
+ * locked while the rest of the chunk is computed. The pool's queue is bounded, and when it is full the
+ * scheduler thread runs the chunk itself, so a large user base slows the job down
+ * instead of piling up work in memory. Only one run happens at a time.
+ */
+@Service
+public class RecommendationPrecomputeJob {
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserActivityTracker userActivityTracker;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${recommendations.precompute.enabled:true}")
+    private boolean enabled;
+
+    @Value("${recommendations.precompute.active-window-hours:24}")
+    private long activeWindowHours;
+
+    @Value("${recommendations.precompute.threads:2}")
+    private int threads;
+
+    @Value("${recommendations.precompute.chunk-size:50}")
+    private int chunkSize;
+
+    private ThreadPoolExecutor executor;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Map<String, Object> lastRun = new HashMap<>();
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "recommendation-precompute-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(initialDelayString = "${recommendations.precompute.initial-delay-ms:60000}",
+               fixedDelayString = "${recommendations.precompute.interval-ms:600000}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Refresh recommendations for every user active within the window.
+     * Returns a summary, or a note that a run is already in progress.
+     */
+    public Map<String, Object> run() {
+        if (!running.compareAndSet(false, true)) {
+            Map<String, Object> busy = new HashMap<>();
+            busy.put("message", "A precompute run is already in progress");
+            return busy;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            userActivityTracker.flush();
+            List<Long> userIds = userRepository.findActiveUserIdsSince(
+                    LocalDateTime.now().minusHours(activeWindowHours));
+
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (int from = 0; from < userIds.size(); from += chunkSize) {
+                List<Long> chunk = userIds.subList(from, Math.min(from + chunkSize, userIds.size()));
+                chunks.add(executor.submit(() -> refreshChunk(chunk)));
+            }
+
+            int refreshed = 0;
+            int failedChunks = 0;
+            String lastError = null;
+            for (Future<Integer> chunk : chunks) {
+                try {
+                    refreshed += chunk.get();
+                } catch (ExecutionException e) {
+                    failedChunks++;
+                    lastError = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    lastError = "Interrupted";
+                    break;
+                }
+            }
+
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("finishedAt", LocalDateTime.now());
+            summary.put("activeUsers", userIds.size());
+            summary.put("usersRefreshed", refreshed);
+            summary.put("chunks", chunks.size());
+            summary.put("failedChunks", failedChunks);
+            summary.put("lastError", lastError);
+            summary.put("durationMs", System.currentTimeMillis() - started);
+            lastRun = summary;
+            return summary;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int refreshChunk(List<Long> userIds) {
+        int refreshed = 0;
+        for (Long userId : userIds) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(
+                    status -> groupService.refreshRecommendations(userId)))) {
+                refreshed++;
+            }
+        }
+        return refreshed;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running.get());
+        stats.put("threads", threads);
+        stats.put("chunkSize", chunkSize);
+        stats.put("activeWindowHours", activeWindowHours);
+        stats.put("queuedChunks", executor.getQueue().size());
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+}
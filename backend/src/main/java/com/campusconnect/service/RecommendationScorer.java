@@ -0,0 +1,318 @@
+package com.campusconnect.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.campusconnect.dto.GroupRecommendationCandidate;
+import com.campusconnect.model.Group;
+import com.campusconnect.util.AhoCorasickMatcher;
+
+/**
+ * Keyword scoring for group recommendations, compiled once per request.
+ *
+ * The weights are the same as the original nested contains() loops in
+ * GroupService.getRecommendedGroups. Each keyword set is compiled into an
+ * Aho-Corasick automaton, so "keyword is inside the field" is found in one pass
+ * over the field. A second automaton over the candidates' field values answers
+ * "field is inside a keyword" once per keyword. Candidate fields are lower-cased
+ * once up front, and score() reuses scratch bit sets rather than allocating per keyword.
+ * When the candidates came from the batched query, its per-field matches say which
+ * fields contain a keyword, so the scan is skipped for the fields that contain none.
+ *
+ * Not thread-safe: create one per request.
+ */
+public class RecommendationScorer {
+    private static final int NAME = 0;
+    private static final int COURSE_NAME = 1;
+    private static final int COURSE_CODE = 2;        // lower-cased
+    private static final int COURSE_CODE_TRIMMED = 3; // lower-cased and trimmed
+    private static final int TOPIC = 4;
+
+    private final Map<Long, String[]> normalized = new HashMap<>();
+    // Rows of the batched candidate query by group id; empty when candidates came from the index
+    private final Map<Long, GroupRecommendationCandidate> keywordMatches;
+
+    // Search history (any match counts once)
+    private final FieldMatcher searchedNames;
+    private final FieldMatcher searchedCourseNames;
+    private final FieldMatcher searchedCourseCodes;
+    private final FieldMatcher searchedTopics;
+    // The user's highest-weight general search term (recent and repeated searches weigh most)
+    private final String strongestGeneralSearch;
+
+    // Keywords from the user's groups, courses and searches (every match counts)
+    private final FieldMatcher groupNames;
+    private final FieldMatcher courseNames;
+    private final FieldMatcher courseCodes;
+    private final FieldMatcher topics;
+    private final Set<String> courseCodePrefixes;
+    private final Set<Character> courseCodeFirstChars;
+
+    private final BitSet scratch = new BitSet();
+
+    public RecommendationScorer(List<String> searchedGroupNames, List<String> searchedCourseNameList,
+                                List<String> searchedCourseCodeList, List<String> searchedTopicList,
+                                List<String> generalSearches,
+                                Set<String> groupNameKeywords, Set<String> courseNameKeywords,
+                                Set<String> courseCodeKeywords, Set<String> topicKeywords,
+                                Set<String> courseCodePrefixes, Set<Character> courseCodeFirstChars,
+                                Collection<Group> candidates,
+                                Map<Long, GroupRecommendationCandidate> keywordMatches) {
+        this.keywordMatches = keywordMatches;
+        for (Group group : candidates) {
+            String[] fields = new String[5];
+            fields[NAME] = lower(group.getName());
+            fields[COURSE_NAME] = lower(group.getCourseName());
+            fields[COURSE_CODE] = lower(group.getCourseCode());
+            fields[COURSE_CODE_TRIMMED] = fields[COURSE_CODE] != null ? fields[COURSE_CODE].trim() : null;
+            fields[TOPIC] = lower(group.getTopic());
+            normalized.put(group.getId(), fields);
+        }
+
+        this.searchedNames = new FieldMatcher(lowerAll(searchedGroupNames), values(NAME));
+        this.searchedCourseNames = new FieldMatcher(lowerAll(searchedCourseNameList), values(COURSE_NAME));
+        this.searchedCourseCodes = new FieldMatcher(lowerAll(searchedCourseCodeList), values(COURSE_CODE));
+        this.searchedTopics = new FieldMatcher(lowerAll(searchedTopicList), values(TOPIC));
+        // generalSearches is ordered strongest first
+        this.strongestGeneralSearch = generalSearches.isEmpty() ? null : generalSearches.get(0).toLowerCase();
+
+        this.groupNames = new FieldMatcher(new ArrayList<>(groupNameKeywords), values(NAME));
+        this.courseNames = new FieldMatcher(new ArrayList<>(courseNameKeywords), values(COURSE_NAME));
+        this.courseCodes = new FieldMatcher(new ArrayList<>(courseCodeKeywords), values(COURSE_CODE_TRIMMED));
+        this.topics = new FieldMatcher(new ArrayList<>(topicKeywords), values(TOPIC));
+        this.courseCodePrefixes = courseCodePrefixes;
+        this.courseCodeFirstChars = courseCodeFirstChars;
+    }
+
+    /**
+     * Keyword score for one of the candidates passed to the constructor.
+     * Collaborative filtering and open-seat bonuses are added by the caller.
+     */
+    public Score score(Group group) {
+        Score result = new Score();
+        String[] fields = normalized.get(group.getId());
+        if (fields == null) {
+            return result;
+        }
+        String name = fields[NAME];
+        String courseName = fields[COURSE_NAME];
+        String courseCode = fields[COURSE_CODE];
+        String trimmedCourseCode = fields[COURSE_CODE_TRIMMED];
+        String topic = fields[TOPIC];
+        GroupRecommendationCandidate row = keywordMatches.get(group.getId());
+        boolean queried = row != null;
+
+        // HIGH WEIGHT: Search history matches (user has searched for similar terms)
+        if (name != null && searchedNames.anyRelated(name, scratch)) {
+            result.searchHistory += 18; // User searched for group names like this
+        }
+        if (courseName != null && searchedCourseNames.anyRelated(courseName, scratch)) {
+            result.searchHistory += 18; // User searched for courses like this
+        }
+        if (courseCode != null) {
+            // The first searched code (in history order) that matches decides exact vs partial
+            int first = searchedCourseCodes.firstRelated(courseCode, scratch);
+            if (first >= 0) {
+                result.searchHistory += searchedCourseCodes.keyword(first).equals(courseCode) ? 20 : 15;
+            }
+        }
+        if (topic != null && searchedTopics.anyRelated(topic, scratch)) {
+            result.searchHistory += 12; // User searched for topics like this
+        }
+
+        // General searches (could match any field), strongest term only
+        if (strongestGeneralSearch != null) {
+            if (name != null && name.contains(strongestGeneralSearch)) {
+                result.searchHistory += 15;
+            } else if (courseName != null && courseName.contains(strongestGeneralSearch)) {
+                result.searchHistory += 15;
+            } else if (courseCode != null && courseCode.contains(strongestGeneralSearch)) {
+                result.searchHistory += 15;
+            } else if (topic != null && topic.contains(strongestGeneralSearch)) {
+                result.searchHistory += 12;
+            }
+        }
+
+        // Keywords from the user's groups: exact and partial matches each count
+        if (name != null) {
+            result.keyword += groupNames.sumRelated(name, queried, queried ? row.getNameMatch() : null,
+                    12, 8, scratch);
+        }
+        if (courseName != null) {
+            result.course += courseNames.sumRelated(courseName, queried, queried ? row.getCourseNameMatch() : null,
+                    15, 10, scratch);
+        }
+        if (trimmedCourseCode != null) {
+            // HIGHEST PRIORITY: Course code prefix match (e.g., "MATH 4" matches "MATH 4150")
+            if (!trimmedCourseCode.isEmpty()) {
+                for (String prefix : courseCodePrefixes) {
+                    if (trimmedCourseCode.startsWith(prefix)) {
+                        result.course += 30;
+                        break;
+                    }
+                }
+            }
+            // HIGH PRIORITY: First non-space character match (same department/subject area)
+            if (!trimmedCourseCode.isEmpty() && !courseCodeFirstChars.isEmpty()) {
+                for (int i = 0; i < trimmedCourseCode.length(); i++) {
+                    char ch = trimmedCourseCode.charAt(i);
+                    if (!Character.isWhitespace(ch)) {
+                        if (courseCodeFirstChars.contains(Character.toUpperCase(ch))) {
+                            result.course += 22;
+                        }
+                        break;
+                    }
+                }
+            }
+            // Keywords are trimmed, so one inside the stored code is inside the trimmed code too
+            result.course += courseCodes.sumRelated(trimmedCourseCode, queried,
+                    queried ? row.getCourseCodeMatch() : null, 20, 8, scratch);
+        }
+        if (topic != null) {
+            result.keyword += topics.sumRelated(topic, queried, queried ? row.getTopicMatch() : null,
+                    8, 5, scratch);
+        }
+
+        return result;
+    }
+
+    /**
+     * Keyword score split by the kind of signal that produced it
+     */
+    public static final class Score {
+        private int searchHistory;
+        private int course;
+        private int keyword;
+
+        /** Matches against the user's recent searches */
+        public int getSearchHistory() {
+            return searchHistory;
+        }
+
+        /** Course name, course code, course code prefix and department matches */
+        public int getCourse() {
+            return course;
+        }
+
+        /** Group name and topic matches */
+        public int getKeyword() {
+            return keyword;
+        }
+
+        public int getTotal() {
+            return searchHistory + course + keyword;
+        }
+    }
+
+    private List<String> values(int field) {
+        Set<String> values = new LinkedHashSet<>();
+        for (String[] fields : normalized.values()) {
+            if (fields[field] != null) {
+                values.add(fields[field]);
+            }
+        }
+        return new ArrayList<>(values);
+    }
+
+    private static List<String> lowerAll(List<String> values) {
+        List<String> lowered = new ArrayList<>(values.size());
+        values.forEach(v -> lowered.add(v.toLowerCase()));
+        return lowered;
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase() : null;
+    }
+
+    /**
+     * Relates one field of the candidates to a list of keywords: a keyword is related
+     * to a value when either one contains the other.
+     */
+    private static final class FieldMatcher {
+        private final List<String> keywords;
+        private final Map<String, Integer> keywordIndex = new HashMap<>();
+        private final AhoCorasickMatcher keywordsInValue;
+        // Candidate value -> keywords that contain it
+        private final Map<String, BitSet> keywordsContainingValue = new HashMap<>();
+
+        private FieldMatcher(List<String> keywords, List<String> values) {
+            this.keywords = keywords;
+            for (int i = keywords.size() - 1; i >= 0; i--) {
+                keywordIndex.put(keywords.get(i), i);
+            }
+            this.keywordsInValue = new AhoCorasickMatcher(keywords);
+
+            if (!keywords.isEmpty() && !values.isEmpty()) {
+                AhoCorasickMatcher valuesInKeyword = new AhoCorasickMatcher(values);
+                BitSet found = new BitSet();
+                for (int k = 0; k < keywords.size(); k++) {
+                    found.clear();
+                    valuesInKeyword.findAll(keywords.get(k), found);
+                    for (int v = found.nextSetBit(0); v >= 0; v = found.nextSetBit(v + 1)) {
+                        keywordsContainingValue.computeIfAbsent(values.get(v), x -> new BitSet()).set(k);
+                    }
+                }
+            }
+        }
+
+        private String keyword(int index) {
+            return keywords.get(index);
+        }
+
+        private void related(String value, BitSet out) {
+            related(value, false, null, out);
+        }
+
+        /**
+         * When queried, queryMatch is the batched query's first keyword inside value, or null
+         * if it found none; then the scan for keywords inside value is skipped. A keyword the
+         * query matched always counts, even where the database's LIKE and lower-casing differ
+         * from String.contains.
+         */
+        private void related(String value, boolean queried, String queryMatch, BitSet out) {
+            out.clear();
+            if (!queried || queryMatch != null) {
+                keywordsInValue.findAll(value, out);
+            }
+            if (queryMatch != null) {
+                Integer matched = keywordIndex.get(queryMatch);
+                if (matched != null) {
+                    out.set(matched);
+                }
+            }
+            BitSet containing = keywordsContainingValue.get(value);
+            if (containing != null) {
+                out.or(containing);
+            }
+        }
+
+        private boolean anyRelated(String value, BitSet scratch) {
+            related(value, scratch);
+            return !scratch.isEmpty();
+        }
+
+        private int firstRelated(String value, BitSet scratch) {
+            related(value, scratch);
+            return scratch.nextSetBit(0);
+        }
+
+        /**
+         * exactWeight if value is itself a keyword, plus partialWeight for every other related keyword
+         */
+        private int sumRelated(String value, boolean queried, String queryMatch,
+                               int exactWeight, int partialWeight, BitSet scratch) {
+            related(value, queried, queryMatch, scratch);
+            int related = scratch.cardinality();
+            if (keywordIndex.containsKey(value)) {
+                return exactWeight + partialWeight * (related - 1);
+            }
+            return partialWeight * related;
+        }
+    }
+}
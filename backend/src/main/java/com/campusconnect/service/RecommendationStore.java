@@ -0,0 +1,125 @@
+package com.campusconnect.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.campusconnect.model.GroupRecommendation;
+import com.campusconnect.model.RecommendationState;
+import com.campusconnect.repository.GroupRecommendationRepository;
+import com.campusconnect.repository.RecommendationStateRepository;
+
+/**
+ * Precomputed recommendations in the group_recommendations table.
+ *
+ * RecommendationPrecomputeJob fills the table for recently active users, and
+ * GroupService serves a user's rows while they are fresh. recommendation_state records
+ * when each user was computed, so an empty result is served like any other. Changing a
+ * user's memberships, courses or searches bumps their epoch in the same transaction, and
+ * a computation that read an older epoch is not stored. Invalidation uses the caller's
+ * connection: holding it while opening a second transaction after commit exhausts the
+ * pool under concurrent joins.
+ */
+@Service
+public class RecommendationStore {
+    @Autowired
+    private GroupRecommendationRepository recommendationRepository;
+
+    @Autowired
+    private RecommendationStateRepository stateRepository;
+
+    @Value("${recommendations.precompute.max-age-minutes:60}")
+    private long maxAgeMinutes;
+
+    /**
+     * The user's rows, best first (possibly none), or null if they were never computed,
+     * are older than the max age or were invalidated since
+     */
+    @Transactional(readOnly = true)
+    public List<GroupRecommendation> findFresh(Long userId) {
+        RecommendationState state = stateRepository.find(userId);
+        if (state == null || state.getComputedAt() == null) {
+            return null;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(maxAgeMinutes);
+        if (state.getComputedAt().isBefore(cutoff)) {
+            return null;
+        }
+        if (!state.getEpoch().equals(state.getComputedEpoch())) {
+            return null;
+        }
+        return recommendationRepository.findByUserIdOrderByRankAsc(userId);
+    }
+
+    /**
+     * The user's epoch; read it before computing and pass it to replace
+     */
+    @Transactional(readOnly = true)
+    public long currentEpoch(Long userId) {
+        return stateRepository.currentEpoch(userId);
+    }
+
+    /**
+     * Replace all of a user's rows with a computation made at the given epoch.
+     * Returns false, storing nothing, if the user was invalidated since.
+     */
+    @Transactional
+    public boolean replace(Long userId, List<GroupRecommendation> rows, long epoch) {
+        if (!stateRepository.markComputed(userId, epoch, LocalDateTime.now())) {
+            return false;
+        }
+        recommendationRepository.deleteByUserIds(List.of(userId));
+        recommendationRepository.saveAll(rows);
+        return true;
+    }
+
+    public void invalidateUser(Long userId) {
+        invalidateUsers(List.of(userId));
+    }
+
+    /**
+     * Invalidate the users and drop their rows, as part of the current transaction
+     */
+    @Transactional
+    public void invalidateUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        stateRepository.invalidate(userIds);
+        recommendationRepository.deleteByUserIds(userIds);
+    }
+
+    /**
+     * Invalidate every user recommended the group and drop it from their rows, as part of
+     * the current transaction. Those users are recomputed on their next request.
+     */
+    @Transactional
+    public void invalidateGroup(Long groupId) {
+        stateRepository.invalidateByGroup(groupId);
+        recommendationRepository.deleteByGroupId(groupId);
+    }
+
+    @Transactional
+    public void clear() {
+        recommendationRepository.deleteAllInBatch();
+        stateRepository.deleteAll();
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("rows", recommendationRepository.count());
+        stats.put("users", recommendationRepository.countUsers());
+        stats.put("usersWithNone", stateRepository.countEmpty());
+        stats.put("oldestComputedAt", recommendationRepository.findOldestComputedAt());
+        stats.put("maxAgeMinutes", maxAgeMinutes);
+        return stats;
+    }
+}
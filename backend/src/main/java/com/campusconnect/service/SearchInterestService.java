@@ -0,0 +1,287 @@
+package com.campusconnect.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import com.campusconnect.dto.SearchEvent;
+import com.campusconnect.dto.SearchLogEntry;
+import com.campusconnect.model.SearchHistory;
+import com.campusconnect.model.SearchInterest;
+import com.campusconnect.repository.SearchHistoryRepository;
+import com.campusconnect.repository.SearchInterestRepository;
+
+/**
+ * Per-user search interest profile: normalized term -> exponentially decayed weight, per search type.
+ *
+ * Every tracked search adds 1 to its term's weight, and weights halve every half-life,
+ * so recent and repeated searches rank first. Terms whose weight falls below the
+ * minimum are ignored, and each search type keeps at most max-terms-per-type terms.
+ * Recommendations read the whole profile in one indexed lookup, so its cost does not
+ * depend on how often a user has searched.
+ *
+ * search_history stays as an append-only log. Rows older than the retention window
+ * are deleted nightly.
+ */
+@Service
+public class SearchInterestService {
+    private static final int BACKFILL_PAGE_SIZE = 1000;
+
+    @Autowired
+    private SearchInterestRepository searchInterestRepository;
+
+    @Autowired
+    private SearchHistoryRepository searchHistoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${recommendations.search-interest.half-life-days:7}")
+    private double halfLifeDays;
+
+    @Value("${recommendations.search-interest.min-weight:0.05}")
+    private double minWeight;
+
+    @Value("${recommendations.search-interest.max-terms-per-type:50}")
+    private int maxTermsPerType;
+
+    @Value("${search-history.retention-days:90}")
+    private long retentionDays;
+
+    /**
+     * Lower-case, trim and collapse whitespace so "  MATH  2250" and "math 2250" are one term.
+     * Cut to the term column's length, since lower-casing can lengthen some characters.
+     */
+    public static String normalize(String query) {
+        String term = query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase();
+        return term.length() > SearchHistory.MAX_QUERY_LENGTH ? term.substring(0, SearchHistory.MAX_QUERY_LENGTH) : term;
+    }
+
+    /**
+     * Add a batch of searches, loading each user's profile once
+     */
+    @Transactional
+    public void recordAll(List<SearchEvent> events) {
+        Map<Long, List<SearchEvent>> byUser = new HashMap<>();
+        events.forEach(e -> byUser.computeIfAbsent(e.getUserId(), id -> new ArrayList<>()).add(e));
+
+        for (Map.Entry<Long, List<SearchEvent>> entry : byUser.entrySet()) {
+            Long userId = entry.getKey();
+            Map<String, SearchInterest> profile = new HashMap<>();
+            for (SearchInterest interest : searchInterestRepository.findByUserId(userId)) {
+                profile.put(interest.getSearchType() + "|" + interest.getTerm(), interest);
+            }
+
+            LocalDateTime latest = null;
+            Set<String> changed = new HashSet<>();
+            for (SearchEvent event : entry.getValue()) {
+                String term = normalize(event.getQuery());
+                if (term.isEmpty()) {
+                    continue;
+                }
+                String key = event.getSearchType() + "|" + term;
+                SearchInterest interest = profile.computeIfAbsent(key,
+                        k -> new SearchInterest(null, userId, event.getSearchType(), term, 0.0, event.getSearchedAt()));
+                addSearch(interest, event.getSearchedAt());
+                changed.add(key);
+                if (latest == null || event.getSearchedAt().isAfter(latest)) {
+                    latest = event.getSearchedAt();
+                }
+            }
+            if (changed.isEmpty()) {
+                continue;
+            }
+            searchInterestRepository.saveAll(changed.stream().map(profile::get).toList());
+
+            // Keep the profile bounded: drop the weakest terms of each type beyond the cap
+            List<SearchInterest> kept = capProfile(profile.values(), latest);
+            if (kept.size() < profile.size()) {
+                Set<SearchInterest> keptSet = Collections.newSetFromMap(new IdentityHashMap<>());
+                keptSet.addAll(kept);
+                searchInterestRepository.deleteAll(profile.values().stream().filter(i -> !keptSet.contains(i)).toList());
+            }
+        }
+    }
+
+    /**
+     * The profile a user with no stored interests would have after these searches, capped
+     * like recordAll(). Nothing is saved; used to write generated datasets in bulk.
+     */
+    public List<SearchInterest> buildProfile(Long userId, List<SearchEvent> events) {
+        Map<String, SearchInterest> profile = new HashMap<>();
+        LocalDateTime latest = null;
+        for (SearchEvent event : events) {
+            String term = normalize(event.getQuery());
+            if (term.isEmpty()) {
+                continue;
+            }
+            SearchInterest interest = profile.computeIfAbsent(event.getSearchType() + "|" + term,
+                    k -> new SearchInterest(null, userId, event.getSearchType(), term, 0.0, event.getSearchedAt()));
+            addSearch(interest, event.getSearchedAt());
+            if (latest == null || event.getSearchedAt().isAfter(latest)) {
+                latest = event.getSearchedAt();
+            }
+        }
+        return capProfile(profile.values(), latest);
+    }
+
+    /**
+     * The user's terms per search type, strongest first. Every type is present (possibly empty).
+     */
+    @Transactional(readOnly = true)
+    public Map<SearchHistory.SearchType, List<String>> getInterests(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<SearchHistory.SearchType, List<SearchInterest>> byType = new EnumMap<>(SearchHistory.SearchType.class);
+        for (SearchHistory.SearchType type : SearchHistory.SearchType.values()) {
+            byType.put(type, new ArrayList<>());
+        }
+        for (SearchInterest interest : searchInterestRepository.findByUserId(userId)) {
+            if (weightAt(interest, now) >= minWeight) {
+                byType.get(interest.getSearchType()).add(interest);
+            }
+        }
+
+        Map<SearchHistory.SearchType, List<String>> terms = new EnumMap<>(SearchHistory.SearchType.class);
+        byType.forEach((type, interests) -> terms.put(type, interests.stream()
+                .sorted(Comparator.comparingDouble((SearchInterest i) -> weightAt(i, now)).reversed())
+                .map(SearchInterest::getTerm)
+                .toList()));
+        return terms;
+    }
+
+    /**
+     * Build profiles from the raw log on first start after upgrading (search_interests empty).
+     *
+     * The log is read in keyset pages ordered by user, and each page is written and
+     * committed on its own, so memory holds one page plus the profile of the user it ends
+     * in. That user's searches may continue on the next page, so their profile is carried
+     * over and saved once it is complete. A restart part-way through finds profiles
+     * already stored and does not resume; users not reached yet build theirs from new searches.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillFromHistory() {
+        if (searchInterestRepository.count() > 0) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        Long currentUserId = null;
+        Map<String, SearchInterest> current = new HashMap<>();
+        long afterUserId = 0;
+        long afterId = 0;
+        List<SearchLogEntry> page;
+        do {
+            page = searchHistoryRepository.findLogPageByUser(cutoff, afterUserId, afterId,
+                    PageRequest.of(0, BACKFILL_PAGE_SIZE));
+            List<SearchInterest> completed = new ArrayList<>();
+            for (SearchLogEntry search : page) {
+                afterUserId = search.getUserId();
+                afterId = search.getId();
+                if (!search.getUserId().equals(currentUserId)) {
+                    completed.addAll(capProfile(current.values(), LocalDateTime.now()));
+                    current = new HashMap<>();
+                    currentUserId = search.getUserId();
+                }
+                String term = normalize(search.getQuery());
+                if (term.isEmpty() || search.getSearchedAt() == null) {
+                    continue;
+                }
+                Long userId = search.getUserId();
+                SearchInterest interest = current.computeIfAbsent(search.getSearchType() + "|" + term,
+                        key -> new SearchInterest(null, userId, search.getSearchType(), term, 0.0, search.getSearchedAt()));
+                addSearch(interest, search.getSearchedAt());
+            }
+            if (page.size() < BACKFILL_PAGE_SIZE) {
+                completed.addAll(capProfile(current.values(), LocalDateTime.now()));
+            }
+            saveBackfillPage(completed);
+        } while (page.size() == BACKFILL_PAGE_SIZE);
+    }
+
+    /**
+     * One user's interests, keeping the strongest max-terms-per-type of each search type
+     * by their weight at now. Used by recordAll, buildProfile and the backfill.
+     */
+    private List<SearchInterest> capProfile(Collection<SearchInterest> interests, LocalDateTime now) {
+        Map<SearchHistory.SearchType, List<SearchInterest>> byType = new EnumMap<>(SearchHistory.SearchType.class);
+        interests.forEach(i -> byType.computeIfAbsent(i.getSearchType(), t -> new ArrayList<>()).add(i));
+        List<SearchInterest> kept = new ArrayList<>();
+        for (List<SearchInterest> group : byType.values()) {
+            group.sort(Comparator.comparingDouble((SearchInterest i) -> weightAt(i, now)).reversed());
+            kept.addAll(group.subList(0, Math.min(group.size(), maxTermsPerType)));
+        }
+        return kept;
+    }
+
+    private void saveBackfillPage(List<SearchInterest> interests) {
+        if (interests.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            searchInterestRepository.saveAll(interests);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    /**
+     * Expire raw search_history rows and interests nobody has added to within the retention window
+     */
+    @Scheduled(cron = "${search-history.compaction-cron:0 30 3 * * *}")
+    @Transactional
+    public Map<String, Object> compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        Map<String, Object> result = new HashMap<>();
+        result.put("searchHistoryDeleted", searchHistoryRepository.deleteSearchedBefore(cutoff));
+        result.put("searchInterestsDeleted", searchInterestRepository.deleteUpdatedBefore(cutoff));
+        return result;
+    }
+
+    /**
+     * Decay the stored weight to the search time and add 1. Searches older than the
+     * stored timestamp (out-of-order backfill) are decayed forward instead.
+     */
+    private void addSearch(SearchInterest interest, LocalDateTime searchedAt) {
+        if (searchedAt.isBefore(interest.getUpdatedAt())) {
+            interest.setWeight(interest.getWeight() + decay(searchedAt, interest.getUpdatedAt()));
+        } else {
+            interest.setWeight(weightAt(interest, searchedAt) + 1.0);
+            interest.setUpdatedAt(searchedAt);
+        }
+    }
+
+    private double weightAt(SearchInterest interest, LocalDateTime at) {
+        return interest.getWeight() * decay(interest.getUpdatedAt(), at);
+    }
+
+    private double decay(LocalDateTime from, LocalDateTime to) {
+        double elapsedDays = Math.max(0, Duration.between(from, to).toMillis()) / 86_400_000.0;
+        return Math.pow(0.5, elapsedDays / halfLifeDays);
+    }
+}
@@ -0,0 +1,172 @@
+package com.campusconnect.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import com.campusconnect.dto.SearchEvent;
+import com.campusconnect.model.SearchHistory;
+
+/**
+ * Write-behind buffer for search tracking.
+ *
+ * Search endpoints only offer an event to a bounded queue. If the queue is full the
+ * event is dropped, because search analytics are best-effort and must never slow down
+ * or fail a search. A single background thread flushes the queue through
+ * GroupService.recordSearches once batch-size events are waiting or flush-interval-ms
+ * has passed since the first one. Queries are trimmed and cut to the column length on
+ * the way in. If a batch fails, its events are retried one at a time so a single bad
+ * event only loses itself.
+ */
+@Service
+public class SearchTracker {
+    @Autowired
+    private GroupService groupService;
+
+    @Value("${search-tracking.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${search-tracking.batch-size:200}")
+    private int batchSize;
+
+    @Value("${search-tracking.flush-interval-ms:2000}")
+    private long flushIntervalMs;
+
+    private BlockingQueue<SearchEvent> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile String lastError;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::runWorker, "search-tracker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Flush whatever is still queued before the application context closes
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(flushIntervalMs + 5000);
+        List<SearchEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flush(remaining);
+    }
+
+    /**
+     * Record a search without waiting for the database. Never blocks and never throws.
+     */
+    public void track(Long userId, String query, SearchHistory.SearchType searchType) {
+        if (userId == null || query == null || query.trim().isEmpty()) {
+            return;
+        }
+        String trimmed = query.trim();
+        if (trimmed.length() > SearchHistory.MAX_QUERY_LENGTH) {
+            trimmed = trimmed.substring(0, SearchHistory.MAX_QUERY_LENGTH);
+        }
+        if (queue.offer(new SearchEvent(userId, trimmed, searchType, LocalDateTime.now()))) {
+            accepted.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("batchSize", batchSize);
+        stats.put("flushIntervalMs", flushIntervalMs);
+        stats.put("accepted", accepted.get());
+        stats.put("dropped", dropped.get());
+        stats.put("written", written.get());
+        stats.put("failed", failed.get());
+        stats.put("batches", batches.get());
+        stats.put("lastError", lastError);
+        return stats;
+    }
+
+    private void runWorker() {
+        List<SearchEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                SearchEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushIntervalMs;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    SearchEvent next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // stop() drains and flushes what is left
+                batch.forEach(queue::offer);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<SearchEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            groupService.recordSearches(batch);
+            written.addAndGet(batch.size());
+        } catch (Exception e) {
+            // One bad event (e.g. its user was deleted) must not lose the rest of the batch
+            lastError = e.getMessage();
+            batch.forEach(this::flushOne);
+        }
+        batches.incrementAndGet();
+    }
+
+    private void flushOne(SearchEvent event) {
+        try {
+            groupService.recordSearches(List.of(event));
+            written.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            lastError = e.getMessage();
+        }
+    }
+}
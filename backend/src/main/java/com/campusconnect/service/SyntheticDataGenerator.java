@@ -0,0 +1,831 @@
+package com.campusconnect.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.campusconnect.dto.SearchEvent;
+import com.campusconnect.dto.SyntheticDataRequest;
+import com.campusconnect.model.Course;
+import com.campusconnect.model.Group;
+import com.campusconnect.model.Message;
+import com.campusconnect.model.SearchHistory;
+import com.campusconnect.model.SearchInterest;
+import com.campusconnect.model.User;
+import com.campusconnect.repository.ConversationSummaryRepository;
+import com.campusconnect.repository.CourseRepository;
+import com.campusconnect.repository.UserRepository;
+import com.campusconnect.util.GroupReadCursorSchema;
+import com.campusconnect.util.MemberCountSchema;
+import com.campusconnect.util.ZipfSampler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates production-scale datasets for performance work: users with courses and
+ * interests, groups with long-tailed membership, group and direct messages, and search
+ * history with the matching search interest profiles.
+ *
+ * Everything is drawn from one SplittableRandom seeded by the request, so the same
+ * request yields the same rows. Group popularity and user activity follow Zipf
+ * distributions with configurable skew. Users and groups are created in id order over
+ * the first part of the time window, and messages are written in time order, each
+ * only between users and groups that already exist at its timestamp.
+ *
+ * Rows are written with JDBC batch inserts, one transaction per batch, in SQL that
+ * runs on both PostgreSQL and H2. Only ids and a few small per-row arrays are kept in
+ * memory. In-memory indexes are rebuilt once the dataset is complete.
+ *
+ * Generated users get the hash of a random password that is never kept, so they cannot
+ * log in; their usernames start with "syn&lt;seed in base 36&gt;_", so one seed can be
+ * generated only once per database. Only registered when synthetic-data.enabled=true.
+ */
+@Service
+@ConditionalOnProperty(name = "synthetic-data.enabled", havingValue = "true")
+public class SyntheticDataGenerator {
+
+    private static final int MAX_JOBS_KEPT = 20;
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final int MAX_MEMBERSHIPS_PER_USER = 50;
+    private static final int MEMBER_ATTEMPTS = 8;
+    private static final String EMAIL_DOMAIN = "@synthetic.campusconnect.test";
+
+    // Users and groups are created over this share of the window; activity runs to its end
+    private static final double CREATION_SHARE = 0.6;
+
+    private static final String[] FIRST_NAMES = {
+        "Alex", "Jordan", "Taylor", "Morgan", "Casey", "Riley", "Avery", "Quinn",
+        "Blake", "Cameron", "Dakota", "Emery", "Finley", "Harper", "Hayden", "Jamie",
+        "Kai", "Logan", "Noah", "Parker", "Reese", "River", "Rowan", "Sage", "Skyler",
+        "Maya", "Liam", "Olivia", "Ethan", "Sofia", "Mason", "Ava", "Lucas", "Mia"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis",
+        "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas",
+        "Taylor", "Moore", "Jackson", "Martin", "Lee", "Thompson", "White", "Harris",
+        "Clark", "Lewis", "Walker", "Young", "King", "Wright", "Scott", "Green", "Baker"
+    };
+
+    private static final String[] MAJORS = {
+        "Computer Science", "Information Technology", "Engineering", "Physics", "Mathematics",
+        "Biology", "Chemistry", "Psychology", "Business", "Nursing", "English", "History"
+    };
+
+    private static final String[] SCHOOL_YEARS = {"Freshman", "Sophomore", "Junior", "Senior", "Graduate"};
+
+    private static final String[] INTERESTS = {
+        "Study Groups", "Programming", "Data Structures", "Networking", "Statistics",
+        "Calculus", "Research", "Machine Learning", "Writing", "Lab Work", "Tutoring",
+        "Exam Prep", "Web Development", "Robotics", "Public Speaking"
+    };
+
+    private static final String[] TOPICS = {
+        "Study Group", "Homework Help", "Exam Prep", "Project Collaboration",
+        "Lab Partners", "Discussion Group", "Review Session", "Practice Problems"
+    };
+
+    private static final String[] GENERAL_QUERIES = {
+        "study group", "exam review", "homework", "tutoring", "lab partner", "final exam",
+        "midterm", "project team", "night study", "weekend review", "online group", "library"
+    };
+
+    private static final String[] GROUP_MESSAGES = {
+        "Is anyone free to go over %s before the exam?",
+        "I uploaded my notes for %s, let me know if anything is missing.",
+        "Can we move this week's %s session to Thursday?",
+        "Does anyone understand the last %s assignment?",
+        "Reminder: %s review session tomorrow at 6pm.",
+        "Thanks everyone, the %s practice problems really helped."
+    };
+
+    private static final String[] DIRECT_MESSAGES = {
+        "Hey, are you still in %s this semester?",
+        "Do you want to study for %s together?",
+        "Thanks for the help with %s!",
+        "Did you finish the %s homework yet?",
+        "Are you going to the %s review session?"
+    };
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private SearchInterestService searchInterestService;
+
+    @Autowired
+    private GroupMembershipIndex membershipIndex;
+
+    @Autowired
+    private GroupSearchIndex groupSearchIndex;
+
+    @Autowired
+    private UserDirectoryIndex userDirectoryIndex;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @Autowired
+    private GroupReadCursorSchema groupReadCursorSchema;
+
+    @Autowired
+    private MemberCountSchema memberCountSchema;
+
+    private ExecutorService executor;
+
+    private final Map<String, Job> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+            return size() > MAX_JOBS_KEPT;
+        }
+    });
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "synthetic-data");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Validate the request and queue generation. Returns the job's progress snapshot.
+     */
+    public Map<String, Object> generate(SyntheticDataRequest request) {
+        validate(request);
+        String prefix = "syn" + Long.toUnsignedString(request.getSeed(), 36) + "_";
+        if (userRepository.existsByUsername(prefix + 0)) {
+            throw new RuntimeException("A dataset for seed " + request.getSeed() + " already exists");
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), request, prefix);
+        jobs.put(job.id, job);
+        executor.submit(() -> run(job));
+        return job.toMap();
+    }
+
+    public Map<String, Object> getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Synthetic data job not found: " + jobId);
+        }
+        return job.toMap();
+    }
+
+    public List<Map<String, Object>> getJobs() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        synchronized (jobs) {
+            jobs.values().forEach(job -> result.add(job.toMap()));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void validate(SyntheticDataRequest request) {
+        if (request.getUsers() < 2) {
+            throw new RuntimeException("At least 2 users are required");
+        }
+        if (request.getGroups() < 0 || request.getMessages() < 0 || request.getSearches() < 0) {
+            throw new RuntimeException("Group, message and search counts must not be negative");
+        }
+        if (request.getMembershipsPerUser() < 0 || request.getGroupSkew() < 0 || request.getActivitySkew() < 0) {
+            throw new RuntimeException("Memberships per user and skews must not be negative");
+        }
+        if (request.getDirectMessageRatio() < 0 || request.getDirectMessageRatio() > 1) {
+            throw new RuntimeException("Direct message ratio must be between 0 and 1");
+        }
+        if (request.getDays() < 1) {
+            throw new RuntimeException("Days must be at least 1");
+        }
+        if (request.getBatchSize() < 1 || request.getBatchSize() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("Batch size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+    }
+
+    private void run(Job job) {
+        job.status = JobStatus.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        try {
+            Dataset dataset = new Dataset(job, loadCourses());
+            job.phase = "users";
+            dataset.writeUsers();
+            job.phase = "groups";
+            dataset.writeGroups();
+            job.phase = "messages";
+            dataset.writeMessages();
+            job.phase = "searches";
+            dataset.writeSearches();
+
+            job.phase = "indexes";
+            // Messages and members were written with plain inserts: number the group messages,
+            // give members read cursors, check member counts and recompute the inbox summaries
+            groupReadCursorSchema.reconcile();
+            memberCountSchema.reconcile();
+            transactionTemplate.executeWithoutResult(status -> conversationSummaryRepository.rebuild());
+            membershipIndex.rebuildAll();
+            groupSearchIndex.rebuild();
+            userDirectoryIndex.rebuild();
+            recommendationCache.invalidateAll();
+            job.status = JobStatus.COMPLETED;
+        } catch (RuntimeException e) {
+            job.status = JobStatus.FAILED;
+            job.error = e.getMessage();
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private List<Course> loadCourses() {
+        if (courseRepository.count() == 0) {
+            courseService.initializeCourses();
+        }
+        List<Course> courses = new ArrayList<>(courseRepository.findByActiveTrue());
+        if (courses.isEmpty()) {
+            throw new RuntimeException("No active courses to build groups from");
+        }
+        // Fixed order, so course popularity ranks do not depend on row order in the database
+        courses.sort((a, b) -> a.getCode().compareTo(b.getCode()));
+        return courses;
+    }
+
+    /**
+     * One generation run: the request, its random streams and the ids written so far
+     */
+    private final class Dataset {
+        private final Job job;
+        private final SyntheticDataRequest request;
+        private final List<Course> courses;
+        private final int userCount;
+        private final int groupCount;
+        private final int batchSize;
+        private final LocalDateTime start;
+        private final long spanSeconds;
+        private final long creationSeconds;
+        private final String passwordHash;
+
+        private final SplittableRandom userRandom;
+        private final SplittableRandom groupRandom;
+        private final SplittableRandom messageRandom;
+        private final SplittableRandom searchRandom;
+
+        private final ZipfSampler activity;
+        private final ZipfSampler coursePopularity;
+        private final ZipfSampler groupPopularity;
+
+        private final long[] userIds;
+        private final int[] userCourseOffsets;
+        private int[] userCourses;
+
+        private final long[] groupIds;
+        private final int[] groupCreators;
+        private final int[] groupCourses;
+        private final int[] groupTopics;
+        private int[] memberOffsets;
+        private int[] members;
+
+        private Dataset(Job job, List<Course> courses) {
+            this.job = job;
+            this.request = job.request;
+            this.courses = courses;
+            this.userCount = request.getUsers();
+            this.groupCount = request.getGroups();
+            this.batchSize = request.getBatchSize();
+
+            LocalDate anchor = request.getAnchorDate() != null ? request.getAnchorDate() : LocalDate.now();
+            this.start = anchor.atStartOfDay().minusDays(request.getDays());
+            this.spanSeconds = request.getDays() * 86_400L;
+            this.creationSeconds = Math.max(1, (long) (spanSeconds * CREATION_SHARE));
+            this.passwordHash = passwordEncoder.encode(UUID.randomUUID().toString());
+
+            // Each phase gets its own stream, so changing one count leaves the other phases alone
+            SplittableRandom root = new SplittableRandom(request.getSeed());
+            this.userRandom = root.split();
+            this.groupRandom = root.split();
+            this.messageRandom = root.split();
+            this.searchRandom = root.split();
+
+            this.activity = new ZipfSampler(userCount, request.getActivitySkew());
+            this.coursePopularity = new ZipfSampler(courses.size(), request.getGroupSkew());
+            this.groupPopularity = groupCount > 0 ? new ZipfSampler(groupCount, request.getGroupSkew()) : null;
+
+            this.userIds = new long[userCount];
+            this.userCourseOffsets = new int[userCount + 1];
+            this.userCourses = new int[userCount * 3];
+            this.groupIds = new long[groupCount];
+            this.groupCreators = new int[groupCount];
+            this.groupCourses = new int[groupCount];
+            this.groupTopics = new int[groupCount];
+        }
+
+        private void writeUsers() {
+            for (int from = 0; from < userCount; from += batchSize) {
+                int to = Math.min(userCount, from + batchSize);
+                List<Object[]> rows = new ArrayList<>();
+                List<String[]> interests = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    rows.add(nextUser(i));
+                    interests.add(nextInterests());
+                }
+
+                int first = from;
+                transactionTemplate.executeWithoutResult(status -> {
+                    long[] ids = insertReturningIds(
+                            "INSERT INTO users (username, email, password, first_name, last_name, major, school_year, " +
+                            "visibility, role, is_bot, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                            rows);
+                    System.arraycopy(ids, 0, userIds, first, ids.length);
+
+                    List<Object[]> courseRows = new ArrayList<>();
+                    List<Object[]> interestRows = new ArrayList<>();
+                    for (int i = first; i < to; i++) {
+                        for (int c = userCourseOffsets[i]; c < userCourseOffsets[i + 1]; c++) {
+                            courseRows.add(new Object[] {userIds[i], courses.get(userCourses[c]).getCode()});
+                        }
+                        for (String interest : interests.get(i - first)) {
+                            interestRows.add(new Object[] {userIds[i], interest});
+                        }
+                    }
+                    jdbcTemplate.batchUpdate("INSERT INTO user_courses (user_id, course) VALUES (?, ?)", courseRows);
+                    jdbcTemplate.batchUpdate("INSERT INTO user_interests (user_id, interest) VALUES (?, ?)", interestRows);
+                });
+                job.usersCreated = to;
+            }
+        }
+
+        private Object[] nextUser(int i) {
+            String firstName = FIRST_NAMES[userRandom.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[userRandom.nextInt(LAST_NAMES.length)];
+            User.ProfileVisibility visibility = userRandom.nextDouble() < 0.1
+                    ? User.ProfileVisibility.PRIVATE : User.ProfileVisibility.PUBLIC;
+
+            // 2-5 distinct courses, popular courses more often
+            int courseCount = Math.min(courses.size(), 2 + userRandom.nextInt(4));
+            int offset = userCourseOffsets[i];
+            if (userCourses.length < offset + courseCount) {
+                userCourses = Arrays.copyOf(userCourses, Math.max(userCourses.length * 2, offset + courseCount));
+            }
+            int picked = 0;
+            while (picked < courseCount) {
+                int course = coursePopularity.sample(userRandom);
+                if (!contains(userCourses, offset, offset + picked, course)) {
+                    userCourses[offset + picked++] = course;
+                }
+            }
+            userCourseOffsets[i + 1] = offset + courseCount;
+
+            Timestamp created = timestamp(userCreatedAt(i));
+            return new Object[] {
+                job.prefix + i,
+                job.prefix + i + EMAIL_DOMAIN,
+                passwordHash,
+                firstName,
+                lastName,
+                MAJORS[userRandom.nextInt(MAJORS.length)],
+                SCHOOL_YEARS[userRandom.nextInt(SCHOOL_YEARS.length)],
+                visibility.name(),
+                User.UserRole.STUDENT.name(),
+                request.isBots(),
+                created,
+                created
+            };
+        }
+
+        private String[] nextInterests() {
+            int count = 1 + userRandom.nextInt(3);
+            String[] interests = new String[count];
+            int picked = 0;
+            while (picked < count) {
+                String interest = INTERESTS[userRandom.nextInt(INTERESTS.length)];
+                if (!Arrays.asList(interests).contains(interest)) {
+                    interests[picked++] = interest;
+                }
+            }
+            return interests;
+        }
+
+        /**
+         * Pick creators and courses, assign memberships in memory, then write groups
+         * (with their final member_count) and group_members.
+         */
+        private void writeGroups() {
+            if (groupCount == 0) {
+                memberOffsets = new int[1];
+                members = new int[0];
+                return;
+            }
+
+            for (int g = 0; g < groupCount; g++) {
+                int creator = activity.sampleBelow(groupRandom, usersCreatedBy(groupCreatedAt(g)));
+                groupCreators[g] = creator;
+                // Most groups are for one of the creator's own courses
+                int ownCourses = userCourseOffsets[creator + 1] - userCourseOffsets[creator];
+                groupCourses[g] = groupRandom.nextDouble() < 0.7 && ownCourses > 0
+                        ? userCourses[userCourseOffsets[creator] + groupRandom.nextInt(ownCourses)]
+                        : coursePopularity.sample(groupRandom);
+                groupTopics[g] = groupRandom.nextInt(TOPICS.length);
+            }
+
+            // Memberships: each user joins a geometric number of distinct groups, popular groups more often
+            int[] counts = new int[groupCount];
+            int[] pairUsers = new int[Math.max(16, (int) (userCount * request.getMembershipsPerUser()) + groupCount)];
+            int[] pairGroups = new int[pairUsers.length];
+            int pairs = 0;
+            for (int g = 0; g < groupCount; g++) {
+                pairUsers[pairs] = groupCreators[g];
+                pairGroups[pairs++] = g;
+                counts[g]++;
+            }
+            int maxJoins = Math.min(MAX_MEMBERSHIPS_PER_USER, groupCount);
+            double stop = 1.0 / (1.0 + request.getMembershipsPerUser());
+            int[] joined = new int[maxJoins];
+            for (int u = 0; u < userCount; u++) {
+                int joins = 0;
+                while (joins < maxJoins && groupRandom.nextDouble() >= stop) {
+                    joins++;
+                }
+                int picked = 0;
+                for (int attempt = 0; picked < joins && attempt < joins * 4; attempt++) {
+                    int g = groupPopularity.sample(groupRandom);
+                    if (groupCreators[g] == u || contains(joined, 0, picked, g)) {
+                        continue;
+                    }
+                    joined[picked++] = g;
+                    if (pairs == pairUsers.length) {
+                        pairUsers = Arrays.copyOf(pairUsers, pairs * 2);
+                        pairGroups = Arrays.copyOf(pairGroups, pairs * 2);
+                    }
+                    pairUsers[pairs] = u;
+                    pairGroups[pairs++] = g;
+                    counts[g]++;
+                }
+            }
+
+            // Members per group as one flat array (creator first), for picking message senders
+            memberOffsets = new int[groupCount + 1];
+            for (int g = 0; g < groupCount; g++) {
+                memberOffsets[g + 1] = memberOffsets[g] + counts[g];
+            }
+            members = new int[pairs];
+            int[] next = Arrays.copyOf(memberOffsets, groupCount);
+            for (int p = 0; p < pairs; p++) {
+                members[next[pairGroups[p]]++] = pairUsers[p];
+            }
+
+            for (int from = 0; from < groupCount; from += batchSize) {
+                int to = Math.min(groupCount, from + batchSize);
+                List<Object[]> rows = new ArrayList<>();
+                for (int g = from; g < to; g++) {
+                    rows.add(nextGroup(g, counts[g]));
+                }
+                int first = from;
+                transactionTemplate.executeWithoutResult(status -> {
+                    long[] ids = insertReturningIds(
+                            "INSERT INTO groups (name, description, course_name, course_code, topic, max_size, creator_id, " +
+                            "member_count, version, status, visibility, requires_invite, created_at, updated_at) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?)",
+                            rows);
+                    System.arraycopy(ids, 0, groupIds, first, ids.length);
+                });
+                job.groupsCreated = to;
+            }
+
+            for (int from = 0; from < pairs; from += batchSize) {
+                int to = Math.min(pairs, from + batchSize);
+                List<Object[]> rows = new ArrayList<>();
+                for (int p = from; p < to; p++) {
+                    rows.add(new Object[] {groupIds[pairGroups[p]], userIds[pairUsers[p]]});
+                }
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate("INSERT INTO group_members (group_id, user_id) VALUES (?, ?)", rows));
+                job.membershipsCreated = to;
+            }
+        }
+
+        private Object[] nextGroup(int g, int memberCount) {
+            Course course = courses.get(groupCourses[g]);
+            String topic = TOPICS[groupTopics[g]];
+            // Room to spare in most groups; popular groups are full
+            int maxSize = Math.max(memberCount, 5 + groupRandom.nextInt(26));
+            boolean isPublic = groupRandom.nextDouble() < 0.85;
+            Timestamp created = timestamp(groupCreatedAt(g));
+            return new Object[] {
+                groupName(g),
+                "Synthetic " + topic.toLowerCase() + " for " + course.getName() + " (" + course.getCode() + ")",
+                course.getName(),
+                course.getCode(),
+                topic,
+                maxSize,
+                userIds[groupCreators[g]],
+                memberCount,
+                Group.GroupStatus.ACTIVE.name(),
+                (isPublic ? Group.GroupVisibility.PUBLIC : Group.GroupVisibility.PRIVATE).name(),
+                groupRandom.nextDouble() < 0.2,
+                created,
+                created
+            };
+        }
+
+        private String groupName(int g) {
+            return courses.get(groupCourses[g]).getCode() + " - " + TOPICS[groupTopics[g]] + " " + (g + 1);
+        }
+
+        private void writeMessages() {
+            int total = request.getMessages();
+            int[] argTypes = {Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR,
+                    Types.BOOLEAN, Types.TIMESTAMP};
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < total; i++) {
+                // Evenly spread over the window, in time order
+                long at = (long) ((i + messageRandom.nextDouble()) * spanSeconds / total);
+                int usersSoFar = Math.max(2, usersCreatedBy(at));
+                int groupsSoFar = groupsCreatedBy(at);
+
+                if (groupsSoFar == 0 || messageRandom.nextDouble() < request.getDirectMessageRatio()) {
+                    int sender = activity.sampleBelow(messageRandom, usersSoFar);
+                    int recipient = activity.sampleBelow(messageRandom, usersSoFar);
+                    if (recipient == sender) {
+                        recipient = (sender + 1 + messageRandom.nextInt(usersSoFar - 1)) % usersSoFar;
+                    }
+                    String course = userCourse(sender, messageRandom);
+                    rows.add(new Object[] {userIds[sender], userIds[recipient], null,
+                            String.format(DIRECT_MESSAGES[messageRandom.nextInt(DIRECT_MESSAGES.length)], course),
+                            Message.MessageType.DIRECT.name(), messageRandom.nextDouble() < 0.9,
+                            timestamp(at)});
+                } else {
+                    int g = groupPopularity.sampleBelow(messageRandom, groupsSoFar);
+                    int sender = groupMember(g, usersSoFar);
+                    rows.add(new Object[] {userIds[sender], null, groupIds[g],
+                            String.format(GROUP_MESSAGES[messageRandom.nextInt(GROUP_MESSAGES.length)],
+                                    courses.get(groupCourses[g]).getCode()),
+                            Message.MessageType.GROUP.name(), false, timestamp(at)});
+                }
+
+                if (rows.size() == batchSize || i == total - 1) {
+                    List<Object[]> batch = rows;
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                            "INSERT INTO messages (sender_id, recipient_id, group_id, content, type, is_read, created_at) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?)", batch, argTypes));
+                    job.messagesCreated = i + 1;
+                    rows = new ArrayList<>();
+                }
+            }
+        }
+
+        /**
+         * A member of the group who already exists at the message's time; the creator if
+         * a few random picks all joined later
+         */
+        private int groupMember(int g, int usersSoFar) {
+            int from = memberOffsets[g];
+            int size = memberOffsets[g + 1] - from;
+            for (int attempt = 0; attempt < MEMBER_ATTEMPTS; attempt++) {
+                int member = members[from + messageRandom.nextInt(size)];
+                if (member < usersSoFar) {
+                    return member;
+                }
+            }
+            return groupCreators[g];
+        }
+
+        /**
+         * Searches per user in proportion to their activity rank, each user's in time
+         * order. Interest profiles are built from the same events and written alongside.
+         */
+        private void writeSearches() {
+            int total = request.getSearches();
+            if (total == 0) {
+                return;
+            }
+            List<Object[]> historyRows = new ArrayList<>();
+            List<Object[]> interestRows = new ArrayList<>();
+            for (int u = 0; u < userCount; u++) {
+                double expected = total * activity.probability(u);
+                int count = (int) expected + (searchRandom.nextDouble() < expected - (int) expected ? 1 : 0);
+                if (count > 0) {
+                    long created = userCreatedAt(u);
+                    long[] times = new long[count];
+                    for (int s = 0; s < count; s++) {
+                        times[s] = created + (long) (searchRandom.nextDouble() * (spanSeconds - created));
+                    }
+                    Arrays.sort(times);
+
+                    List<SearchEvent> events = new ArrayList<>(count);
+                    for (long at : times) {
+                        SearchEvent event = nextSearch(u, at);
+                        events.add(event);
+                        historyRows.add(new Object[] {userIds[u], event.getQuery(), event.getSearchType().name(),
+                                Timestamp.valueOf(event.getSearchedAt())});
+                    }
+                    for (SearchInterest interest : searchInterestService.buildProfile(userIds[u], events)) {
+                        interestRows.add(new Object[] {interest.getUserId(), interest.getSearchType().name(),
+                                interest.getTerm(), interest.getWeight(), Timestamp.valueOf(interest.getUpdatedAt())});
+                    }
+                }
+
+                if (historyRows.size() >= batchSize || (u == userCount - 1 && !historyRows.isEmpty())) {
+                    List<Object[]> history = historyRows;
+                    List<Object[]> interests = interestRows;
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.batchUpdate("INSERT INTO search_history (user_id, query, search_type, searched_at) " +
+                                "VALUES (?, ?, ?, ?)", history);
+                        jdbcTemplate.batchUpdate("INSERT INTO search_interests (user_id, search_type, term, weight, updated_at) " +
+                                "VALUES (?, ?, ?, ?, ?)", interests);
+                    });
+                    job.searchesCreated += history.size();
+                    job.interestsCreated += interests.size();
+                    historyRows = new ArrayList<>();
+                    interestRows = new ArrayList<>();
+                }
+            }
+        }
+
+        private SearchEvent nextSearch(int u, long at) {
+            LocalDateTime searchedAt = start.plusSeconds(at);
+            double kind = searchRandom.nextDouble();
+            if (kind < 0.3) {
+                return new SearchEvent(userIds[u], userCourse(u, searchRandom), SearchHistory.SearchType.COURSE_CODE, searchedAt);
+            }
+            if (kind < 0.5) {
+                Course course = courses.get(coursePopularity.sample(searchRandom));
+                return new SearchEvent(userIds[u], course.getName(), SearchHistory.SearchType.COURSE_NAME, searchedAt);
+            }
+            if (kind < 0.65) {
+                return new SearchEvent(userIds[u], TOPICS[searchRandom.nextInt(TOPICS.length)],
+                        SearchHistory.SearchType.TOPIC, searchedAt);
+            }
+            if (kind < 0.8 && groupCount > 0) {
+                int g = groupPopularity.sampleBelow(searchRandom, Math.max(1, groupsCreatedBy(at)));
+                return new SearchEvent(userIds[u], groupName(g), SearchHistory.SearchType.GROUP_NAME, searchedAt);
+            }
+            return new SearchEvent(userIds[u], GENERAL_QUERIES[searchRandom.nextInt(GENERAL_QUERIES.length)],
+                    SearchHistory.SearchType.GENERAL, searchedAt);
+        }
+
+        private String userCourse(int u, SplittableRandom random) {
+            int from = userCourseOffsets[u];
+            return courses.get(userCourses[from + random.nextInt(userCourseOffsets[u + 1] - from)]).getCode();
+        }
+
+        // Seconds after the start of the window; user i and group g are created in index order
+
+        private long userCreatedAt(int i) {
+            return i * creationSeconds / userCount;
+        }
+
+        private long groupCreatedAt(int g) {
+            return g * creationSeconds / groupCount;
+        }
+
+        private int usersCreatedBy(long at) {
+            return (int) Math.min(userCount, at * userCount / creationSeconds + 1);
+        }
+
+        private int groupsCreatedBy(long at) {
+            return groupCount == 0 ? 0 : (int) Math.min(groupCount, at * groupCount / creationSeconds + 1);
+        }
+
+        private Timestamp timestamp(long secondsFromStart) {
+            return Timestamp.valueOf(start.plusSeconds(secondsFromStart));
+        }
+
+        /**
+         * Batch insert rows and return the generated ids in row order
+         */
+        private long[] insertReturningIds(String sql, List<Object[]> rows) {
+            GeneratedKeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[] {"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Object[] row = rows.get(i);
+                            for (int column = 0; column < row.length; column++) {
+                                ps.setObject(column + 1, row[column]);
+                            }
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rows.size();
+                        }
+                    }, keys);
+
+            List<Map<String, Object>> keyList = keys.getKeyList();
+            if (keyList.size() != rows.size()) {
+                throw new RuntimeException("Expected " + rows.size() + " generated ids, got " + keyList.size());
+            }
+            long[] ids = new long[keyList.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = ((Number) keyList.get(i).values().iterator().next()).longValue();
+            }
+            return ids;
+        }
+    }
+
+    private static boolean contains(int[] values, int from, int to, int value) {
+        for (int i = from; i < to; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Progress of one job; written by the job thread, read by status requests
+     */
+    private static final class Job {
+        private final String id;
+        private final SyntheticDataRequest request;
+        private final String prefix;
+        private final LocalDateTime queuedAt = LocalDateTime.now();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile String phase;
+        private volatile long usersCreated;
+        private volatile long groupsCreated;
+        private volatile long membershipsCreated;
+        private volatile long messagesCreated;
+        private volatile long searchesCreated;
+        private volatile long interestsCreated;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(String id, SyntheticDataRequest request, String prefix) {
+            this.id = id;
+            this.request = request;
+            this.prefix = prefix;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("jobId", id);
+            map.put("request", request);
+            map.put("usernamePrefix", prefix);
+            map.put("status", status);
+            map.put("phase", phase);
+            map.put("usersCreated", usersCreated);
+            map.put("groupsCreated", groupsCreated);
+            map.put("membershipsCreated", membershipsCreated);
+            map.put("messagesCreated", messagesCreated);
+            map.put("searchesCreated", searchesCreated);
+            map.put("interestsCreated", interestsCreated);
+            map.put("queuedAt", queuedAt);
+            map.put("startedAt", startedAt);
+            map.put("finishedAt", finishedAt);
+            map.put("error", error);
+            return map;
+        }
+    }
+}
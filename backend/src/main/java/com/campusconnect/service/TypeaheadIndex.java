@@ -0,0 +1,207 @@
+package com.campusconnect.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.campusconnect.dto.TypeaheadSuggestion;
+import com.campusconnect.model.Course;
+import com.campusconnect.repository.CourseRepository;
+import com.campusconnect.util.PrefixTrie;
+
+/**
+ * Typeahead over course codes and names and public group names, served from immutable
+ * prefix tries with no database access.
+ *
+ * Each word of a name is also a key, so "learn" completes "Machine Learning". Matches on
+ * the start of a code or name come first. Courses are in code order, and groups with
+ * more members come first.
+ *
+ * Changes never modify a published trie. The course trie is rebuilt when
+ * CourseService.initializeCourses adds courses. Group changes arrive from GroupSearchIndex,
+ * which already sees every committed group change. They update a source map and mark the
+ * group trie stale. The next lookup rebuilds it and swaps the reference; meanwhile other
+ * lookups keep using the previous trie. A change to a group's member count alone does not
+ * change any key, only the order, so it waits for the periodic ranking refresh instead of
+ * making the next keystroke rebuild the trie.
+ */
+@Service
+public class TypeaheadIndex {
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_KEY_LENGTH = 24;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private volatile PrefixTrie<TypeaheadSuggestion> courseTrie = PrefixTrie.empty();
+    private volatile PrefixTrie<TypeaheadSuggestion> groupTrie = PrefixTrie.empty();
+
+    private final Map<Long, GroupSource> groups = new ConcurrentHashMap<>();
+    private final AtomicBoolean groupsStale = new AtomicBoolean(false);
+    private final AtomicBoolean rankingStale = new AtomicBoolean(false);
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /**
+     * Rebuild the course trie from the active courses
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadCourses() {
+        List<Course> courses = new ArrayList<>(courseRepository.findByActiveTrue());
+        courses.sort(Comparator.comparing(Course::getCode));
+
+        PrefixTrie.Builder<TypeaheadSuggestion> builder = PrefixTrie.builder(MAX_KEY_LENGTH);
+        for (Course course : courses) {
+            int value = builder.addValue(new TypeaheadSuggestion("COURSE", course.getId(), course.getCode(),
+                    course.getCode() + " - " + course.getName()));
+            builder.addKey(value, course.getCode(), true);
+            builder.addKey(value, course.getCode().replace(" ", ""), true); // "csci4463"
+            builder.addKey(value, course.getName(), true);
+            addWordKeys(builder, value, course.getCode());
+            addWordKeys(builder, value, course.getName());
+        }
+        courseTrie = builder.build(MAX_SUGGESTIONS);
+    }
+
+    /**
+     * Add or update a group's suggestion; null name removes it (e.g. no longer public)
+     */
+    public void putGroup(Long groupId, String name, int memberCount) {
+        if (name == null || name.isBlank()) {
+            groups.remove(groupId);
+            groupsStale.set(true);
+            return;
+        }
+        GroupSource previous = groups.put(groupId, new GroupSource(groupId, name, memberCount));
+        if (previous != null && previous.name.equals(name)) {
+            if (previous.memberCount != memberCount) {
+                rankingStale.set(true);
+            }
+        } else {
+            groupsStale.set(true);
+        }
+    }
+
+    public void removeGroup(Long groupId) {
+        groups.remove(groupId);
+        groupsStale.set(true);
+    }
+
+    public void clearGroups() {
+        groups.clear();
+        groupsStale.set(true);
+    }
+
+    /**
+     * Best completions of the prefix, up to limit of each kind
+     */
+    public Map<String, List<TypeaheadSuggestion>> suggest(String prefix, int limit) {
+        int k = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        Map<String, List<TypeaheadSuggestion>> result = new HashMap<>();
+        result.put("courses", courseTrie.complete(prefix, k));
+        result.put("groups", currentGroupTrie().complete(prefix, k));
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("courses", courseTrie.size());
+        stats.put("courseTrieNodes", courseTrie.nodeCount());
+        stats.put("groups", groups.size());
+        stats.put("groupTrieNodes", groupTrie.nodeCount());
+        stats.put("groupTrieStale", groupsStale.get());
+        stats.put("groupRankingStale", rankingStale.get());
+        return stats;
+    }
+
+    /**
+     * Rebuild the group trie in the background if member counts changed since the last build
+     */
+    @Scheduled(initialDelayString = "${typeahead.ranking-refresh-ms:60000}",
+               fixedDelayString = "${typeahead.ranking-refresh-ms:60000}")
+    public void refreshRanking() {
+        if (!rankingStale.get()) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            rebuildGroupTrie();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * The group trie, rebuilt first if groups changed and no other thread is already rebuilding it
+     */
+    private PrefixTrie<TypeaheadSuggestion> currentGroupTrie() {
+        if (groupsStale.get() && rebuildLock.tryLock()) {
+            try {
+                if (groupsStale.get()) {
+                    rebuildGroupTrie();
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return groupTrie;
+    }
+
+    /**
+     * Caller holds rebuildLock
+     */
+    private void rebuildGroupTrie() {
+        // Clear the flags before reading, so a change made during the build marks it stale again
+        groupsStale.set(false);
+        rankingStale.set(false);
+        groupTrie = buildGroupTrie();
+    }
+
+    private PrefixTrie<TypeaheadSuggestion> buildGroupTrie() {
+        List<GroupSource> sources = new ArrayList<>(groups.values());
+        sources.sort(Comparator.comparingInt((GroupSource g) -> g.memberCount).reversed()
+                .thenComparingInt(g -> g.name.length())
+                .thenComparing(g -> g.name));
+
+        PrefixTrie.Builder<TypeaheadSuggestion> builder = PrefixTrie.builder(MAX_KEY_LENGTH);
+        for (GroupSource group : sources) {
+            int value = builder.addValue(new TypeaheadSuggestion("GROUP", group.id, group.name, group.name));
+            builder.addKey(value, group.name, true);
+            addWordKeys(builder, value, group.name);
+        }
+        return builder.build(MAX_SUGGESTIONS);
+    }
+
+    /**
+     * Secondary keys for every word after the first ("Machine Learning" -> "learning")
+     */
+    private static void addWordKeys(PrefixTrie.Builder<TypeaheadSuggestion> builder, int value, String text) {
+        for (int i = 1; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i)) && !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                builder.addKey(value, text.substring(i), false);
+            }
+        }
+    }
+
+    private static final class GroupSource {
+        private final Long id;
+        private final String name;
+        private final int memberCount;
+
+        private GroupSource(Long id, String name, int memberCount) {
+            this.id = id;
+            this.name = name;
+            this.memberCount = memberCount;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.campusconnect.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.campusconnect.repository.UserRepository;
+
+/**
+ * Records when users were last active (authenticated request or login).
+ *
+ * touch() only updates memory and records each user at most once a minute.
+ * A scheduled flush writes users.last_active_at in one transaction, so request
+ * threads never wait on the database.
+ */
+@Service
+public class UserActivityTracker {
+    private static final long TOUCH_INTERVAL_MS = 60_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Long, Long> lastTouched = new ConcurrentHashMap<>();
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public void touch(Long userId) {
+        long now = System.currentTimeMillis();
+        Long previous = lastTouched.get(userId);
+        if (previous != null && now - previous < TOUCH_INTERVAL_MS) {
+            return;
+        }
+        lastTouched.put(userId, now);
+        pending.put(userId, LocalDateTime.now());
+    }
+
+    /**
+     * Write pending activity timestamps
+     */
+    @Scheduled(fixedDelayString = "${recommendations.activity.flush-interval-ms:60000}")
+    @Transactional
+    public int flush() {
+        int written = 0;
+        for (Long userId : pending.keySet()) {
+            LocalDateTime seenAt = pending.remove(userId);
+            if (seenAt != null) {
+                written += userRepository.updateLastActiveAt(userId, seenAt);
+            }
+        }
+        long now = System.currentTimeMillis();
+        lastTouched.values().removeIf(touched -> now - touched >= TOUCH_INTERVAL_MS);
+        return written;
+    }
+}
@@ -0,0 +1,336 @@
+package com.campusconnect.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.campusconnect.dto.UserSummary;
+import com.campusconnect.model.User;
+import com.campusconnect.repository.UserRepository;
+import com.campusconnect.util.TransactionCallbacks;
+
+/**
+ * In-memory user directory: an inverted index over first name, last name, username,
+ * major, interests, skills and courses.
+ *
+ * Searchable values are lower-cased and broken into n-grams of length 1 to 3, the same
+ * scheme GroupSearchIndex uses, so substring queries intersect a few posting lists and
+ * verify the survivors instead of scanning every user. Exact course and skill lookups
+ * have their own posting lists. Each entry keeps the profile fields search results
+ * return, so reads never touch the users table.
+ *
+ * Built once at startup (three queries for the element collections, not one per user)
+ * and kept current by UserService, AuthService and the bot utilities after each commit.
+ */
+@Service
+public class UserDirectoryIndex {
+    private static final int MAX_GRAM = 3;
+
+    public enum MatchMode {
+        /** The query occurs anywhere in a value */
+        SUBSTRING,
+        /** A value, or a word within it, starts with the query */
+        PREFIX
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<String, Set<Long>> byCourse = new HashMap<>();
+    private final Map<String, Set<Long>> bySkill = new HashMap<>();
+
+    /**
+     * Load every user and their interests, skills and courses from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Long, Set<String>> interests = groupPairs(userRepository.findAllInterestPairs());
+        Map<Long, Set<String>> skills = groupPairs(userRepository.findAllSkillPairs());
+        Map<Long, Set<String>> courses = groupPairs(userRepository.findAllCoursePairs());
+
+        List<Entry> loaded = new ArrayList<>();
+        for (User user : userRepository.findAll()) {
+            loaded.add(new Entry(user,
+                    interests.getOrDefault(user.getId(), Collections.emptySet()),
+                    skills.getOrDefault(user.getId(), Collections.emptySet()),
+                    courses.getOrDefault(user.getId(), Collections.emptySet())));
+        }
+
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            postings.clear();
+            byCourse.clear();
+            bySkill.clear();
+            loaded.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * (Re)index a user once the current transaction commits.
+     * The snapshot is taken now, while the element collections are still attached.
+     */
+    public void index(User user) {
+        Entry entry = new Entry(user, user.getInterests(), user.getSkills(), user.getCourses());
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                drop(entry.summary.getId());
+                put(entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Remove users once the current transaction commits
+     */
+    public void removeAll(Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                ids.forEach(this::drop);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Users with any indexed field matching the query (case-insensitive).
+     * Exact value matches rank first, then prefix matches, then other substring matches;
+     * ties are broken by username. An empty query matches everyone.
+     */
+    public Page<UserSummary> search(String query, MatchMode mode, boolean includeBots, int page, int size) {
+        String keyword = query == null ? "" : query.trim().toLowerCase();
+        int maxRank = mode == MatchMode.PREFIX ? 1 : 2;
+        Map<Entry, Integer> ranks = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Long userId : candidates(keyword)) {
+                Entry entry = entries.get(userId);
+                if (includeBots || !entry.isBot) {
+                    int rank = entry.rank(keyword);
+                    if (rank <= maxRank) {
+                        ranks.put(entry, rank);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Entry> matches = new ArrayList<>(ranks.keySet());
+        matches.sort(Comparator.comparingInt((Entry e) -> ranks.get(e)).thenComparing(e -> e.username));
+        return page(matches, page, size);
+    }
+
+    /**
+     * Users taking exactly this course (case-sensitive, as stored), by username
+     */
+    public Page<UserSummary> findByCourse(String course, boolean includeBots, int page, int size) {
+        return findExact(byCourse, course, includeBots, page, size);
+    }
+
+    /**
+     * Users listing exactly this skill (case-sensitive, as stored), by username
+     */
+    public Page<UserSummary> findBySkill(String skill, boolean includeBots, int page, int size) {
+        return findExact(bySkill, skill, includeBots, page, size);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Page<UserSummary> findExact(Map<String, Set<Long>> postingsByValue, String value,
+                                        boolean includeBots, int page, int size) {
+        List<Entry> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long userId : postingsByValue.getOrDefault(value, Collections.emptySet())) {
+                Entry entry = entries.get(userId);
+                if (includeBots || !entry.isBot) {
+                    matches.add(entry);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparing(e -> e.username));
+        return page(matches, page, size);
+    }
+
+    private static Page<UserSummary> page(List<Entry> sorted, int page, int size) {
+        int from = (int) Math.min((long) page * size, sorted.size());
+        int to = Math.min(from + size, sorted.size());
+        List<UserSummary> content = sorted.subList(from, to).stream().map(e -> e.summary).toList();
+        return new PageImpl<>(content, PageRequest.of(page, size), sorted.size());
+    }
+
+    /**
+     * Ids whose n-grams cover the keyword; a superset of the real matches, checked by Entry.rank()
+     */
+    private Collection<Long> candidates(String keyword) {
+        if (keyword.isEmpty()) {
+            return entries.keySet();
+        }
+        if (keyword.length() <= MAX_GRAM) {
+            return postings.getOrDefault(keyword, Collections.emptySet());
+        }
+
+        // Intersect trigram postings, starting from the rarest one
+        List<Set<Long>> lists = new ArrayList<>();
+        for (int i = 0; i + MAX_GRAM <= keyword.length(); i++) {
+            Set<Long> posting = postings.get(keyword.substring(i, i + MAX_GRAM));
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            lists.add(posting);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        List<Long> result = new ArrayList<>();
+        outer:
+        for (Long userId : lists.get(0)) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(userId)) {
+                    continue outer;
+                }
+            }
+            result.add(userId);
+        }
+        return result;
+    }
+
+    private void put(Entry entry) {
+        Long id = entry.summary.getId();
+        entries.put(id, entry);
+        for (String gram : entry.grams()) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+        entry.summary.getCourses().forEach(c -> byCourse.computeIfAbsent(c, k -> new HashSet<>()).add(id));
+        entry.summary.getSkills().forEach(s -> bySkill.computeIfAbsent(s, k -> new HashSet<>()).add(id));
+    }
+
+    private void drop(Long userId) {
+        Entry existing = entries.remove(userId);
+        if (existing == null) {
+            return;
+        }
+        for (String gram : existing.grams()) {
+            removePosting(postings, gram, userId);
+        }
+        existing.summary.getCourses().forEach(c -> removePosting(byCourse, c, userId));
+        existing.summary.getSkills().forEach(s -> removePosting(bySkill, s, userId));
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postingsByKey, String key, Long userId) {
+        Set<Long> posting = postingsByKey.get(key);
+        if (posting != null) {
+            posting.remove(userId);
+            if (posting.isEmpty()) {
+                postingsByKey.remove(key);
+            }
+        }
+    }
+
+    private static Map<Long, Set<String>> groupPairs(List<Object[]> pairs) {
+        Map<Long, Set<String>> grouped = new HashMap<>();
+        for (Object[] pair : pairs) {
+            grouped.computeIfAbsent((Long) pair[0], id -> new HashSet<>()).add((String) pair[1]);
+        }
+        return grouped;
+    }
+
+    /**
+     * Immutable snapshot of a user's directory fields
+     */
+    private static final class Entry {
+        private final UserSummary summary;
+        private final String username; // lower-cased, for ordering
+        private final boolean isBot;
+        // Lower-cased searchable values
+        private final List<String> values = new ArrayList<>();
+
+        private Entry(User user, Set<String> interests, Set<String> skills, Set<String> courses) {
+            this.summary = new UserSummary(user.getId(), user.getUsername(), user.getEmail(),
+                    user.getFirstName(), user.getLastName(), user.getMajor(),
+                    Set.copyOf(interests), Set.copyOf(skills), Set.copyOf(courses));
+            this.username = user.getUsername().toLowerCase();
+            this.isBot = Boolean.TRUE.equals(user.getIsBot());
+            addValue(user.getFirstName());
+            addValue(user.getLastName());
+            addValue(user.getUsername());
+            addValue(user.getMajor());
+            interests.forEach(this::addValue);
+            skills.forEach(this::addValue);
+            courses.forEach(this::addValue);
+        }
+
+        private void addValue(String value) {
+            if (value != null) {
+                values.add(value.toLowerCase());
+            }
+        }
+
+        /**
+         * 0 if a value equals the keyword, 1 if a value or one of its words starts with it,
+         * 2 if it only occurs inside a value, 3 if it does not occur at all
+         */
+        private int rank(String keyword) {
+            int best = 3;
+            for (String value : values) {
+                if (value.equals(keyword)) {
+                    return 0;
+                }
+                int at = value.indexOf(keyword);
+                while (at >= 0 && best > 1) {
+                    best = at == 0 || !Character.isLetterOrDigit(value.charAt(at - 1)) ? 1 : 2;
+                    at = value.indexOf(keyword, at + 1);
+                }
+            }
+            return best;
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            for (String value : values) {
+                for (int n = 1; n <= MAX_GRAM; n++) {
+                    for (int i = 0; i + n <= value.length(); i++) {
+                        grams.add(value.substring(i, i + n));
+                    }
+                }
+            }
+            return grams;
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package com.campusconnect.service;
 
+import com.campusconnect.dto.UserSummary;
 import com.campusconnect.model.User;
 import com.campusconnect.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Set;
 
 @Service
 public class UserService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDirectoryIndex userDirectoryIndex;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    private RecommendationStore recommendationStore;
+
     public User getCurrentUser(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
@@ -38,6 +50,8 @@ public class UserService {
         if (bio != null) user.setBio(bio);
         if (interests != null) user.setInterests(interests);
         if (skills != null) user.setSkills(skills);
+        // Courses feed the user's recommendations
+        boolean coursesChanged = courses != null && !courses.equals(user.getCourses());
         if (courses != null) user.setCourses(courses);
         if (visibility != null) user.setVisibility(visibility);
         if (birthday != null) user.setBirthday(birthday);
@@ -46,36 +60,32 @@ public class UserService {
         if (location != null) user.setLocation(location);
         if (linkedin != null) user.setLinkedin(linkedin);
         if (github != null) user.setGithub(github);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDirectoryIndex.index(saved);
+        if (coursesChanged) {
+            recommendationCache.invalidateUser(userId);
+            recommendationStore.invalidateUser(userId);
+        }
+        return saved;
     }
 
-    public List<User> searchUsers(String query) {
-        return userRepository.findAll().stream()
-                .filter(user -> !user.getIsBot()) // Exclude bots
-                .filter(user -> 
-                    (user.getFirstName() != null && user.getFirstName().toLowerCase().contains(query.toLowerCase())) ||
-                    (user.getLastName() != null && user.getLastName().toLowerCase().contains(query.toLowerCase())) ||
-                    (user.getMajor() != null && user.getMajor().toLowerCase().contains(query.toLowerCase())) ||
-                    (user.getUsername().toLowerCase().contains(query.toLowerCase())) ||
-                    user.getInterests().stream().anyMatch(i -> i.toLowerCase().contains(query.toLowerCase())) ||
-                    user.getSkills().stream().anyMatch(s -> s.toLowerCase().contains(query.toLowerCase())) ||
-                    user.getCourses().stream().anyMatch(c -> c.toLowerCase().contains(query.toLowerCase()))
-                )
-                .toList();
+    /**
+     * Directory search over names, username, major, interests, skills and courses (bots excluded).
+     * Served from UserDirectoryIndex, best match first.
+     */
+    public Page<UserSummary> searchUsers(String query, UserDirectoryIndex.MatchMode mode, int page, int size) {
+        return userDirectoryIndex.search(query, mode, false, Math.max(page, 0), clampPageSize(size));
     }
 
-    public List<User> findUsersByCourse(String course) {
-        return userRepository.findAll().stream()
-                .filter(user -> !user.getIsBot()) // Exclude bots
-                .filter(user -> user.getCourses().contains(course))
-                .toList();
+    public Page<UserSummary> findUsersByCourse(String course, int page, int size) {
+        return userDirectoryIndex.findByCourse(course, false, Math.max(page, 0), clampPageSize(size));
     }
 
-    public List<User> findUsersBySkill(String skill) {
-        return userRepository.findAll().stream()
-                .filter(user -> !user.getIsBot()) // Exclude bots
-                .filter(user -> user.getSkills().contains(skill))
-                .toList();
+    public Page<UserSummary> findUsersBySkill(String skill, int page, int size) {
+        return userDirectoryIndex.findBySkill(skill, false, Math.max(page, 0), clampPageSize(size));
     }
-}
 
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+}
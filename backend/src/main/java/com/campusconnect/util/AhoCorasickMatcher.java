@@ -0,0 +1,120 @@
+package com.campusconnect.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over a fixed list of patterns.
+ *
+ * findAll() reports which patterns occur anywhere in a text in a single pass over
+ * the text, regardless of how many patterns there are. Pattern indices follow the
+ * order of the list passed to the constructor. Matching is exact (callers normalize
+ * case themselves) and does not allocate.
+ */
+public class AhoCorasickMatcher {
+    private static final int ROOT = 0;
+
+    // (state << 16 | char) -> child state + 1
+    private final LongIntHashMap transitions = new LongIntHashMap();
+    private final int[] failure;
+    // Nearest state on the failure chain (including itself) that ends a pattern, or -1
+    private final int[] outputLink;
+    private final int[][] outputs;
+    private final BitSet emptyPatterns = new BitSet();
+
+    public AhoCorasickMatcher(List<String> patterns) {
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        nodeOutputs.add(new ArrayList<>());
+        int states = 1;
+
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            if (pattern.isEmpty()) {
+                emptyPatterns.set(p);
+                continue;
+            }
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                long key = key(state, pattern.charAt(i));
+                int next = transitions.get(key) - 1;
+                if (next < 0) {
+                    next = states++;
+                    transitions.addTo(key, next + 1);
+                    nodeOutputs.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            nodeOutputs.get(state).add(p);
+        }
+
+        outputs = new int[states][];
+        for (int s = 0; s < states; s++) {
+            outputs[s] = nodeOutputs.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Children of every state, so failure links can be computed breadth-first
+        List<List<long[]>> children = new ArrayList<>();
+        for (int s = 0; s < states; s++) {
+            children.add(new ArrayList<>());
+        }
+        transitions.forEach((key, child) -> children.get((int) (key >>> 16)).add(new long[] {key & 0xFFFF, child - 1}));
+
+        failure = new int[states];
+        outputLink = new int[states];
+        outputLink[ROOT] = -1;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (long[] edge : children.get(ROOT)) {
+            int child = (int) edge[1];
+            failure[child] = ROOT;
+            outputLink[child] = outputs[child].length > 0 ? child : -1;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (long[] edge : children.get(state)) {
+                char c = (char) edge[0];
+                int child = (int) edge[1];
+                int fallback = failure[state];
+                while (fallback != ROOT && step(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int target = step(fallback, c);
+                failure[child] = target >= 0 ? target : ROOT;
+                outputLink[child] = outputs[child].length > 0 ? child : outputLink[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Set the index of every pattern that occurs in text. Existing bits in out are kept.
+     */
+    public void findAll(CharSequence text, BitSet out) {
+        out.or(emptyPatterns);
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next = step(state, c);
+            while (next < 0 && state != ROOT) {
+                state = failure[state];
+                next = step(state, c);
+            }
+            state = next >= 0 ? next : ROOT;
+            for (int s = outputLink[state]; s >= 0; s = outputLink[failure[s]]) {
+                for (int p : outputs[s]) {
+                    out.set(p);
+                }
+            }
+        }
+    }
+
+    private int step(int state, char c) {
+        return transitions.get(key(state, c)) - 1;
+    }
+
+    private static long key(int state, char c) {
+        return ((long) state << 16) | c;
+    }
+}
@@ -0,0 +1,288 @@
+package com.campusconnect.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Compressed bitmap of non-negative ids, laid out the way Roaring bitmaps are.
+ *
+ * Ids are split into a high part (id >>> 16) and a low 16-bit part. Each high part
+ * present gets a container for its low parts: a sorted char array while it holds at
+ * most 4096 values (2 bytes per id), or a fixed 8 KB bitset once it is denser.
+ * Containers are kept sorted by high part, and ids allocated from one sequence share
+ * very few of them, so contains/add/remove are a short binary search plus an array
+ * or bit lookup. The cardinality is tracked, so size() is constant-time.
+ *
+ * Not thread-safe; callers guard it with their own lock.
+ */
+public final class CompactBitmap {
+    private static final int ARRAY_MAX = 4096;
+
+    private long[] keys = new long[0];
+    private Container[] containers = new Container[0];
+    private int size;
+    private long cardinality;
+
+    public boolean contains(long id) {
+        int at = find(id >>> 16);
+        return at >= 0 && containers[at].contains((char) id);
+    }
+
+    /**
+     * Add an id; returns false if it was already present
+     */
+    public boolean add(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Negative id: " + id);
+        }
+        long high = id >>> 16;
+        int at = find(high);
+        if (at < 0) {
+            at = -at - 1;
+            insertContainer(at, high, new ArrayContainer());
+        }
+        Container container = containers[at];
+        if (!container.add((char) id)) {
+            return false;
+        }
+        if (container instanceof ArrayContainer array && array.count > ARRAY_MAX) {
+            containers[at] = array.toBitmap();
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * Remove an id; returns false if it was not present
+     */
+    public boolean remove(long id) {
+        int at = find(id >>> 16);
+        if (at < 0 || !containers[at].remove((char) id)) {
+            return false;
+        }
+        Container container = containers[at];
+        if (container.cardinality() == 0) {
+            removeContainer(at);
+        } else if (container instanceof BitmapContainer bitmap && bitmap.count <= ARRAY_MAX) {
+            containers[at] = bitmap.toArray();
+        }
+        cardinality--;
+        return true;
+    }
+
+    public long size() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Visit every id in ascending order
+     */
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    public long[] toArray() {
+        long[] ids = new long[(int) cardinality];
+        int[] next = {0};
+        forEach(id -> ids[next[0]++] = id);
+        return ids;
+    }
+
+    /**
+     * Approximate heap footprint of the containers, for stats
+     */
+    public long sizeInBytes() {
+        long bytes = size * 12L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Number of containers currently held as bitsets rather than arrays
+     */
+    int bitmapContainers() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (containers[i] instanceof BitmapContainer) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int find(long high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insertContainer(int at, long high, Container container) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, at, keys, at + 1, size - at);
+        System.arraycopy(containers, at, containers, at + 1, size - at);
+        keys[at] = high;
+        containers[at] = container;
+        size++;
+    }
+
+    private void removeContainer(int at) {
+        System.arraycopy(keys, at + 1, keys, at, size - at - 1);
+        System.arraycopy(containers, at + 1, containers, at, size - at - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private abstract static class Container {
+        abstract boolean contains(char low);
+
+        abstract boolean add(char low);
+
+        abstract boolean remove(char low);
+
+        abstract int cardinality();
+
+        abstract void forEach(long base, LongConsumer action);
+
+        abstract long sizeInBytes();
+    }
+
+    /**
+     * Sparse container: sorted low parts
+     */
+    private static final class ArrayContainer extends Container {
+        private char[] values = new char[4];
+        private int count;
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, count, low) >= 0;
+        }
+
+        @Override
+        boolean add(char low) {
+            int at = Arrays.binarySearch(values, 0, count, low);
+            if (at >= 0) {
+                return false;
+            }
+            at = -at - 1;
+            if (count == values.length) {
+                values = Arrays.copyOf(values, Math.min(count * 2, ARRAY_MAX + 1));
+            }
+            System.arraycopy(values, at, values, at + 1, count - at);
+            values[at] = low;
+            count++;
+            return true;
+        }
+
+        @Override
+        boolean remove(char low) {
+            int at = Arrays.binarySearch(values, 0, count, low);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(values, at + 1, values, at, count - at - 1);
+            count--;
+            return true;
+        }
+
+        @Override
+        int cardinality() {
+            return count;
+        }
+
+        @Override
+        void forEach(long base, LongConsumer action) {
+            for (int i = 0; i < count; i++) {
+                action.accept(base | values[i]);
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16L + values.length * 2L;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < count; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * Dense container: one bit per possible low part
+     */
+    private static final class BitmapContainer extends Container {
+        private final long[] words = new long[1024];
+        private int count;
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        boolean add(char low) {
+            long before = words[low >>> 6];
+            long after = before | (1L << low);
+            words[low >>> 6] = after;
+            if (before == after) {
+                return false;
+            }
+            count++;
+            return true;
+        }
+
+        @Override
+        boolean remove(char low) {
+            long before = words[low >>> 6];
+            long after = before & ~(1L << low);
+            words[low >>> 6] = after;
+            if (before == after) {
+                return false;
+            }
+            count--;
+            return true;
+        }
+
+        @Override
+        int cardinality() {
+            return count;
+        }
+
+        @Override
+        void forEach(long base, LongConsumer action) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16L + words.length * 8L;
+        }
+
+        private ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[Math.max(4, count)];
+            forEach(0, low -> array.values[array.count++] = (char) low);
+            return array;
+        }
+    }
+}
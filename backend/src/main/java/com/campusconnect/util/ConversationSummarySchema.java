@@ -0,0 +1,44 @@
+package com.campusconnect.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.campusconnect.repository.ConversationSummaryRepository;
+
+/**
+ * Builds conversation_summary for messages that predate it.
+ *
+ * ddl-auto creates the table empty. If there are messages but no summaries on startup,
+ * every row is computed from messages and group_members with INSERT ... SELECTs.
+ * Unread counts of group conversations come from group_read_cursors instead.
+ *
+ * Group rows used to carry the last message themselves. ddl-auto never relaxes NOT NULL,
+ * so the last_* columns are made nullable here for the membership-only rows, and groups'
+ * last messages and missing member rows are filled in once.
+ */
+@Component
+public class ConversationSummarySchema {
+    @Autowired
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        for (String column : new String[] {"last_message_id", "last_sender_id", "last_message_at"}) {
+            jdbcTemplate.execute("ALTER TABLE conversation_summary ALTER COLUMN " + column + " DROP NOT NULL");
+        }
+        boolean hasMessages = !jdbcTemplate.queryForList("SELECT id FROM messages LIMIT 1", Long.class).isEmpty();
+        if (hasMessages && conversationSummaryRepository.isEmpty()) {
+            conversationSummaryRepository.rebuild();
+        } else {
+            conversationSummaryRepository.backfillGroups();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.campusconnect.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells services which database they are talking to, so they can pick between
+ * PostgreSQL-specific native queries and their H2-compatible fallbacks.
+ */
+@Component
+public class DatabasePlatform {
+    @Autowired
+    private DataSource dataSource;
+
+    private volatile String productName;
+
+    public boolean isPostgres() {
+        return getProductName().toLowerCase().contains("postgres");
+    }
+
+    public boolean isH2() {
+        return getProductName().toLowerCase().contains("h2");
+    }
+
+    public String getProductName() {
+        if (productName == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                productName = connection.getMetaData().getDatabaseProductName();
+            } catch (SQLException e) {
+                throw new RuntimeException("Could not determine database platform", e);
+            }
+        }
+        return productName;
+    }
+}
@@ -0,0 +1,54 @@
+package com.campusconnect.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the PostgreSQL full-text search column and index for groups.
+ *
+ * Hibernate's ddl-auto cannot express a generated tsvector column or a GIN index, so they
+ * are added here with idempotent DDL on startup. Because the column is GENERATED ... STORED,
+ * PostgreSQL keeps it current on every insert and update without triggers. Other databases
+ * are left alone and use the LIKE-based fallback.
+ */
+@Component
+public class FullTextSearchSchema {
+    private static final String ADD_SEARCH_VECTOR =
+            "ALTER TABLE groups ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+            "setweight(to_tsvector('simple', coalesce(name, '')), 'A') || " +
+            "setweight(to_tsvector('simple', coalesce(course_code, '')), 'A') || " +
+            "setweight(to_tsvector('simple', coalesce(course_name, '')), 'B') || " +
+            "setweight(to_tsvector('simple', coalesce(topic, '')), 'B') || " +
+            "setweight(to_tsvector('simple', coalesce(description, '')), 'C')) STORED";
+
+    private static final String CREATE_SEARCH_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_groups_search_vector ON groups USING GIN (search_vector)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    private volatile boolean available;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureSchema() {
+        if (!databasePlatform.isPostgres()) {
+            return;
+        }
+        jdbcTemplate.execute(ADD_SEARCH_VECTOR);
+        jdbcTemplate.execute(CREATE_SEARCH_INDEX);
+        available = true;
+    }
+
+    /**
+     * Whether the tsvector column and GIN index exist on this database
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+}
@@ -0,0 +1,116 @@
+package com.campusconnect.util;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.campusconnect.repository.GroupReadCursorRepository;
+
+/**
+ * Fills in group message sequence numbers and read cursors for rows that predate them.
+ *
+ * Group messages without messages.group_seq are numbered 1, 2, ... per group in id
+ * order (PostgreSQL with UPDATE ... FROM, H2 with MERGE), groups.message_seq is raised
+ * to the group's newest number, and every member without a cursor gets one at the
+ * newest message. Members who joined before cursors existed therefore start with
+ * nothing unread. Rows already in place are left untouched.
+ *
+ * Jobs that delete messages from groups that remain call renumber() for those groups,
+ * so message_seq again counts the group's messages and unread counts stay exact.
+ */
+@Component
+public class GroupReadCursorSchema {
+    private static final String HAS_UNNUMBERED =
+            "SELECT id FROM messages WHERE group_id IS NOT NULL AND group_seq IS NULL LIMIT 1";
+
+    private static final String NUMBER_MESSAGES_POSTGRES =
+            "UPDATE messages m SET group_seq = r.seq " +
+            "FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY group_id ORDER BY id) AS seq " +
+            "FROM messages WHERE group_id IS NOT NULL) r " +
+            "WHERE m.id = r.id AND m.group_seq IS NULL";
+
+    private static final String NUMBER_MESSAGES_H2 =
+            "MERGE INTO messages m " +
+            "USING (SELECT id, ROW_NUMBER() OVER (PARTITION BY group_id ORDER BY id) AS seq " +
+            "FROM messages WHERE group_id IS NOT NULL) r ON (m.id = r.id) " +
+            "WHEN MATCHED AND m.group_seq IS NULL THEN UPDATE SET group_seq = r.seq";
+
+    // The newest message by id has the highest number; one index lookup per group
+    private static final String LATEST_SEQ =
+            "COALESCE((SELECT m.group_seq FROM messages m WHERE m.group_id = g.id " +
+            "ORDER BY m.id DESC LIMIT 1), 0)";
+
+    private static final String RAISE_GROUP_SEQS =
+            "UPDATE groups g SET message_seq = " + LATEST_SEQ + " " +
+            "WHERE g.message_seq IS NULL OR g.message_seq < " + LATEST_SEQ;
+
+    // Holds the groups' rows, so messages sent meanwhile wait and are numbered after the renumber
+    private static final String LOCK_GROUPS =
+            "UPDATE groups SET message_seq = message_seq WHERE id IN (:ids)";
+
+    private static final String RENUMBER_MESSAGES_POSTGRES =
+            "UPDATE messages m SET group_seq = r.seq " +
+            "FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY group_id ORDER BY id) AS seq " +
+            "FROM messages WHERE group_id IN (:ids)) r " +
+            "WHERE m.id = r.id AND m.group_seq IS DISTINCT FROM r.seq";
+
+    private static final String RENUMBER_MESSAGES_H2 =
+            "MERGE INTO messages m " +
+            "USING (SELECT id, ROW_NUMBER() OVER (PARTITION BY group_id ORDER BY id) AS seq " +
+            "FROM messages WHERE group_id IN (:ids)) r ON (m.id = r.id) " +
+            "WHEN MATCHED AND (m.group_seq IS NULL OR m.group_seq <> r.seq) THEN UPDATE SET group_seq = r.seq";
+
+    private static final String RESET_GROUP_SEQS =
+            "UPDATE groups g SET message_seq = " + LATEST_SEQ + " WHERE g.id IN (:ids)";
+
+    // A cursor's new position is the number of remaining messages up to the one it was at
+    private static final String RESET_CURSORS =
+            "UPDATE group_read_cursors rc SET last_read_seq = " +
+            "(SELECT COUNT(*) FROM messages m WHERE m.group_id = rc.group_id AND m.id <= rc.last_read_message_id) " +
+            "WHERE rc.group_id IN (:ids)";
+
+    @Autowired
+    private GroupReadCursorRepository readCursorRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcile() {
+        if (!jdbcTemplate.queryForList(HAS_UNNUMBERED, Long.class).isEmpty()) {
+            jdbcTemplate.update(databasePlatform.isPostgres() ? NUMBER_MESSAGES_POSTGRES : NUMBER_MESSAGES_H2);
+        }
+        jdbcTemplate.update(RAISE_GROUP_SEQS);
+        readCursorRepository.createMissing();
+    }
+
+    /**
+     * Number the groups' remaining messages 1, 2, ... again, after messages were deleted,
+     * and move message_seq and every member's cursor to match
+     */
+    public void renumber(Collection<Long> groupIds) {
+        if (groupIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", groupIds);
+        namedParameterJdbcTemplate.update(LOCK_GROUPS, ids);
+        namedParameterJdbcTemplate.update(
+                databasePlatform.isPostgres() ? RENUMBER_MESSAGES_POSTGRES : RENUMBER_MESSAGES_H2, ids);
+        namedParameterJdbcTemplate.update(RESET_GROUP_SEQS, ids);
+        namedParameterJdbcTemplate.update(RESET_CURSORS, ids);
+    }
+}
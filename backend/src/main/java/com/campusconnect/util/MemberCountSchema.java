@@ -0,0 +1,63 @@
+package com.campusconnect.util;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills in groups.member_count and groups.version for rows that predate them, and
+ * repairs counts after writes that bypass GroupRepository.claimSeat/releaseSeat.
+ *
+ * ddl-auto adds both columns as NULL on existing tables. The conditional seat UPDATEs
+ * need a number in each, so on startup versions default to 0 and every count is
+ * recomputed from group_members. Counts already correct are left untouched. Jobs that
+ * write group_members directly call recount() for the groups they touched (bulk deletes)
+ * or reconcile() once they finish (synthetic data), so drift does not wait for a restart.
+ * A recount bumps version, so an edit that read the old count retries.
+ */
+@Component
+public class MemberCountSchema {
+    private static final String INIT_VERSIONS =
+            "UPDATE groups SET version = 0 WHERE version IS NULL";
+
+    private static final String MEMBER_ROWS =
+            "(SELECT COUNT(*) FROM group_members gm WHERE gm.group_id = g.id)";
+
+    private static final String RECOUNT_MEMBERS =
+            "UPDATE groups g SET member_count = " + MEMBER_ROWS + ", version = version + 1 " +
+            "WHERE g.member_count IS NULL OR g.member_count <> " + MEMBER_ROWS;
+
+    private static final String RECOUNT_GROUPS =
+            "UPDATE groups g SET member_count = " + MEMBER_ROWS + ", version = version + 1 " +
+            "WHERE g.id IN (:ids)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Recount every group whose member_count is missing or wrong; returns the number fixed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int reconcile() {
+        jdbcTemplate.update(INIT_VERSIONS);
+        return jdbcTemplate.update(RECOUNT_MEMBERS);
+    }
+
+    /**
+     * Recount the given groups from group_members
+     */
+    public void recount(Collection<Long> groupIds) {
+        if (!groupIds.isEmpty()) {
+            namedParameterJdbcTemplate.update(RECOUNT_GROUPS, new MapSqlParameterSource("ids", groupIds));
+        }
+    }
+}
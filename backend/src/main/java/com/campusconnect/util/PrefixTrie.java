@@ -0,0 +1,240 @@
+package com.campusconnect.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie that answers "best k values with a key starting with this prefix".
+ *
+ * Values are added best first, and each can have several keys. Primary keys (a full
+ * name or code) outrank secondary keys (a later word in the name), and within each kind
+ * earlier values win. Every node stores its top k values, so a lookup only walks the
+ * prefix and copies at most k results, whatever the number of matches.
+ *
+ * Nodes are flattened into a few arrays once built. The trie is never modified; callers
+ * build a new one and swap the reference (copy-on-write). Keys are stored up to
+ * maxKeyLength characters. Longer prefixes are checked against the full keys, so they
+ * may return fewer than k results.
+ */
+public final class PrefixTrie<T> {
+    // Ranks of secondary keys start here, after every primary key
+    private static final int SECONDARY_BASE = Integer.MAX_VALUE / 2;
+
+    private final List<T> values;
+    private final List<List<String>> keysByValue;
+    private final int maxKeyLength;
+
+    // Node n's edges are edgeChars/edgeTargets[edgeStart[n] .. edgeStart[n + 1]), sorted by char
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    // Node n's best values (indices into values) are top[topStart[n] .. topStart[n + 1])
+    private final int[] topStart;
+    private final int[] top;
+
+    private PrefixTrie(List<T> values, List<List<String>> keysByValue, int maxKeyLength,
+                       int[] edgeStart, char[] edgeChars, int[] edgeTargets, int[] topStart, int[] top) {
+        this.values = values;
+        this.keysByValue = keysByValue;
+        this.maxKeyLength = maxKeyLength;
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.topStart = topStart;
+        this.top = top;
+    }
+
+    public static <T> Builder<T> builder(int maxKeyLength) {
+        return new Builder<>(maxKeyLength);
+    }
+
+    public static <T> PrefixTrie<T> empty() {
+        return new Builder<T>(1).build(1);
+    }
+
+    /**
+     * Lower-case, trim and collapse whitespace; applied to keys and prefixes alike
+     */
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    /**
+     * Up to limit values with a key starting with the (normalized) prefix, best first
+     */
+    public List<T> complete(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        int node = 0;
+        for (int i = 0; i < Math.min(normalized.length(), maxKeyLength); i++) {
+            node = child(node, normalized.charAt(i));
+            if (node < 0) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<T> result = new ArrayList<>();
+        for (int i = topStart[node]; i < topStart[node + 1] && result.size() < limit; i++) {
+            if (normalized.length() <= maxKeyLength || hasKeyStartingWith(top[i], normalized)) {
+                result.add(values.get(top[i]));
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public int nodeCount() {
+        return edgeStart.length - 1;
+    }
+
+    private int child(int node, char c) {
+        int at = Arrays.binarySearch(edgeChars, edgeStart[node], edgeStart[node + 1], c);
+        return at >= 0 ? edgeTargets[at] : -1;
+    }
+
+    private boolean hasKeyStartingWith(int value, String prefix) {
+        for (String key : keysByValue.get(value)) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects values (best first) and their keys, then freezes them into a PrefixTrie.
+     * Not thread-safe.
+     */
+    public static final class Builder<T> {
+        private final int maxKeyLength;
+        private final List<T> values = new ArrayList<>();
+        private final List<List<String>> keysByValue = new ArrayList<>();
+        private final Node root = new Node();
+
+        private Builder(int maxKeyLength) {
+            this.maxKeyLength = maxKeyLength;
+        }
+
+        /**
+         * Add a value; values added earlier rank higher. Returns its index for addKey().
+         */
+        public int addValue(T value) {
+            values.add(value);
+            keysByValue.add(new ArrayList<>());
+            return values.size() - 1;
+        }
+
+        public void addKey(int value, String key, boolean primary) {
+            String normalized = normalize(key);
+            if (normalized.isEmpty()) {
+                return;
+            }
+            keysByValue.get(value).add(normalized);
+            Node node = root;
+            for (int i = 0; i < Math.min(normalized.length(), maxKeyLength); i++) {
+                node = node.children.computeIfAbsent(normalized.charAt(i), c -> new Node());
+            }
+            node.ranks.add(primary ? value : SECONDARY_BASE + value);
+        }
+
+        public PrefixTrie<T> build(int k) {
+            List<Node> order = new ArrayList<>();
+            collect(root, order);
+            for (int i = order.size() - 1; i >= 0; i--) {
+                order.get(i).computeTop(k);
+            }
+
+            int nodes = order.size();
+            int[] edgeStart = new int[nodes + 1];
+            int[] topStart = new int[nodes + 1];
+            int edges = 0;
+            int tops = 0;
+            for (int n = 0; n < nodes; n++) {
+                edgeStart[n] = edges;
+                topStart[n] = tops;
+                edges += order.get(n).children.size();
+                tops += order.get(n).top.length;
+            }
+            edgeStart[nodes] = edges;
+            topStart[nodes] = tops;
+
+            char[] edgeChars = new char[edges];
+            int[] edgeTargets = new int[edges];
+            int[] top = new int[tops];
+            for (int n = 0; n < nodes; n++) {
+                Node node = order.get(n);
+                int e = edgeStart[n];
+                for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                    edgeChars[e] = child.getKey();
+                    edgeTargets[e] = child.getValue().position;
+                    e++;
+                }
+                System.arraycopy(node.top, 0, top, topStart[n], node.top.length);
+            }
+
+            List<List<String>> keys = new ArrayList<>(keysByValue.size());
+            keysByValue.forEach(list -> keys.add(List.copyOf(list)));
+            return new PrefixTrie<>(List.copyOf(values), keys, maxKeyLength,
+                    edgeStart, edgeChars, edgeTargets, topStart, top);
+        }
+
+        /**
+         * Pre-order numbering, so every child comes after its parent
+         */
+        private static void collect(Node node, List<Node> order) {
+            node.position = order.size();
+            order.add(node);
+            for (Node child : node.children.values()) {
+                collect(child, order);
+            }
+        }
+
+        private static final class Node {
+            private final TreeMap<Character, Node> children = new TreeMap<>();
+            private final List<Integer> ranks = new ArrayList<>();
+            private int position;
+            private int[] top;
+            // Ranks behind top (kept until the parent has merged them)
+            private int[] topRanks;
+
+            /**
+             * Best k distinct values among this node's keys and its children's top lists
+             */
+            private void computeTop(int k) {
+                List<Integer> candidates = new ArrayList<>(ranks);
+                for (Node child : children.values()) {
+                    for (int rank : child.topRanks) {
+                        candidates.add(rank);
+                    }
+                }
+                Collections.sort(candidates);
+
+                int[] bestRanks = new int[Math.min(k, candidates.size())];
+                int[] best = new int[bestRanks.length];
+                int count = 0;
+                for (int rank : candidates) {
+                    if (count == bestRanks.length) {
+                        break;
+                    }
+                    int value = rank >= SECONDARY_BASE ? rank - SECONDARY_BASE : rank;
+                    boolean seen = false;
+                    for (int i = 0; i < count && !seen; i++) {
+                        seen = best[i] == value;
+                    }
+                    if (!seen) {
+                        bestRanks[count] = rank;
+                        best[count++] = value;
+                    }
+                }
+                this.topRanks = Arrays.copyOf(bestRanks, count);
+                this.top = Arrays.copyOf(best, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.campusconnect.util;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws ranks 0..n-1 with probability proportional to 1 / (rank + 1)^skew.
+ *
+ * skew 0 is uniform; around 1 a few low ranks take most draws, the long-tail shape of
+ * group sizes and per-user activity. The cumulative distribution is computed once
+ * (8 bytes per rank), and each draw is a binary search over it. All randomness comes
+ * from the caller's generator, so a seeded generator gives a repeatable sequence.
+ */
+public final class ZipfSampler {
+    private static final int PREFIX_ATTEMPTS = 32;
+
+    private final double[] cumulative;
+
+    public ZipfSampler(int n, double skew) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Sampler needs at least one rank");
+        }
+        if (skew < 0) {
+            throw new IllegalArgumentException("Skew must not be negative: " + skew);
+        }
+        cumulative = new double[n];
+        double total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            total += Math.pow(rank + 1, -skew);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= total;
+        }
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    public int sample(SplittableRandom random) {
+        int at = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(at >= 0 ? at : -at - 1, cumulative.length - 1);
+    }
+
+    /**
+     * A draw restricted to ranks below limit. Falls back to a uniform draw when the
+     * restriction rejects too many samples (small limit, low skew).
+     */
+    public int sampleBelow(SplittableRandom random, int limit) {
+        if (limit >= cumulative.length) {
+            return sample(random);
+        }
+        for (int attempt = 0; attempt < PREFIX_ATTEMPTS; attempt++) {
+            int rank = sample(random);
+            if (rank < limit) {
+                return rank;
+            }
+        }
+        return random.nextInt(limit);
+    }
+
+    public double probability(int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+}
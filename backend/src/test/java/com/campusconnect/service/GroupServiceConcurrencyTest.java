@@ -0,0 +1,109 @@
+package com.campusconnect.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.campusconnect.model.Group;
+import com.campusconnect.model.User;
+import com.campusconnect.repository.UserRepository;
+
+/**
+ * Concurrent joins must never overshoot a group's max_size, and member_count must stay
+ * equal to the group_members rows (GroupRepository.claimSeat).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:group-concurrency;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "posts.search.index-dir=target/test-post-index",
+        "recommendations.precompute.enabled=false"
+})
+class GroupServiceConcurrencyTest {
+    private static final int MAX_SIZE = 5;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentJoinsFillGroupExactlyToMaxSize() throws Exception {
+        User creator = createUser("creator");
+        Group group = groupService.createGroup(creator.getId(), "Concurrency study", null,
+                "Calculus", "MATH101", null, MAX_SIZE, Group.GroupVisibility.PUBLIC, false, null);
+        Long groupId = group.getId();
+
+        List<Long> joinerIds = new ArrayList<>();
+        for (int i = 0; i < MAX_SIZE * 3; i++) {
+            joinerIds.add(createUser("joiner" + i).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(joinerIds.size());
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger joined = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            List<Future<?>> joins = new ArrayList<>();
+            for (Long userId : joinerIds) {
+                joins.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        groupService.joinGroupDirectly(groupId, userId);
+                        joined.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> join : joins) {
+                join.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Integer memberCount = jdbcTemplate.queryForObject(
+                "SELECT member_count FROM groups WHERE id = ?", Integer.class, groupId);
+        Integer memberRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM group_members WHERE group_id = ?", Integer.class, groupId);
+
+        assertEquals(MAX_SIZE, memberCount);
+        assertEquals(memberCount, memberRows);
+        // The creator holds one seat
+        assertEquals(MAX_SIZE - 1, joined.get());
+        assertEquals(joinerIds.size() - (MAX_SIZE - 1), rejected.get());
+        assertTrue(groupService.getGroupById(groupId).getMemberCount() <= MAX_SIZE);
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@test.edu");
+        user.setPassword("not-a-login-password");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,113 @@
+package com.campusconnect.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Containers switch from a sorted array to a bitset above 4096 values and back at 4096;
+ * contents must survive both switches.
+ */
+class CompactBitmapTest {
+    private static final int ARRAY_MAX = 4096;
+
+    @Test
+    void staysArrayUpTo4096Values() {
+        CompactBitmap bitmap = filled(ARRAY_MAX);
+
+        assertEquals(ARRAY_MAX, bitmap.size());
+        assertEquals(0, bitmap.bitmapContainers());
+        assertArrayEquals(LongStream.range(0, ARRAY_MAX).map(i -> i * 3).toArray(), bitmap.toArray());
+    }
+
+    @Test
+    void switchesToBitmapAt4097Values() {
+        CompactBitmap bitmap = filled(ARRAY_MAX);
+
+        assertTrue(bitmap.add(ARRAY_MAX * 3L));
+
+        assertEquals(ARRAY_MAX + 1, bitmap.size());
+        assertEquals(1, bitmap.bitmapContainers());
+        for (long i = 0; i <= ARRAY_MAX; i++) {
+            assertTrue(bitmap.contains(i * 3), "missing " + i * 3);
+            assertFalse(bitmap.contains(i * 3 + 1));
+        }
+        assertArrayEquals(LongStream.rangeClosed(0, ARRAY_MAX).map(i -> i * 3).toArray(), bitmap.toArray());
+    }
+
+    @Test
+    void switchesBackToArrayAt4096Values() {
+        CompactBitmap bitmap = filled(ARRAY_MAX + 1);
+        assertEquals(1, bitmap.bitmapContainers());
+
+        assertTrue(bitmap.remove(0));
+
+        assertEquals(ARRAY_MAX, bitmap.size());
+        assertEquals(0, bitmap.bitmapContainers());
+        assertFalse(bitmap.contains(0));
+        assertArrayEquals(LongStream.rangeClosed(1, ARRAY_MAX).map(i -> i * 3).toArray(), bitmap.toArray());
+
+        // Adding to the converted array container works, and crosses over again
+        assertTrue(bitmap.add(0));
+        assertEquals(1, bitmap.bitmapContainers());
+        assertEquals(ARRAY_MAX + 1, bitmap.size());
+    }
+
+    @Test
+    void duplicateAddAndMissingRemoveDoNotChangeSize() {
+        CompactBitmap bitmap = filled(ARRAY_MAX + 1);
+
+        assertFalse(bitmap.add(3));
+        assertFalse(bitmap.remove(1));
+        assertEquals(ARRAY_MAX + 1, bitmap.size());
+    }
+
+    @Test
+    void keepsContainersPerHighPartApart() {
+        CompactBitmap bitmap = new CompactBitmap();
+        long otherContainer = 1L << 16;
+        for (long i = 0; i <= ARRAY_MAX; i++) {
+            bitmap.add(i);
+        }
+        bitmap.add(otherContainer);
+        bitmap.add(Long.MAX_VALUE);
+
+        assertEquals(ARRAY_MAX + 3, bitmap.size());
+        assertEquals(1, bitmap.bitmapContainers());
+        assertTrue(bitmap.contains(otherContainer));
+        assertTrue(bitmap.contains(Long.MAX_VALUE));
+
+        for (long i = 0; i <= ARRAY_MAX; i++) {
+            assertTrue(bitmap.remove(i));
+        }
+        assertEquals(0, bitmap.bitmapContainers());
+        assertArrayEquals(new long[] {otherContainer, Long.MAX_VALUE}, bitmap.toArray());
+        assertTrue(bitmap.remove(otherContainer));
+        assertTrue(bitmap.remove(Long.MAX_VALUE));
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.sizeInBytes());
+    }
+
+    @Test
+    void rejectsNegativeIds() {
+        CompactBitmap bitmap = new CompactBitmap();
+
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+        assertTrue(bitmap.isEmpty());
+    }
+
+    // Values 0, 3, 6, ... all in the first container
+    private static CompactBitmap filled(int count) {
+        CompactBitmap bitmap = new CompactBitmap();
+        for (long i = 0; i < count; i++) {
+            assertTrue(bitmap.add(i * 3));
+        }
+        return bitmap;
+    }
+}
@@ -2,6 +2,7 @@ import axios from 'axios';
 import React, { useContext, useEffect, useState } from 'react';
 import { Link, useNavigate } from 'react-router-dom';
 import { AuthContext } from '../context/AuthContext';
+import { subscribe } from '../utils/eventStream';
 import './Dashboard.css';
 
 const Dashboard = () => {
@@ -9,29 +10,49 @@ const Dashboard = () => {
   const navigate = useNavigate();
   const [stats, setStats] = useState({
     groups: 0,
-    messages: 0,
     unreadMessages: 0,
   });
+  const [conversations, setConversations] = useState([]);
   const [recommendedGroups, setRecommendedGroups] = useState([]);
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
     if (user) {
       fetchStats();
+      fetchConversations();
       fetchRecommendedGroups();
+      // Pushed messages move a conversation to the top; one page of summaries is cheap to refetch
+      const unsubscribeMessages = subscribe('message', (message) => {
+        fetchConversations();
+        if (!message) {
+          fetchStats();
+          return;
+        }
+        if (message.type !== 'DIRECT') return;
+        setStats(prevStats => ({
+          ...prevStats,
+          unreadMessages: prevStats.unreadMessages + (message.recipientId === user.id ? 1 : 0),
+        }));
+      });
+      const unsubscribeReconnect = subscribe('reconnect', () => {
+        fetchStats();
+        fetchConversations();
+      });
+      return () => {
+        unsubscribeMessages();
+        unsubscribeReconnect();
+      };
     }
   }, [user]);
 
   const fetchStats = async () => {
     try {
-      const [groupsRes, messagesRes, unreadRes] = await Promise.all([
+      const [groupsRes, unreadRes] = await Promise.all([
         axios.get('http://localhost:8080/api/groups/my-groups'),
-        axios.get('http://localhost:8080/api/messages/inbox'),
         axios.get('http://localhost:8080/api/messages/unread-count'),
       ]);
       setStats({
         groups: groupsRes.data.length,
-        messages: messagesRes.data.length,
         unreadMessages: unreadRes.data,
       });
     } catch (error) {
@@ -39,6 +60,17 @@ const Dashboard = () => {
     }
   };
 
+  const fetchConversations = async () => {
+    try {
+      const response = await axios.get('http://localhost:8080/api/messages/conversations', {
+        params: { size: 5 },
+      });
+      setConversations(response.data);
+    } catch (error) {
+      console.error('Error fetching conversations:', error);
+    }
+  };
+
   const fetchRecommendedGroups = async () => {
     try {
       const response = await axios.get('http://localhost:8080/api/groups/recommended');
@@ -114,10 +146,25 @@ const Dashboard = () => {
 
         <div className="sidebar-section">
           <h2>Messages</h2>
-          <div className="sidebar-stat">
-            <span className="stat-value">{stats.messages}</span>
-            <span className="stat-label">Total Messages</span>
-          </div>
+          {conversations.length === 0 ? (
+            <p className="conversation-empty">No conversations yet</p>
+          ) : (
+            <ul className="conversation-list">
+              {conversations.map(conversation => (
+                <li key={conversation.id} className="conversation-item">
+                  <Link to={conversation.type === 'GROUP' ? `/groups/${conversation.groupId}` : '/messages'}>
+                    <span className="conversation-name">
+                      {conversation.type === 'GROUP' ? conversation.groupName : conversation.peerName}
+                    </span>
+                    {conversation.unreadCount > 0 && (
+                      <span className="conversation-unread">{conversation.unreadCount}</span>
+                    )}
+                  </Link>
+                  <span className="conversation-preview">{conversation.lastMessagePreview}</span>
+                </li>
+              ))}
+            </ul>
+          )}
           {stats.unreadMessages > 0 && (
             <div className="unread-indicator">
               <span className="unread-count">{stats.unreadMessages}</span>
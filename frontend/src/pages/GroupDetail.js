@@ -1,7 +1,8 @@
 import axios from 'axios';
-import React, { useContext, useEffect, useState } from 'react';
+import React, { useContext, useEffect, useRef, useState } from 'react';
 import { useNavigate, useParams } from 'react-router-dom';
 import { AuthContext } from '../context/AuthContext';
+import { subscribe } from '../utils/eventStream';
 import './GroupDetail.css';
 
 const GroupDetail = () => {
@@ -10,6 +11,8 @@ const GroupDetail = () => {
   const { user } = useContext(AuthContext);
   const [group, setGroup] = useState(null);
   const [messages, setMessages] = useState([]);
+  const [olderCursor, setOlderCursor] = useState(null);
+  const latestMessageIdRef = useRef(null);
   const [newMessage, setNewMessage] = useState('');
   const [joinRequestMessage, setJoinRequestMessage] = useState('');
   const [loading, setLoading] = useState(true);
@@ -32,6 +35,39 @@ const GroupDetail = () => {
     fetchMessages();
   }, [id]);
 
+  useEffect(() => {
+    if (!user) return undefined;
+    // Messages in this group are pushed by the server while the page is open
+    const unsubscribeMessages = subscribe('message', (message) => {
+      if (!message) {
+        fetchNewMessages();
+        return;
+      }
+      if (String(message.groupId) !== String(id)) return;
+      setMessages(prevMessages => prevMessages.some(m => m.id === message.id)
+        ? prevMessages
+        : [...prevMessages, message]);
+    });
+    const unsubscribeReconnect = subscribe('reconnect', fetchNewMessages);
+    return () => {
+      unsubscribeMessages();
+      unsubscribeReconnect();
+    };
+  }, [id, user]);
+
+  useEffect(() => {
+    latestMessageIdRef.current = messages.length > 0 ? messages[messages.length - 1].id : null;
+  }, [messages]);
+
+  // Everything shown in the open chat counts as read
+  useEffect(() => {
+    const latestId = messages.length > 0 ? messages[messages.length - 1].id : null;
+    if (!latestId || !user || !group?.memberIds?.includes(user.id)) return;
+    axios.post(`http://localhost:8080/api/messages/group/${id}/read`, null, {
+      params: { upTo: latestId },
+    }).catch(error => console.error('Error marking messages read:', error));
+  }, [messages, group, user, id]);
+
   useEffect(() => {
     if (group) {
       setEditForm({
@@ -58,15 +94,53 @@ const GroupDetail = () => {
     }
   };
 
+  // Newest page of messages; older ones are loaded on request
   const fetchMessages = async () => {
     try {
       const response = await axios.get(`http://localhost:8080/api/messages/group/${id}`);
       setMessages(response.data);
+      setOlderCursor(response.headers['x-next-cursor'] || null);
     } catch (error) {
       console.error('Error fetching messages:', error);
     }
   };
 
+  // Only what arrived after the newest message shown, e.g. while the stream was reconnecting
+  const fetchNewMessages = async () => {
+    if (latestMessageIdRef.current === null) {
+      fetchMessages();
+      return;
+    }
+    try {
+      let since = latestMessageIdRef.current;
+      while (since) {
+        const response = await axios.get(`http://localhost:8080/api/messages/group/${id}`, {
+          params: { since },
+        });
+        const newMessages = response.data;
+        setMessages(prevMessages => [
+          ...prevMessages,
+          ...newMessages.filter(m => !prevMessages.some(existing => existing.id === m.id)),
+        ]);
+        since = response.headers['x-next-cursor'];
+      }
+    } catch (error) {
+      console.error('Error fetching new messages:', error);
+    }
+  };
+
+  const loadOlderMessages = async () => {
+    try {
+      const response = await axios.get(`http://localhost:8080/api/messages/group/${id}`, {
+        params: { before: olderCursor },
+      });
+      setMessages(prevMessages => [...response.data, ...prevMessages]);
+      setOlderCursor(response.headers['x-next-cursor'] || null);
+    } catch (error) {
+      console.error('Error fetching older messages:', error);
+    }
+  };
+
   const handleSendMessage = async (e) => {
     e.preventDefault();
     if (!newMessage.trim()) return;
@@ -78,8 +152,8 @@ const GroupDetail = () => {
           content: newMessage,
         },
       });
+      // The new message arrives on the event stream like everyone else's
       setNewMessage('');
-      fetchMessages();
     } catch (error) {
       console.error('Error sending message:', error);
       alert('Failed to send message. You may need to join the group first.');
@@ -424,6 +498,11 @@ const GroupDetail = () => {
         <div className="group-chat card">
           <h2>Group Chat</h2>
           <div className="messages-container">
+            {olderCursor && (
+              <button type="button" className="btn btn-secondary load-older" onClick={loadOlderMessages}>
+                Load older messages
+              </button>
+            )}
             {messages.map((message) => (
               <div key={message.id} className="message">
                 <strong>{message.senderName}:</strong> {message.content}
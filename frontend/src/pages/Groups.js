@@ -7,6 +7,8 @@ import './Groups.css';
 const Groups = () => {
   const { user } = useContext(AuthContext);
   const [groups, setGroups] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [myCreatedGroups, setMyCreatedGroups] = useState([]);
   const [myJoinedGroups, setMyJoinedGroups] = useState([]);
   const [searchQuery, setSearchQuery] = useState('');
@@ -56,6 +58,7 @@ const Groups = () => {
     try {
       const response = await axios.get('http://localhost:8080/api/groups');
       setGroups(response.data);
+      setNextCursor(response.headers['x-next-cursor'] || null);
     } catch (error) {
       console.error('Error fetching groups:', error);
     } finally {
@@ -63,6 +66,22 @@ const Groups = () => {
     }
   };
 
+  const loadMoreGroups = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const response = await axios.get('http://localhost:8080/api/groups', {
+        params: { cursor: nextCursor },
+      });
+      setGroups(prev => [...prev, ...response.data]);
+      setNextCursor(response.headers['x-next-cursor'] || null);
+    } catch (error) {
+      console.error('Error loading more groups:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const fetchMyCreatedGroups = async () => {
     try {
       const response = await axios.get('http://localhost:8080/api/groups/my-created-groups');
@@ -131,6 +150,7 @@ const Groups = () => {
         params: { query: searchQuery },
       });
       setGroups(response.data);
+      setNextCursor(null);
     } catch (error) {
       console.error('Error searching groups:', error);
     }
@@ -734,6 +754,13 @@ const Groups = () => {
               );
             })}
         </div>
+        {nextCursor && (
+          <div className="load-more">
+            <button onClick={loadMoreGroups} className="btn btn-secondary" disabled={loadingMore}>
+              {loadingMore ? 'Loading...' : 'Load more groups'}
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
@@ -1,6 +1,7 @@
 import axios from 'axios';
 import React, { useContext, useEffect, useRef, useState } from 'react';
 import { AuthContext } from '../context/AuthContext';
+import { subscribe } from '../utils/eventStream';
 import './Messages.css';
 
 const Messages = () => {
@@ -18,9 +19,22 @@ const Messages = () => {
   useEffect(() => {
     if (user) {
       fetchMessages();
-      // Refresh messages every 5 seconds
-      const interval = setInterval(fetchMessages, 5000);
-      return () => clearInterval(interval);
+      // New direct messages are pushed by the server instead of polled
+      const unsubscribeMessages = subscribe('message', (message) => {
+        if (!message) {
+          fetchMessages();
+          return;
+        }
+        if (message.type !== 'DIRECT') return;
+        setMessages(prevMessages => prevMessages.some(m => m.id === message.id)
+          ? prevMessages
+          : [...prevMessages, message]);
+      });
+      const unsubscribeReconnect = subscribe('reconnect', fetchMessages);
+      return () => {
+        unsubscribeMessages();
+        unsubscribeReconnect();
+      };
     }
   }, [user]);
 
@@ -99,8 +113,10 @@ const Messages = () => {
         setRecipientUsername('');
       }
       
-      // After sending, refresh messages and select the conversation
-      await fetchMessages();
+      // Show the sent message right away (the event stream may deliver it too) and select the conversation
+      setMessages(prevMessages => prevMessages.some(m => m.id === sentMessage.id)
+        ? prevMessages
+        : [...prevMessages, sentMessage]);
       
       // Find the recipient's user ID from the sent message
       const recipientId = sentMessage.recipientId === user.id ? sentMessage.senderId : sentMessage.recipientId;
@@ -157,16 +173,20 @@ const Messages = () => {
       });
     }
     
-    // Mark messages as read
-    conversationMessages
-      .filter(m => !m.isRead && m.recipientId === user.id)
-      .forEach(async (msg) => {
-        try {
-          await axios.post(`http://localhost:8080/api/messages/${msg.id}/read`);
-        } catch (e) {
-          // Ignore errors
-        }
-      });
+    // Mark the whole conversation read in one request
+    const unread = conversationMessages.filter(m => !m.isRead && m.recipientId === user.id);
+    if (unread.length > 0) {
+      const upTo = Math.max(...unread.map(m => m.id));
+      try {
+        await axios.post(`http://localhost:8080/api/messages/direct/${otherUserId}/read`, null, {
+          params: { upTo },
+        });
+        setMessages(prevMessages => prevMessages.map(m =>
+          m.senderId === otherUserId && m.recipientId === user.id && m.id <= upTo ? { ...m, isRead: true } : m));
+      } catch (e) {
+        // Ignore errors
+      }
+    }
   };
 
   const handleNewMessageClick = () => {
@@ -0,0 +1,51 @@
+// One shared server-sent event stream per tab, replacing polling.
+// The backend pushes "message" and "notification" events for the logged-in user
+// (direct messages, messages in their groups). EventSource reconnects on its own
+// after a drop; listeners get a "reconnect" call so they can catch up on anything missed.
+
+const STREAM_URL = 'http://localhost:8080/api/stream';
+
+const listeners = new Map();
+let source = null;
+let connectedOnce = false;
+
+const dispatch = (type, data) => {
+  (listeners.get(type) || new Set()).forEach((handler) => handler(data));
+};
+
+const open = () => {
+  const token = localStorage.getItem('token');
+  if (!token || source) return;
+
+  source = new EventSource(`${STREAM_URL}?access_token=${encodeURIComponent(token)}`);
+  source.addEventListener('ready', () => {
+    if (connectedOnce) dispatch('reconnect', null);
+    connectedOnce = true;
+  });
+  ['message', 'notification'].forEach((type) => {
+    source.addEventListener(type, (event) => {
+      // data is null when the payload was too large to relay; handlers refetch instead
+      dispatch(type, JSON.parse(event.data));
+    });
+  });
+};
+
+const closeIfUnused = () => {
+  const active = Array.from(listeners.values()).some((handlers) => handlers.size > 0);
+  if (!active && source) {
+    source.close();
+    source = null;
+    connectedOnce = false;
+  }
+};
+
+// Subscribe to one event type; returns the unsubscribe function (use as a useEffect cleanup)
+export const subscribe = (type, handler) => {
+  if (!listeners.has(type)) listeners.set(type, new Set());
+  listeners.get(type).add(handler);
+  open();
+  return () => {
+    listeners.get(type).delete(handler);
+    closeIfUnused();
+  };
+};